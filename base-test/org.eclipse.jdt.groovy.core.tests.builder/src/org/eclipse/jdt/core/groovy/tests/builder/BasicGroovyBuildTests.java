@@ -1810,6 +1810,38 @@ public final class BasicGroovyBuildTests extends BuilderTestSuite {
 
     }
 
+    @Test
+    public void testSharedMissingTypes() throws Exception {
+        IPath projectPath = env.addProject("Project");
+        env.addExternalJars(projectPath, Util.getJavaClassLibs());
+        env.addGroovyJars(projectPath);
+        fullBuild(projectPath);
+
+        // remove old package fragment root so that names don't collide
+        env.removePackageFragmentRoot(projectPath, "");
+
+        IPath root = env.addPackageFragmentRoot(projectPath, "src");
+        env.setOutputFolder(projectPath, "bin");
+
+        String contents =
+            "package p\n" +
+            "print nothere.Missing\n" +
+            "print nothere.at.all.Absent\n";
+
+        for (int i = 0; i < 10; i += 1) {
+            env.addGroovyClass(root, "p", "Script" + i, contents);
+        }
+        fullBuild(projectPath);
+        expectingNoProblems();
+
+        // every unit depends on the missing types, although only the first one looked them up
+        env.addGroovyClass(root, "nothere", "Missing", "package nothere\nclass Missing {}\n");
+        incrementalBuild(projectPath);
+        expectingNoProblems();
+        expectingCompiledClasses("nothere.Missing", "p.Script0", "p.Script1", "p.Script2", "p.Script3", "p.Script4",
+            "p.Script5", "p.Script6", "p.Script7", "p.Script8", "p.Script9");
+    }
+
     @Test
     public void testClosureBasics() throws Exception {
         IPath projectPath = env.addProject("Project");
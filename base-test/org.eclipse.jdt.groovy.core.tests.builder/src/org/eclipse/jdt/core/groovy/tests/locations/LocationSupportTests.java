@@ -22,7 +22,9 @@ import java.util.List;
 
 import groovy.lang.GroovyClassLoader;
 
+import org.codehaus.groovy.antlr.LineColumn;
 import org.codehaus.groovy.antlr.LocationSupport;
+import org.codehaus.groovy.antlr.SourceBuffer;
 import org.codehaus.groovy.ast.ASTNode;
 import org.codehaus.groovy.ast.ModuleNode;
 import org.codehaus.groovy.ast.expr.DeclarationExpression;
@@ -30,6 +32,7 @@ import org.codehaus.groovy.ast.stmt.ExpressionStatement;
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.ErrorCollector;
 import org.codehaus.groovy.control.SourceUnit;
+import org.codehaus.groovy.control.io.CharArrayReaderSource;
 import org.codehaus.jdt.groovy.internal.compiler.ast.GroovyCompilationUnitDeclaration;
 import org.eclipse.jdt.groovy.core.util.ReflectionUtils;
 import org.junit.Test;
@@ -309,4 +312,58 @@ public final class LocationSupportTests {
         assertEquals(content.indexOf('7'), decl.getRightExpression().getStart());
         assertEquals(content.indexOf('7')+1, decl.getRightExpression().getEnd());
     }
+
+    @Test
+    public void testSourceBufferSnippets() throws Exception {
+        String content = "abc\ndef\r\nghi\rjk";
+        SourceBuffer copied = new SourceBuffer(), shared = new SourceBuffer(content.toCharArray());
+        for (int i = 0, n = content.length(); i < n; i += 1) {
+            copied.write(content.charAt(i));
+            shared.write(content.charAt(i));
+        }
+        copied.write(-1);
+        shared.write(-1);
+
+        assertEquals("abc\nde", shared.getSnippet(new LineColumn(1, 1), new LineColumn(2, 3)));
+        assertEquals("c\ndef\r\ngh", shared.getSnippet(new LineColumn(1, 3), new LineColumn(3, 3)));
+        assertEquals("ghi\rj", shared.getSnippet(new LineColumn(3, 1), new LineColumn(4, 2)));
+        assertEquals("e", shared.getSnippet(new LineColumn(2, 2), new LineColumn(2, 3)));
+        for (int line = 1; line <= 5; line += 1) {
+            for (int column = 1; column <= 6; column += 1) {
+                LineColumn start = new LineColumn(1, 2), end = new LineColumn(line, column);
+                assertEquals(copied.getSnippet(start, end), shared.getSnippet(start, end));
+            }
+        }
+        assertEquals(copied.getLocationSupport().findOffset(4, 2), shared.getLocationSupport().findOffset(4, 2));
+    }
+
+    @Test
+    public void testSourceBufferUnescaped() throws Exception {
+        // the buffer receives the unescaped characters, which no longer match the source
+        SourceBuffer buffer = new SourceBuffer("a\\u0041b\nc".toCharArray());
+        for (char c : "aAb\nc".toCharArray()) {
+            buffer.write(c);
+        }
+        assertEquals("aAb\nc", buffer.getSnippet(new LineColumn(1, 1), new LineColumn(2, 2)));
+    }
+
+    @Test
+    public void testParserSourceLocationsCharArray() throws Exception {
+        String content = "/*\\u00E9*/ def x = 7\r\n  x++\n  def y = /*\\u00E9*/ []";
+        SourceUnit sourceUnit = new SourceUnit("Foo", new CharArrayReaderSource(content.toCharArray(), new CompilerConfiguration()),
+            new CompilerConfiguration(), new GroovyClassLoader(), new ErrorCollector(new CompilerConfiguration()));
+        sourceUnit.parse();
+        sourceUnit.completePhase();
+        sourceUnit.convert();
+        ModuleNode module = sourceUnit.getAST();
+
+        // now check locations
+        assertEquals(0, module.getStart());
+        assertEquals(content.length(), module.getEnd());
+        assertEquals(content.indexOf("def"), ((ASTNode) module.getStatementBlock().getStatements().get(0)).getStart());
+        assertEquals(content.indexOf("x++"), ((ASTNode) module.getStatementBlock().getStatements().get(1)).getStart());
+        assertEquals(content.indexOf("x++") + 3, ((ASTNode) module.getStatementBlock().getStatements().get(1)).getEnd());
+        assertEquals(content.lastIndexOf("def"), ((ASTNode) module.getStatementBlock().getStatements().get(2)).getStart());
+        assertEquals(content.length(), ((ASTNode) module.getStatementBlock().getStatements().get(2)).getEnd());
+    }
 }
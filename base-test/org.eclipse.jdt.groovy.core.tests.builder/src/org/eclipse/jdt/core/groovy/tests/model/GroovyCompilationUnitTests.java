@@ -39,6 +39,7 @@ import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IMemberValuePair;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.compiler.IProblem;
@@ -688,6 +689,62 @@ public final class GroovyCompilationUnitTests extends GroovyTypeRootTestSuite {
         }
     }
 
+    @Test
+    public void testTypeHierarchy1() throws Exception {
+        IPath root = createAnnotationGroovyProject();
+        env.addGroovyClass(root, "p", "A",
+            "package p;\n" +
+            "class A { }"
+        );
+        IPath path = env.addGroovyClass(root, "p", "B",
+            "package p;\n" +
+            "class B extends A implements Runnable {\n" +
+            "  void run() {\n" +
+            "    def foo = new Runnable() { void run() { } }\n" +
+            "  }\n" +
+            "}"
+        );
+        env.addClass(root, "p", "C",
+            "package p;\n" +
+            "public class C extends B { }"
+        );
+        incrementalBuild();
+        env.waitForAutoBuild();
+        expectingNoProblems();
+        GroovyCompilationUnit unit = env.getUnit(path);
+        unit.becomeWorkingCopy(new NullProgressMonitor());
+        try {
+            IType a = unit.getJavaProject().findType("p.A");
+            ITypeHierarchy hierarchy = a.newTypeHierarchy(new NullProgressMonitor());
+            IType[] subclasses = hierarchy.getSubclasses(a);
+            assertEquals(Arrays.toString(subclasses), 1, subclasses.length);
+            assertEquals("p.B", subclasses[0].getFullyQualifiedName());
+            subclasses = hierarchy.getSubclasses(subclasses[0]);
+            assertEquals(Arrays.toString(subclasses), 1, subclasses.length);
+            assertEquals("p.C", subclasses[0].getFullyQualifiedName());
+
+            IType c = unit.getJavaProject().findType("p.C");
+            hierarchy = c.newSupertypeHierarchy(new NullProgressMonitor());
+            IType b = hierarchy.getSuperclass(c);
+            assertEquals("p.B", b.getFullyQualifiedName());
+            assertEquals("p.A", hierarchy.getSuperclass(b).getFullyQualifiedName());
+            assertEquals("Runnable", hierarchy.getSuperInterfaces(b)[0].getElementName());
+
+            // the anonymous type in B is a local type of a unit other than the focus
+            IType runnable = unit.getJavaProject().findType("java.lang.Runnable");
+            hierarchy = runnable.newTypeHierarchy(unit.getJavaProject(), new NullProgressMonitor());
+            IType[] implementors = hierarchy.getImplementingClasses(runnable);
+            String[] names = new String[implementors.length];
+            for (int i = 0; i < implementors.length; i += 1) {
+                names[i] = implementors[i].getFullyQualifiedName();
+            }
+            Arrays.sort(names);
+            assertEquals("[p.B, p.B$1]", Arrays.toString(names));
+        } finally {
+            unit.discardWorkingCopy();
+        }
+    }
+
     @Test
     public void testVariadicMethod1() throws Exception {
         IPath path = env.addGroovyClass(createEmptyGroovyProject(), "", "X",
@@ -20,14 +20,21 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import junit.framework.AssertionFailedError;
+import org.codehaus.jdt.groovy.model.GroovyNature;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.jdt.core.groovy.tests.builder.BuilderTestSuite;
 import org.eclipse.jdt.groovy.core.util.ContentTypeUtils;
@@ -152,6 +159,48 @@ public final class GroovyContentTypeTests extends BuilderTestSuite {
         runMultipleTimes(runner);
     }
 
+    @Test
+    public void testCachedNatureFollowsChanges() throws Exception {
+        IProject proj = createProject();
+        for (int i = 0; i < 10; i += 1) {
+            assertTrue(GroovyNature.hasGroovyNature(proj));
+            assertTrue(ContentTypeUtils.isGroovyLikeFileName("src/p1/HelloGroovy.groovy"));
+            assertFalse(ContentTypeUtils.isGroovyLikeFileName("src/p1/HelloJava.java"));
+        }
+
+        // a change to the project description is seen on the next check
+        env.removeGroovyNature(proj.getName());
+        assertFalse(GroovyNature.hasGroovyNature(proj));
+        assertFalse(GroovyNature.hasGroovyNature(proj));
+
+        env.addGroovyNature(proj.getName());
+        assertTrue(GroovyNature.hasGroovyNature(proj));
+
+        proj.close(null);
+        assertFalse(GroovyNature.hasGroovyNature(proj));
+        proj.open(null);
+        assertTrue(GroovyNature.hasGroovyNature(proj));
+    }
+
+    @Test
+    public void testNatureChangeWithinOperation() throws Exception {
+        final IProject proj = createProject();
+        assertTrue(GroovyNature.hasGroovyNature(proj));
+
+        // the resource delta is only broadcast after the operation
+        ResourcesPlugin.getWorkspace().run(new IWorkspaceRunnable() {
+            public void run(IProgressMonitor monitor) throws CoreException {
+                IProjectDescription description = proj.getDescription();
+                List<String> natures = new ArrayList<String>(Arrays.asList(description.getNatureIds()));
+                natures.remove(GroovyNature.GROOVY_NATURE);
+                description.setNatureIds(natures.toArray(new String[natures.size()]));
+                proj.setDescription(description, null);
+                assertFalse(GroovyNature.hasGroovyNature(proj));
+            }
+        }, null);
+        assertFalse(GroovyNature.hasGroovyNature(proj));
+    }
+
     //--------------------------------------------------------------------------
 
     private void checkGroovyProject(IProject proj) throws Exception {
@@ -15,7 +15,19 @@
  */
 package org.eclipse.jdt.core.groovy.tests.search;
 
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.groovy.tests.MockSearchRequestor;
 import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchParticipant;
+import org.eclipse.jdt.core.search.SearchPattern;
 import org.junit.Test;
 
 public final class FieldReferenceSearchTests extends SearchTestSuite {
@@ -152,6 +164,21 @@ public final class FieldReferenceSearchTests extends SearchTestSuite {
         "f.xxx = f.xxx");
     }
 
+    @Test // a "*" pattern has no field name and matches every field
+    public void testFieldReferencesForAnyName() throws Exception {
+        GroovyCompilationUnit first = createUnit("p", "First", "package p\nclass First {\n  def xxx\n  def yyy\n}");
+        createUnit("", "Script", "def f = new p.First()\nf.xxx\nf.yyy");
+
+        MockSearchRequestor requestor = new MockSearchRequestor();
+        new SearchEngine().search(SearchPattern.createPattern("*", IJavaSearchConstants.FIELD, IJavaSearchConstants.REFERENCES, SearchPattern.R_PATTERN_MATCH),
+                new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() },
+                SearchEngine.createJavaSearchScope(new IJavaElement[] { first.getPackageFragmentRoot() }, false),
+                requestor, new NullProgressMonitor());
+        List<SearchMatch> matches = requestor.getMatches();
+        assertTrue("Expected match for xxx:\n" + matches, hasMatch(matches, "Script.groovy", "def f = new p.First()\nf.".length(), "xxx".length()));
+        assertTrue("Expected match for yyy:\n" + matches, hasMatch(matches, "Script.groovy", "def f = new p.First()\nf.xxx\nf.".length(), "yyy".length()));
+    }
+
     //--------------------------------------------------------------------------
 
     protected void doTestForTwoFieldReferencesInGString(String secondContents) throws Exception {
@@ -17,19 +17,30 @@ package org.eclipse.jdt.core.groovy.tests.search;
 
 import static org.eclipse.jdt.core.tests.util.GroovyUtils.isAtLeastGroovy;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeTrue;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
+import org.codehaus.groovy.ast.ASTNode;
 import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.expr.ConstantExpression;
+import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.compiler.IProblem;
 import org.eclipse.jdt.core.groovy.tests.ReconcilerUtils;
 import org.eclipse.jdt.core.tests.util.GroovyUtils;
+import org.eclipse.jdt.groovy.search.ITypeRequestor;
+import org.eclipse.jdt.groovy.search.TypeInferencingVisitorWithRequestor;
+import org.eclipse.jdt.groovy.search.TypeLookupResult;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -1317,6 +1328,35 @@ public final class GenericInferencingTests extends InferencingTestSuite {
         assertEquals("Second overload should be selected", "java.lang.Object", printTypeName(m.getParameters()[1].getType()));
     }
 
+    @Test // resolved methods are shared within an inference pass
+    public void testParameterizedMethodSharing() {
+        String contents =
+            "List<String> list = []\n" +
+            "list.get(0)\n" +
+            "list.get(0).length()\n" +
+            "List<Integer> nums = []\n" +
+            "nums.get(0)\n";
+        GroovyCompilationUnit unit = createUnit("Search", contents);
+
+        final List<MethodNode> methods = new ArrayList<MethodNode>();
+        TypeInferencingVisitorWithRequestor visitor = factory.createVisitor(unit);
+        visitor.visitCompilationUnit(new ITypeRequestor() {
+            public VisitStatus acceptASTNode(ASTNode node, TypeLookupResult result, IJavaElement enclosingElement) {
+                if (node instanceof ConstantExpression && "get".equals(((ConstantExpression) node).getValue()) &&
+                        result.declaration instanceof MethodNode) {
+                    methods.add((MethodNode) result.declaration);
+                }
+                return VisitStatus.CONTINUE;
+            }
+        });
+
+        assertEquals(3, methods.size());
+        assertEquals("java.lang.String", printTypeName(methods.get(0).getReturnType()));
+        assertEquals("java.lang.Integer", printTypeName(methods.get(2).getReturnType()));
+        assertSame(methods.get(0), methods.get(1));
+        assertNotSame(methods.get(0), methods.get(2));
+    }
+
     @Test @Ignore
     public void testJira1718() throws Exception {
         // the type checking script
@@ -16,6 +16,7 @@
 package org.eclipse.jdt.core.groovy.tests.search;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.List;
 
@@ -322,6 +323,43 @@ public final class MethodReferenceSearchTests extends SearchTestSuite {
         assertEquals("Should have found 4 matches in Other.groovy", 4, otherCnt);
     }
 
+    @Test // supertype checks are shared by the units of a search
+    public void testMethodReferencesThroughSubtypeInSeveralUnits() throws Exception {
+        GroovyCompilationUnit first = createUnit("p", "First", "package p\nclass First {\n  def xxx() { }\n}");
+        createUnit("p", "Second", "package p\nclass Second extends First { }");
+        createUnit("p", "Third", "package p\nclass Third {\n  def xxx() { }\n}");
+        createUnit("", "Script1", "new p.Second().xxx()\nnew p.Third().xxx()");
+        createUnit("", "Script2", "new p.Third().xxx()\nnew p.Second().xxx()");
+
+        IMethod method = first.getType("First").getMethods()[0];
+        MockSearchRequestor requestor = new MockSearchRequestor();
+        new SearchEngine().search(SearchPattern.createPattern(method, IJavaSearchConstants.REFERENCES),
+                new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() },
+                SearchEngine.createJavaSearchScope(new IJavaElement[] { first.getPackageFragmentRoot() }, false),
+                requestor, new NullProgressMonitor());
+        List<SearchMatch> matches = requestor.getMatches();
+        assertEquals("Incorrect number of matches:\n" + matches, 2, matches.size());
+        assertEquals("Script1.groovy", matches.get(0).getResource().getName());
+        assertEquals("new p.Second().".length(), matches.get(0).getOffset());
+        assertEquals("Script2.groovy", matches.get(1).getResource().getName());
+        assertEquals("new p.Third().xxx()\n".length() + "new p.Second().".length(), matches.get(1).getOffset());
+    }
+
+    @Test // a "*" pattern has no method name and matches every method
+    public void testMethodReferencesForAnyName() throws Exception {
+        GroovyCompilationUnit first = createUnit("p", "First", "package p\nclass First {\n  def xxx() { }\n  def yyy() { }\n}");
+        createUnit("", "Script", "new p.First().xxx()\nnew p.First().yyy()");
+
+        MockSearchRequestor requestor = new MockSearchRequestor();
+        new SearchEngine().search(SearchPattern.createPattern("*", IJavaSearchConstants.METHOD, IJavaSearchConstants.REFERENCES, SearchPattern.R_PATTERN_MATCH),
+                new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() },
+                SearchEngine.createJavaSearchScope(new IJavaElement[] { first.getPackageFragmentRoot() }, false),
+                requestor, new NullProgressMonitor());
+        List<SearchMatch> matches = requestor.getMatches();
+        assertTrue("Expected match for xxx:\n" + matches, hasMatch(matches, "Script.groovy", "new p.First().".length(), "xxx".length()));
+        assertTrue("Expected match for yyy:\n" + matches, hasMatch(matches, "Script.groovy", "new p.First().xxx()\nnew p.First().".length(), "yyy".length()));
+    }
+
     //--------------------------------------------------------------------------
 
     private void doTestForTwoMethodReferencesInScript(String secondContents) throws Exception {
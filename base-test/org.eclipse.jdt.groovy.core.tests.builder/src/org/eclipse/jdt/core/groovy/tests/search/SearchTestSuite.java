@@ -136,6 +136,15 @@ public abstract class SearchTestSuite extends BuilderTestSuite {
         return (GroovyCompilationUnit) JavaCore.createCompilationUnitFrom(env.getWorkspace().getRoot().getFile(path));
     }
 
+    protected static boolean hasMatch(List<SearchMatch> matches, String fileName, int offset, int length) {
+        for (SearchMatch match : matches) {
+            if (match.getResource().getName().equals(fileName) && match.getOffset() == offset && match.getLength() == length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     protected void assertLocation(SearchMatch match, int start, int length) {
         assertEquals("Invalid match start for: " + MockPossibleMatch.printMatch(match), start, match.getOffset());
         assertEquals("Invalid match length for: " + MockPossibleMatch.printMatch(match), length, match.getLength());
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.jdt.core.groovy.tests.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+
+import org.eclipse.jdt.groovy.core.util.ReflectionUtils;
+import org.junit.Test;
+
+public final class ReflectionUtilsTests {
+
+    @SuppressWarnings("unused")
+    private static final class Target {
+        private String name = "target";
+        private Target() {}
+        private Target(String name) { this.name = name; }
+        private String greet(String who) { return name + " greets " + who; }
+    }
+
+    @Test
+    public void testMembersAreResolvedOnce() throws Exception {
+        // Class.getDeclaredXxx returns a fresh copy on every call
+        assertNotSame(Target.class.getDeclaredConstructor(), Target.class.getDeclaredConstructor());
+
+        // members of classes of this bundle and of groovy core's bundle are kept alike
+        Constructor<Target> ctor = ReflectionUtils.getConstructor(Target.class);
+        assertSame(ctor, ReflectionUtils.getConstructor(Target.class));
+        assertNotSame(ctor, ReflectionUtils.getConstructor(Target.class, String.class));
+        assertSame(ReflectionUtils.getConstructor(ReflectionUtils.class), ReflectionUtils.getConstructor(ReflectionUtils.class));
+    }
+
+    @Test
+    public void testMembersDoNotKeepClassLoader() throws Exception {
+        WeakReference<ClassLoader> loader = resolveMembersInNewLoader();
+        for (int i = 0; loader.get() != null && i < 50; i += 1) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull("Class loader is still reachable", loader.get());
+    }
+
+    private static WeakReference<ClassLoader> resolveMembersInNewLoader() throws Exception {
+        DefiningClassLoader loader = new DefiningClassLoader();
+        Class<?> type = loader.define(Target.class);
+        assertNotSame(Target.class, type);
+
+        Object target = ReflectionUtils.invokeConstructor(ReflectionUtils.getConstructor(type, String.class), "x");
+        assertEquals("x", ReflectionUtils.getPrivateField(type, "name", target));
+        assertEquals("x greets y", ReflectionUtils.executePrivateMethod(type, "greet", new Class[] {String.class}, target, new Object[] {"y"}));
+
+        return new WeakReference<ClassLoader>(loader);
+    }
+
+    private static final class DefiningClassLoader extends ClassLoader {
+        DefiningClassLoader() {
+            super(ReflectionUtilsTests.class.getClassLoader());
+        }
+
+        Class<?> define(Class<?> type) throws Exception {
+            String name = type.getName();
+            InputStream in = type.getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class");
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                for (int n; (n = in.read(buffer)) != -1;) {
+                    out.write(buffer, 0, n);
+                }
+                byte[] bytes = out.toByteArray();
+                return defineClass(name, bytes, 0, bytes.length);
+            } finally {
+                in.close();
+            }
+        }
+    }
+
+    @Test
+    public void testMissingMember() throws Exception {
+        for (int i = 0; i < 2; i += 1) {
+            try {
+                ReflectionUtils.throwableGetPrivateField(Target.class, "missing", new Target());
+                fail("Expected NoSuchFieldException");
+            } catch (NoSuchFieldException expected) {
+            }
+            try {
+                ReflectionUtils.throwableExecutePrivateMethod(Target.class, "greet", new Class[] {Integer.class}, new Target(), new Object[] {1});
+                fail("Expected NoSuchMethodException");
+            } catch (NoSuchMethodException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void testMissingMemberIsRemembered() throws Exception {
+        Exception first = null;
+        for (int i = 0; i < 2; i += 1) {
+            try {
+                ReflectionUtils.throwableGetPrivateField(ReflectionUtils.class, "missing", null);
+                fail("Expected NoSuchFieldException");
+            } catch (NoSuchFieldException expected) {
+                assertEquals("missing", expected.getMessage());
+                if (first == null) {
+                    first = expected;
+                } else {
+                    // a cached exception would carry the stack trace of the first call
+                    assertNotSame(first, expected);
+                }
+            }
+            try {
+                ReflectionUtils.throwableExecutePrivateMethod(ReflectionUtils.class, "memberKey", new Class[] {String.class}, null, new Object[] {"x"});
+                fail("Expected NoSuchMethodException");
+            } catch (NoSuchMethodException expected) {
+            }
+        }
+    }
+}
@@ -1157,6 +1157,51 @@ public final class TraitsTests extends GroovyCompilerTestSuite {
         runConformTest(sources, "c");
     }
 
+    @Test // Test protected method of binary superclass overriding by trait method - several implementors
+    public void testTraits51() {
+        String[] sources = {
+            "Sample.groovy",
+            "trait MyTrait {\n" +
+            "  void removeRange(int from, int to) { print \"m($from,$to) \" }\n" +
+            "}\n" +
+            "class MyClass extends AbstractList implements MyTrait {\n" +
+            "  Object get(int i) { i }\n" +
+            "  int size() { 0 }\n" +
+            "}\n" +
+            "class MyOtherClass extends AbstractList implements MyTrait {\n" +
+            "  Object get(int i) { i }\n" +
+            "  int size() { 0 }\n" +
+            "}\n" +
+            "new MyClass().removeRange(0, 1)\n" +
+            "new MyOtherClass().removeRange(1, 2)"
+        };
+
+        runConformTest(sources, "m(0,1) m(1,2) ");
+    }
+
+    @Test // Test protected method of binary superclass and trait method overriding by one of several implementors
+    public void testTraits52() {
+        String[] sources = {
+            "Sample.groovy",
+            "trait MyTrait {\n" +
+            "  void removeRange(int from, int to) { print 'trait ' }\n" +
+            "}\n" +
+            "class MyClass extends AbstractList implements MyTrait {\n" +
+            "  Object get(int i) { i }\n" +
+            "  int size() { 0 }\n" +
+            "  void removeRange(int from, int to) { print 'class ' }\n" +
+            "}\n" +
+            "class MyOtherClass extends AbstractList implements MyTrait {\n" +
+            "  Object get(int i) { i }\n" +
+            "  int size() { 0 }\n" +
+            "}\n" +
+            "new MyClass().removeRange(0, 1)\n" +
+            "new MyOtherClass().removeRange(1, 2)"
+        };
+
+        runConformTest(sources, "class trait ");
+    }
+
     @Test @Ignore("Java classes should be able to implement traits as well -- this doesn't work in groovyc either as of Groovy 2.4.8")
     public void testTraitsInteroperability() {
         String[] sources = {
@@ -15,9 +15,6 @@
  */
 package org.codehaus.groovy.antlr;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * A simple buffer that provides line/col access to chunks of source code
  * held within itself.
@@ -28,26 +25,36 @@ import java.util.List;
  * @version $Revision: 7922 $
  */
 public class SourceBuffer {
-    private final List<StringBuilder> lines;
-    private StringBuilder current;
-    // GRECLIPSE: start
-    private final List<Integer> lineEndings;
-
-    // GRECLIPSE-805 Support for unicode escape sequences
-    private UnicodeEscapingReader unescaper;
-    // end
+    // GRECLIPSE edit -- one buffer for all lines, plus a table of where each line starts
+    /** characters written so far; the original source until a character differs from it */
+    private char[] chars;
+    private int count;
+    private boolean shared;
+    private int[] lineStarts = new int[64];
+    private int lineCount = 1;
+    private int[] lineEndings = new int[64];
+    private int lineEndingCount = 1;
+    // GRECLIPSE-805: Support for unicode escape sequences
+    private UnicodeEscapingReader unescaper = new NoEscaper();
+    // GRECLIPSE end
 
     public SourceBuffer() {
-        lines = new ArrayList<StringBuilder>();
-        //lines.add(new StringBuffer()); // dummy row for position [0] in the List
-        // GRECLIPSE: start
-        lineEndings = new ArrayList<Integer>();
-        lineEndings.add(0);
-        unescaper = new NoEscaper();
-        // end
-        current = new StringBuilder();
-        lines.add(current);
+        // GRECLIPSE edit
+        chars = new char[256];
+        // GRECLIPSE end
+    }
+
+    // GRECLIPSE add
+    /**
+     * Creates a buffer for the given source.  The source is not copied as long
+     * as the characters written are the same as those of the source (which is
+     * the case unless it contains unicode escapes), and must not be changed.
+     */
+    public SourceBuffer(char[] source) {
+        chars = source;
+        shared = true;
     }
+    // GRECLIPSE end
 
     /**
      * Obtains a snippet of the source code within the bounds specified
@@ -59,7 +66,7 @@ public class SourceBuffer {
         // preconditions
         if (start == null || end == null) { return null; } // no text to return
         if (start.equals(end)) { return null; } // no text to return
-        if (lines.size() == 1 && current.length() == 0) { return null; } // buffer hasn't been filled yet
+        if (count == 0) { return null; } // buffer hasn't been filled yet
 
         // working variables
         int startLine = start.getLine();
@@ -72,13 +79,13 @@ public class SourceBuffer {
         if (endLine < 1) { endLine = 1;}
         if (startColumn < 1) { startColumn = 1;}
         if (endColumn < 1) { endColumn = 1;}
-        if (startLine > lines.size()) { startLine = lines.size(); }
-        if (endLine > lines.size()) { endLine = lines.size(); }
+        if (startLine > lineCount) { startLine = lineCount; }
+        if (endLine > lineCount) { endLine = lineCount; }
 
         // obtain the snippet from the buffer within specified bounds
         StringBuffer snippet = new StringBuffer();
         for (int i = startLine - 1; i < endLine;i++) {
-            String line = (lines.get(i)).toString();
+            String line = getLine(i);
             if (startLine == endLine) {
                 // reset any out of bounds requests (again)
                 if (startColumn > line.length()) { startColumn = line.length();}
@@ -104,68 +111,112 @@ public class SourceBuffer {
         return snippet.toString();
     }
 
+    // GRECLIPSE add
+    /**
+     * @param index 0-based line index
+     * @return the line, including its line terminator
+     */
+    private String getLine(int index) {
+        int from = lineStarts[index];
+        int to = (index + 1 < lineCount ? lineStarts[index + 1] : count);
+        return new String(chars, from, to - from);
+    }
+    // GRECLIPSE end
+
     /**
      * Writes the specified character into the buffer
      * @param c
      */
-    // GRECLIPSE: start
-    /*{
     public void write(int c) {
         if (c != -1) {
-            current.append((char)c);
+            // GRECLIPSE add
+            col += 1;
+            // GRECLIPSE end
+            // GRECLIPSE edit
+            append((char) c);
+            // GRECLIPSE end
         }
         if (c == '\n') {
-            current = new StringBuffer();
-            lines.add(current);
-        }
-    } 
-    }*/
-    // newcode:
-    public void setUnescaper(UnicodeEscapingReader unicodeEscapingReader) {
-        this.unescaper = unicodeEscapingReader;
-    }
-    
-    private boolean prevWasCarriageReturn = false;
-    private int col = 0;
-    // FIXASC tidy this up, looks slow
-    public void write(int c) {
-        if (c != -1) {
-        	col++;
-            current.append((char)c);
-        }
-        if (c == '\n') {
-        	if (!prevWasCarriageReturn) {
-	            current = new StringBuilder();
-	            lines.add(current);
-	            lineEndings.add(col + unescaper.getUnescapedUnicodeOffsetCount());
-        	} else {
-        		// \r\n was found
-        		// back out previous line and add a \n to the line
-        		current = new StringBuilder();
-        		lines.get(lines.size()-1).append('\n');
-        		lineEndings.remove(lineEndings.size()-1);
-        		lineEndings.add(col + unescaper.getUnescapedUnicodeOffsetCount());
-        	}
+            // GRECLIPSE edit
+            if (!prevWasCarriageReturn) {
+                addLine();
+            } else { // \r\n was found
+                // the line started by the \r starts after the \n instead
+                lineStarts[lineCount - 1] = count;
+                lineEndingCount -= 1;
+            }
+            addLineEnding(col + unescaper.getUnescapedUnicodeOffsetCount());
+            // GRECLIPSE end
         }
+        // GRECLIPSE add
         // handle carriage returns as well as newlines
         if (c == '\r') {
-        	current = new StringBuilder();
-        	lines.add(current);
-        	lineEndings.add(col + unescaper.getUnescapedUnicodeOffsetCount());
-        	// this may be a \r\n, but may not be
-        	prevWasCarriageReturn = true;
+            addLine();
+            addLineEnding(col + unescaper.getUnescapedUnicodeOffsetCount());
+            // this may be a \r\n, but may not be
+            prevWasCarriageReturn = true;
         } else {
-        	prevWasCarriageReturn = false;
+            prevWasCarriageReturn = false;
         }
+        // GRECLIPSE end
     }
-    
+    // GRECLIPSE add
+    private int col;
+    private boolean prevWasCarriageReturn;
+
+    private void append(char c) {
+        if (shared) {
+            if (count < chars.length && chars[count] == c) {
+                count += 1;
+                return;
+            }
+            // no longer the same as the source; copy what has been written
+            char[] copy = new char[Math.max(chars.length, 256)];
+            System.arraycopy(chars, 0, copy, 0, count);
+            chars = copy;
+            shared = false;
+        }
+        if (count == chars.length) {
+            chars = grow(chars);
+        }
+        chars[count++] = c;
+    }
+
+    private static char[] grow(char[] array) {
+        char[] copy = new char[array.length * 2];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    private static int[] grow(int[] array) {
+        int[] copy = new int[array.length * 2];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    private void addLine() {
+        if (lineCount == lineStarts.length) {
+            lineStarts = grow(lineStarts);
+        }
+        lineStarts[lineCount++] = count;
+    }
+
+    private void addLineEnding(int offset) {
+        if (lineEndingCount == lineEndings.length) {
+            lineEndings = grow(lineEndings);
+        }
+        lineEndings[lineEndingCount++] = offset;
+    }
+
     public LocationSupport getLocationSupport() {
-    	lineEndings.add(col + unescaper.getUnescapedUnicodeOffsetCount()); // last line ends where the data runs out
-    	int[] lineEndingsArray = new int[lineEndings.size()];
-    	for (int i=0,max=lineEndings.size();i<max;i++) {
-    		lineEndingsArray[i] = lineEndings.get(i).intValue();
-    	}
-    	return new LocationSupport(lineEndingsArray);
+        addLineEnding(col + unescaper.getUnescapedUnicodeOffsetCount()); // last line ends where the data runs out
+        int[] lineEndingsArray = new int[lineEndingCount];
+        System.arraycopy(lineEndings, 0, lineEndingsArray, 0, lineEndingCount);
+        return new LocationSupport(lineEndingsArray);
+    }
+
+    public void setUnescaper(UnicodeEscapingReader unicodeEscapingReader) {
+        this.unescaper = unicodeEscapingReader;
     }
-    // end
+    // GRECLIPSE end
 }
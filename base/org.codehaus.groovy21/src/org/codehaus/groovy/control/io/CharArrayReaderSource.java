@@ -0,0 +1,51 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.control.io;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Reader;
+
+import org.codehaus.groovy.control.CompilerConfiguration;
+
+/**
+ * A {@link ReaderSource} for source code that is already in memory as a
+ * character array, such as the contents of an Eclipse compilation unit.  The
+ * array is read in place rather than copied, so it must not be changed while
+ * the source is in use.
+ *
+ * @see org.codehaus.groovy.antlr.SourceBuffer#SourceBuffer(char[])
+ */
+public class CharArrayReaderSource extends AbstractReaderSource {
+
+    private final char[] chars;
+
+    public CharArrayReaderSource(char[] chars, CompilerConfiguration configuration) {
+        super(configuration);
+        this.chars = chars;
+    }
+
+    /**
+     * @return the source code; not a copy
+     */
+    public char[] getChars() {
+        return chars;
+    }
+
+    public Reader getReader() throws IOException {
+        return new CharArrayReader(chars);
+    }
+}
@@ -34,6 +34,7 @@ import org.codehaus.groovy.ast.stmt.*;
 import org.codehaus.groovy.control.CompilationFailedException;
 import org.codehaus.groovy.control.ParserPlugin;
 import org.codehaus.groovy.control.SourceUnit;
+import org.codehaus.groovy.control.io.CharArrayReaderSource;
 import org.codehaus.groovy.syntax.*;
 
 import java.io.FileNotFoundException;
@@ -109,7 +110,11 @@ public class AntlrParserPlugin extends ASTHelper implements ParserPlugin, Groovy
 
     
     public /*final*/ Reduction parseCST(final SourceUnit sourceUnit, Reader reader) throws CompilationFailedException {
-        final SourceBuffer sourceBuffer = new SourceBuffer();
+        // GRECLIPSE edit -- read the source in place when it is already in memory
+        //final SourceBuffer sourceBuffer = new SourceBuffer();
+        final SourceBuffer sourceBuffer = (sourceUnit.getSource() instanceof CharArrayReaderSource
+            ? new SourceBuffer(((CharArrayReaderSource) sourceUnit.getSource()).getChars()) : new SourceBuffer());
+        // GRECLIPSE end
         transformCSTIntoAST(sourceUnit, reader, sourceBuffer);
         processAST();
         return outputAST(sourceUnit,sourceBuffer);
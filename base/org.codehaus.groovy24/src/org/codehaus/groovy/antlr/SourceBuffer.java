@@ -18,9 +18,6 @@
  */
 package org.codehaus.groovy.antlr;
 
-import java.util.List;
-import java.util.ArrayList;
-
 /**
  * A simple buffer that provides line/col access to chunks of source code
  * held within itself.
@@ -28,21 +25,37 @@ import java.util.ArrayList;
  * @author <a href="mailto:groovy@ross-rayner.com">Jeremy Rayner</a>
  */
 public class SourceBuffer {
-    // GRECLIPSE edit
-    private final List<StringBuilder> lines = new ArrayList<StringBuilder>();
-    private final List<Integer> lineEndings = new ArrayList<Integer>();
-    private StringBuilder current = new StringBuilder();
+    // GRECLIPSE edit -- one buffer for all lines, plus a table of where each line starts
+    /** characters written so far; the original source until a character differs from it */
+    private char[] chars;
+    private int count;
+    private boolean shared;
+    private int[] lineStarts = new int[64];
+    private int lineCount = 1;
+    private int[] lineEndings = new int[64];
+    private int lineEndingCount = 1;
     // GRECLIPSE-805: Support for unicode escape sequences
     private UnicodeEscapingReader unescaper = new NoEscaper();
     // GRECLIPSE end
 
     public SourceBuffer() {
         // GRECLIPSE edit
-        lines.add(current);
-        lineEndings.add(0);
+        chars = new char[256];
         // GRECLIPSE end
     }
 
+    // GRECLIPSE add
+    /**
+     * Creates a buffer for the given source.  The source is not copied as long
+     * as the characters written are the same as those of the source (which is
+     * the case unless it contains unicode escapes), and must not be changed.
+     */
+    public SourceBuffer(char[] source) {
+        chars = source;
+        shared = true;
+    }
+    // GRECLIPSE end
+
     /**
      * Obtains a snippet of the source code within the bounds specified
      * @param start (inclusive line/ inclusive column)
@@ -53,7 +66,7 @@ public class SourceBuffer {
         // preconditions
         if (start == null || end == null) { return null; } // no text to return
         if (start.equals(end)) { return null; } // no text to return
-        if (lines.size() == 1 && current.length() == 0) { return null; } // buffer hasn't been filled yet
+        if (count == 0) { return null; } // buffer hasn't been filled yet
 
         // working variables
         int startLine = start.getLine();
@@ -66,13 +79,13 @@ public class SourceBuffer {
         if (endLine < 1) { endLine = 1;}
         if (startColumn < 1) { startColumn = 1;}
         if (endColumn < 1) { endColumn = 1;}
-        if (startLine > lines.size()) { startLine = lines.size(); }
-        if (endLine > lines.size()) { endLine = lines.size(); }
+        if (startLine > lineCount) { startLine = lineCount; }
+        if (endLine > lineCount) { endLine = lineCount; }
 
         // obtain the snippet from the buffer within specified bounds
         StringBuffer snippet = new StringBuffer();
         for (int i = startLine - 1; i < endLine;i++) {
-            String line = lines.get(i).toString();
+            String line = getLine(i);
             if (startLine == endLine) {
                 // reset any out of bounds requests (again)
                 if (startColumn > line.length()) { startColumn = line.length();}
@@ -99,6 +112,18 @@ public class SourceBuffer {
         return snippet.toString();
     }
 
+    // GRECLIPSE add
+    /**
+     * @param index 0-based line index
+     * @return the line, including its line terminator
+     */
+    private String getLine(int index) {
+        int from = lineStarts[index];
+        int to = (index + 1 < lineCount ? lineStarts[index + 1] : count);
+        return new String(chars, from, to - from);
+    }
+    // GRECLIPSE end
+
     /**
      * Writes the specified character into the buffer
      * @param c
@@ -108,29 +133,27 @@ public class SourceBuffer {
             // GRECLIPSE add
             col += 1;
             // GRECLIPSE end
-            current.append((char)c);
+            // GRECLIPSE edit
+            append((char) c);
+            // GRECLIPSE end
         }
         if (c == '\n') {
-            current = new StringBuilder();
-            // GRECLIPSE add
+            // GRECLIPSE edit
             if (!prevWasCarriageReturn) {
-            // GRECLIPSE end
-            lines.add(current);
-            // GRECLIPSE add
+                addLine();
             } else { // \r\n was found
-                // back out previous line and add a \n to the line
-                lines.get(lines.size() - 1).append('\n');
-                lineEndings.remove(lineEndings.size() - 1);
+                // the line started by the \r starts after the \n instead
+                lineStarts[lineCount - 1] = count;
+                lineEndingCount -= 1;
             }
-            lineEndings.add(col + unescaper.getUnescapedUnicodeOffsetCount());
+            addLineEnding(col + unescaper.getUnescapedUnicodeOffsetCount());
             // GRECLIPSE end
         }
         // GRECLIPSE add
         // handle carriage returns as well as newlines
         if (c == '\r') {
-            current = new StringBuilder();
-            lines.add(current);
-            lineEndings.add(col + unescaper.getUnescapedUnicodeOffsetCount());
+            addLine();
+            addLineEnding(col + unescaper.getUnescapedUnicodeOffsetCount());
             // this may be a \r\n, but may not be
             prevWasCarriageReturn = true;
         } else {
@@ -138,15 +161,58 @@ public class SourceBuffer {
         }
         // GRECLIPSE end
     }
+    // GRECLIPSE add
     private int col;
     private boolean prevWasCarriageReturn;
 
-    public LocationSupport getLocationSupport() {
-        lineEndings.add(col + unescaper.getUnescapedUnicodeOffsetCount()); // last line ends where the data runs out
-        int[] lineEndingsArray = new int[lineEndings.size()];
-        for (int i = 0, max = lineEndings.size(); i < max; i += 1) {
-            lineEndingsArray[i] = lineEndings.get(i).intValue();
+    private void append(char c) {
+        if (shared) {
+            if (count < chars.length && chars[count] == c) {
+                count += 1;
+                return;
+            }
+            // no longer the same as the source; copy what has been written
+            char[] copy = new char[Math.max(chars.length, 256)];
+            System.arraycopy(chars, 0, copy, 0, count);
+            chars = copy;
+            shared = false;
+        }
+        if (count == chars.length) {
+            chars = grow(chars);
         }
+        chars[count++] = c;
+    }
+
+    private static char[] grow(char[] array) {
+        char[] copy = new char[array.length * 2];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    private static int[] grow(int[] array) {
+        int[] copy = new int[array.length * 2];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    private void addLine() {
+        if (lineCount == lineStarts.length) {
+            lineStarts = grow(lineStarts);
+        }
+        lineStarts[lineCount++] = count;
+    }
+
+    private void addLineEnding(int offset) {
+        if (lineEndingCount == lineEndings.length) {
+            lineEndings = grow(lineEndings);
+        }
+        lineEndings[lineEndingCount++] = offset;
+    }
+
+    public LocationSupport getLocationSupport() {
+        addLineEnding(col + unescaper.getUnescapedUnicodeOffsetCount()); // last line ends where the data runs out
+        int[] lineEndingsArray = new int[lineEndingCount];
+        System.arraycopy(lineEndings, 0, lineEndingsArray, 0, lineEndingCount);
         return new LocationSupport(lineEndingsArray);
     }
 
@@ -187,6 +187,16 @@ public class ResolveVisitor extends ClassCodeExpressionTransformer {
         visitClass(node);
     }
 
+    // GRECLIPSE add
+    /**
+     * Forgets the class names that could not be resolved so far, for example
+     * because new types have been added to the compilation unit.
+     */
+    protected void forgetResolutionFailures() {
+        resolutionFailedCache.clear();
+    }
+    // GRECLIPSE end
+
     protected void visitConstructorOrMethod(MethodNode node, boolean isConstructor) {
         VariableScope oldScope = currentScope;
         currentScope = node.getVariableScope();
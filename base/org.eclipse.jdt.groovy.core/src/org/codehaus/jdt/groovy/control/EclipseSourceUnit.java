@@ -21,6 +21,7 @@ import org.codehaus.groovy.control.CompilationFailedException;
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.ErrorCollector;
 import org.codehaus.groovy.control.SourceUnit;
+import org.codehaus.groovy.control.io.CharArrayReaderSource;
 import org.codehaus.jdt.groovy.internal.compiler.ast.JDTResolver;
 import org.eclipse.core.resources.IFile;
 
@@ -43,6 +44,17 @@ public class EclipseSourceUnit extends SourceUnit {
         this.resolver = resolver;
     }
 
+    /**
+     * Creates a source unit that reads the given contents in place.  The
+     * contents must not be changed afterwards.
+     */
+    public EclipseSourceUnit(IFile resource, String filepath, char[] contents, CompilerConfiguration groovyCompilerConfig,
+            GroovyClassLoader classLoader, ErrorCollector errorCollector, JDTResolver resolver) {
+        super(filepath, new CharArrayReaderSource(contents, groovyCompilerConfig), groovyCompilerConfig, classLoader, errorCollector);
+        this.file = resource;
+        this.resolver = resolver;
+    }
+
     /**
      * Will be null if workspace is closed (ie- batch compilation mode)
      */
@@ -18,8 +18,11 @@ package org.codehaus.jdt.groovy.internal.compiler.ast;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -104,6 +107,7 @@ public class GroovyClassScope extends ClassScope {
         }
 
         List<MethodBinding> groovyMethods = new ArrayList<MethodBinding>();
+        Map<String, List<MethodBinding>> existingMethods = indexBySelector(methodBindings);
 
         // If we don't then a supertype did and these methods do not have to be added here
         if (implementsGroovyLangObject) {
@@ -127,11 +131,11 @@ public class GroovyClassScope extends ClassScope {
             // synthetic
 
             // Visibility is public and possibly static/abstract depending on the containing type
-            createMethod("invokeMethod", false, "", new TypeBinding[] { bindingJLS, bindingJLO }, bindingJLO, groovyMethods, methodBindings, null);
-            createMethod("getProperty", false, "", new TypeBinding[] { bindingJLS }, bindingJLO, groovyMethods, methodBindings, null);
-            createMethod("setProperty", false, "", new TypeBinding[] { bindingJLS, bindingJLO }, TypeBinding.VOID, groovyMethods, methodBindings, null);
-            createMethod("getMetaClass", false, "", null, bindingGLM, groovyMethods, methodBindings, null);
-            createMethod("setMetaClass", false, "", new TypeBinding[] { bindingGLM }, TypeBinding.VOID, groovyMethods, methodBindings, null);
+            createMethod("invokeMethod", false, "", new TypeBinding[] { bindingJLS, bindingJLO }, bindingJLO, groovyMethods, existingMethods, null);
+            createMethod("getProperty", false, "", new TypeBinding[] { bindingJLS }, bindingJLO, groovyMethods, existingMethods, null);
+            createMethod("setProperty", false, "", new TypeBinding[] { bindingJLS, bindingJLO }, TypeBinding.VOID, groovyMethods, existingMethods, null);
+            createMethod("getMetaClass", false, "", null, bindingGLM, groovyMethods, existingMethods, null);
+            createMethod("setMetaClass", false, "", new TypeBinding[] { bindingGLM }, TypeBinding.VOID, groovyMethods, existingMethods, null);
         }
         // FIXASC decide what difference this makes - should we not be adding anything at all?
         // will not be an instance of GroovyTypeDeclaration if created through SourceTypeConverter
@@ -150,13 +154,13 @@ public class GroovyClassScope extends ClassScope {
                     // null binding indicates there was a problem resolving its type
                     if (fBinding != null && !(fBinding.type instanceof MissingTypeBinding)) {
                         String getterName = "get" + MetaClassHelper.capitalize(name);
-                        createMethod(getterName, property.isStatic(), "", /* TypeBinding.NO_TYPES */null, fBinding.type, groovyMethods, methodBindings, typeDeclaration);
+                        createMethod(getterName, property.isStatic(), "", /* TypeBinding.NO_TYPES */null, fBinding.type, groovyMethods, existingMethods, typeDeclaration);
                         if (!fBinding.isFinal()) {
                             String setterName = "set" + MetaClassHelper.capitalize(name);
-                            createMethod(setterName, property.isStatic(), "", new TypeBinding[] {fBinding.type}, TypeBinding.VOID, groovyMethods, methodBindings, typeDeclaration);
+                            createMethod(setterName, property.isStatic(), "", new TypeBinding[] {fBinding.type}, TypeBinding.VOID, groovyMethods, existingMethods, typeDeclaration);
                         }
                         if (fBinding.type == TypeBinding.BOOLEAN) {
-                            createMethod("is" + MetaClassHelper.capitalize(name), property.isStatic(), "", /* TypeBinding.NO_TYPES, */ null, fBinding.type, groovyMethods, methodBindings, typeDeclaration);
+                            createMethod("is" + MetaClassHelper.capitalize(name), property.isStatic(), "", /* TypeBinding.NO_TYPES, */ null, fBinding.type, groovyMethods, existingMethods, typeDeclaration);
                         }
                     }
                 }
@@ -167,15 +171,15 @@ public class GroovyClassScope extends ClassScope {
                     String name = property.getName();
                     String capitalizedName = MetaClassHelper.capitalize(name);
                     // Create getter
-                    createGetterMethod(name, "get" + capitalizedName, property.isStatic(), groovyMethods, methodBindings, typeDeclaration);
+                    createGetterMethod(name, "get" + capitalizedName, property.isStatic(), groovyMethods, existingMethods, typeDeclaration);
                     // Create setter if non-final property
                     if (!Modifier.isFinal(property.getModifiers())) {
-                        createSetterMethod(name, "set" + capitalizedName, property.isStatic(), groovyMethods, methodBindings, typeDeclaration, property.getType().getName());
+                        createSetterMethod(name, "set" + capitalizedName, property.isStatic(), groovyMethods, existingMethods, typeDeclaration, property.getType().getName());
                     }
                     // Create isA if type is boolean
                     String propertyType = property.getType().getName();
                     if (propertyType.equals("boolean")) {
-                        createGetterMethod(name, "is" + capitalizedName, property.isStatic(), groovyMethods, methodBindings, typeDeclaration);
+                        createGetterMethod(name, "is" + capitalizedName, property.isStatic(), groovyMethods, existingMethods, typeDeclaration);
                     }
                 }
             }
@@ -184,27 +188,14 @@ public class GroovyClassScope extends ClassScope {
         Map<String, MethodBinding> methodsMap = new HashMap<String, MethodBinding>();
         for (ReferenceBinding i : superInterfaces) {
             if (traitHelper.isTrait(i)) {
-                ReferenceBinding helperBinding = traitHelper.getHelperBinding(i);
-                for (MethodBinding method : i.availableMethods()) {
-                    if (method.isPrivate() || method.isStatic()) {
-                        continue;
-                    }
-                    if (isNotActuallyAbstract(method, helperBinding)) {
-                        methodsMap.put(getMethodAsString(method), method);
-                    }
-                }
+                methodsMap.putAll(getTraitMethods(i));
             }
         }
         if (!methodsMap.isEmpty()) {
             Set<String> canBeOverridden = new HashSet<String>();
             ReferenceBinding superclass = binding.superclass();
             while (superclass != null) {
-                for (MethodBinding method : superclass.availableMethods()) {
-                    if (method.isPrivate() || method.isPublic() || method.isStatic()) {
-                        continue;
-                    }
-                    canBeOverridden.add(getMethodAsString(method));
-                }
+                canBeOverridden.addAll(getOverridableMethods(superclass));
                 superclass = superclass.superclass();
             }
             for (MethodBinding method : methodBindings) {
@@ -225,6 +216,101 @@ public class GroovyClassScope extends ClassScope {
         return newMethodBindings;
     }
 
+    /**
+     * Non-abstract instance methods a trait contributes to its implementors, by {@link #getMethodAsString}.
+     */
+    private Map<String, MethodBinding> getTraitMethods(ReferenceBinding trait) {
+        Map<String, MethodBinding> methods = getCached(traitMethodsCache(), trait);
+        if (methods == null) {
+            methods = new LinkedHashMap<String, MethodBinding>();
+            ReferenceBinding helperBinding = traitHelper.getHelperBinding(trait);
+            for (MethodBinding method : trait.availableMethods()) {
+                if (method.isPrivate() || method.isStatic()) {
+                    continue;
+                }
+                if (isNotActuallyAbstract(method, helperBinding)) {
+                    methods.put(getMethodAsString(method), method);
+                }
+            }
+            putCached(traitMethodsCache(), trait, methods);
+        }
+        return methods;
+    }
+
+    /**
+     * Protected and package-private instance methods available from a class, by {@link #getMethodAsString}.
+     */
+    private Set<String> getOverridableMethods(ReferenceBinding type) {
+        Set<String> methods = getCached(overridableMethodsCache(), type);
+        if (methods == null) {
+            methods = new LinkedHashSet<String>();
+            for (MethodBinding method : type.availableMethods()) {
+                if (method.isPrivate() || method.isPublic() || method.isStatic()) {
+                    continue;
+                }
+                methods.add(getMethodAsString(method));
+            }
+            putCached(overridableMethodsCache(), type, methods);
+        }
+        return methods;
+    }
+
+    /**
+     * Per-type results for binary types.  These don't change for the lifetime
+     * of the compilation unit scope, so they are shared by all types in the unit
+     * and released along with it.
+     */
+    private <T> T getCached(Map<ReferenceBinding, T> cache, ReferenceBinding type) {
+        if (type instanceof BinaryTypeBinding) {
+            return cache.get(type);
+        }
+        return null;
+    }
+
+    private <T> void putCached(Map<ReferenceBinding, T> cache, ReferenceBinding type, T value) {
+        if (type instanceof BinaryTypeBinding) {
+            cache.put(type, value);
+        }
+    }
+
+    private Map<ReferenceBinding, Map<String, MethodBinding>> traitMethodsCache() {
+        CompilationUnitScope unitScope = compilationUnitScope();
+        if (unitScope instanceof GroovyCompilationUnitScope) {
+            return ((GroovyCompilationUnitScope) unitScope).traitMethods;
+        }
+        return new HashMap<ReferenceBinding, Map<String, MethodBinding>>();
+    }
+
+    private Map<ReferenceBinding, Set<String>> overridableMethodsCache() {
+        CompilationUnitScope unitScope = compilationUnitScope();
+        if (unitScope instanceof GroovyCompilationUnitScope) {
+            return ((GroovyCompilationUnitScope) unitScope).overridableMethods;
+        }
+        return new HashMap<ReferenceBinding, Set<String>>();
+    }
+
+    /**
+     * Groups method bindings by selector, keeping their order.
+     */
+    private static Map<String, List<MethodBinding>> indexBySelector(MethodBinding[] methods) {
+        Map<String, List<MethodBinding>> index = new HashMap<String, List<MethodBinding>>();
+        for (MethodBinding method : methods) {
+            String selector = String.valueOf(method.selector);
+            List<MethodBinding> list = index.get(selector);
+            if (list == null) {
+                list = new ArrayList<MethodBinding>(1);
+                index.put(selector, list);
+            }
+            list.add(method);
+        }
+        return index;
+    }
+
+    private static List<MethodBinding> getMethods(Map<String, List<MethodBinding>> index, String selector) {
+        List<MethodBinding> methods = index.get(selector);
+        return (methods != null ? methods : Collections.<MethodBinding>emptyList());
+    }
+
     private String getMethodAsString(MethodBinding method) {
         StringBuilder key = new StringBuilder(new String(method.selector));
         key.append(" ");
@@ -276,36 +362,34 @@ public class GroovyClassScope extends ClassScope {
     }
 
     private void createMethod(String name, boolean isStatic, String signature, TypeBinding[] parameterTypes,
-            TypeBinding returnType, List<MethodBinding> groovyMethods, MethodBinding[] existingMethods,
+            TypeBinding returnType, List<MethodBinding> groovyMethods, Map<String, List<MethodBinding>> existingMethods,
             GroovyTypeDeclaration typeDeclaration) {
         boolean found = false;
-        for (MethodBinding existingMethod : existingMethods) {
-            if (new String(existingMethod.selector).equals(name)) {
-                // FIXASC safe to do this resolution so early?
-                ((SourceTypeBinding) existingMethod.declaringClass).resolveTypesFor(existingMethod);
-                boolean equalParameters = true;
-                if (parameterTypes == null) {
-                    // not looking for parameters, if this has none, that is OK
-                    if (existingMethod.parameters.length != 0) {
+        for (MethodBinding existingMethod : getMethods(existingMethods, name)) {
+            // FIXASC safe to do this resolution so early?
+            ((SourceTypeBinding) existingMethod.declaringClass).resolveTypesFor(existingMethod);
+            boolean equalParameters = true;
+            if (parameterTypes == null) {
+                // not looking for parameters, if this has none, that is OK
+                if (existingMethod.parameters.length != 0) {
+                    equalParameters = false;
+                }
+            } else if (existingMethod.parameters.length == parameterTypes.length) {
+                TypeBinding[] existingParams = existingMethod.parameters;
+                for (int p = 0, max = parameterTypes.length; p < max; p++) {
+                    if (!CharOperation.equals(parameterTypes[p].signature(), existingParams[p].signature())) {
                         equalParameters = false;
+                        break;
                     }
-                } else if (existingMethod.parameters.length == parameterTypes.length) {
-                    TypeBinding[] existingParams = existingMethod.parameters;
-                    for (int p = 0, max = parameterTypes.length; p < max; p++) {
-                        if (!CharOperation.equals(parameterTypes[p].signature(), existingParams[p].signature())) {
-                            equalParameters = false;
-                            break;
-                        }
-                    }
-                }
-                // FIXASC consider return type?
-                if (equalParameters) {
-                    found = true;
-                    break;
                 }
-                // FIXASC what about inherited methods - what if the supertype
-                // provides an implementation, does the subtype get a new method?
             }
+            // FIXASC consider return type?
+            if (equalParameters) {
+                found = true;
+                break;
+            }
+            // FIXASC what about inherited methods - what if the supertype
+            // provides an implementation, does the subtype get a new method?
         }
         if (!found) {
             int modifiers = ClassFileConstants.AccPublic;
@@ -327,30 +411,28 @@ public class GroovyClassScope extends ClassScope {
     }
 
     private void createGetterMethod(String propertyName, String name, boolean isStatic, List<MethodBinding> groovyMethods,
-            MethodBinding[] existingMethods, GroovyTypeDeclaration typeDeclaration) {
+            Map<String, List<MethodBinding>> existingMethods, GroovyTypeDeclaration typeDeclaration) {
         boolean found = false;
 
         char[] nameAsCharArray = name.toCharArray();
-        for (MethodBinding existingMethod : existingMethods) {
-            if (CharOperation.equals(nameAsCharArray, existingMethod.selector)) {
-                // check if this possible candidate has parameters (if it does, it can't be our getter)
-                if ((existingMethod.modifiers & ExtraCompilerModifiers.AccUnresolved) != 0) {
-                    // need some intelligence here
-                    AbstractMethodDeclaration methodDecl = existingMethod.sourceMethod();
-                    if (methodDecl == null) {
-                        // FIXASC decide what we can do here
-                    } else {
-                        Argument[] arguments = methodDecl.arguments;
-                        if (arguments == null || arguments.length == 0) {
-                            found = true;
-                        }
-                    }
+        for (MethodBinding existingMethod : getMethods(existingMethods, name)) {
+            // check if this possible candidate has parameters (if it does, it can't be our getter)
+            if ((existingMethod.modifiers & ExtraCompilerModifiers.AccUnresolved) != 0) {
+                // need some intelligence here
+                AbstractMethodDeclaration methodDecl = existingMethod.sourceMethod();
+                if (methodDecl == null) {
+                    // FIXASC decide what we can do here
                 } else {
-                    TypeBinding[] existingParams = existingMethod.parameters;
-                    if (existingParams == null || existingParams.length == 0) {
+                    Argument[] arguments = methodDecl.arguments;
+                    if (arguments == null || arguments.length == 0) {
                         found = true;
                     }
                 }
+            } else {
+                TypeBinding[] existingParams = existingMethod.parameters;
+                if (existingParams == null || existingParams.length == 0) {
+                    found = true;
+                }
             }
         }
 
@@ -375,39 +457,36 @@ public class GroovyClassScope extends ClassScope {
     }
 
     private void createSetterMethod(String propertyName, String name, boolean isStatic, List<MethodBinding> groovyMethods,
-            MethodBinding[] existingMethods, GroovyTypeDeclaration typeDeclaration, String propertyType) {
+            Map<String, List<MethodBinding>> existingMethods, GroovyTypeDeclaration typeDeclaration, String propertyType) {
         boolean found = false;
 
-        char[] nameAsCharArray = name.toCharArray();
-        for (MethodBinding existingMethod : existingMethods) {
-            if (CharOperation.equals(nameAsCharArray, existingMethod.selector)) {
-                // check if this possible candidate has parameters (if it does, it can't be our getter)
-                if ((existingMethod.modifiers & ExtraCompilerModifiers.AccUnresolved) != 0) {
-                    // lets look at the declaration
-                    AbstractMethodDeclaration methodDecl = existingMethod.sourceMethod();
-                    if (methodDecl == null) {
-                        // FIXASC decide what we can do here
-                    } else {
-                        Argument[] arguments = methodDecl.arguments;
-                        if (arguments != null && arguments.length == 1) {
-                            // might be a candidate, it takes one parameter
-                            // TypeReference tr = arguments[0].type;
-                            // String typename = new String(CharOperation.concatWith(tr.getTypeName(), '.'));
-                            // // not really an exact comparison here...
-                            // if (typename.endsWith(propertyName)) {
-                            found = true;
-                            // }
-                        }
-                    }
+        for (MethodBinding existingMethod : getMethods(existingMethods, name)) {
+            // check if this possible candidate has parameters (if it does, it can't be our getter)
+            if ((existingMethod.modifiers & ExtraCompilerModifiers.AccUnresolved) != 0) {
+                // lets look at the declaration
+                AbstractMethodDeclaration methodDecl = existingMethod.sourceMethod();
+                if (methodDecl == null) {
+                    // FIXASC decide what we can do here
                 } else {
-                    TypeBinding[] existingParams = existingMethod.parameters;
-                    if (existingParams != null && existingParams.length == 1) {
-                        // if (CharOperation.equals(existingParams[0].signature(),)) {
+                    Argument[] arguments = methodDecl.arguments;
+                    if (arguments != null && arguments.length == 1) {
                         // might be a candidate, it takes one parameter
+                        // TypeReference tr = arguments[0].type;
+                        // String typename = new String(CharOperation.concatWith(tr.getTypeName(), '.'));
+                        // // not really an exact comparison here...
+                        // if (typename.endsWith(propertyName)) {
                         found = true;
                         // }
                     }
                 }
+            } else {
+                TypeBinding[] existingParams = existingMethod.parameters;
+                if (existingParams != null && existingParams.length == 1) {
+                    // if (CharOperation.equals(existingParams[0].signature(),)) {
+                    // might be a candidate, it takes one parameter
+                    found = true;
+                    // }
+                }
             }
         }
 
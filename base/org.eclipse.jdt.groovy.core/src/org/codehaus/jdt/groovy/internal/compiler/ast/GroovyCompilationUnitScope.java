@@ -17,7 +17,10 @@ package org.codehaus.jdt.groovy.internal.compiler.ast;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.StringTokenizer;
 
 import org.codehaus.groovy.ast.ClassNode;
@@ -34,6 +37,7 @@ import org.eclipse.jdt.internal.compiler.lookup.ClassScope;
 import org.eclipse.jdt.internal.compiler.lookup.CompilationUnitScope;
 import org.eclipse.jdt.internal.compiler.lookup.ImportBinding;
 import org.eclipse.jdt.internal.compiler.lookup.LookupEnvironment;
+import org.eclipse.jdt.internal.compiler.lookup.MethodBinding;
 import org.eclipse.jdt.internal.compiler.lookup.PackageBinding;
 import org.eclipse.jdt.internal.compiler.lookup.ProblemReasons;
 import org.eclipse.jdt.internal.compiler.lookup.ProblemReferenceBinding;
@@ -71,6 +75,12 @@ public class GroovyCompilationUnitScope extends CompilationUnitScope {
         }
     }
 
+    /** trait methods found by {@link GroovyClassScope} for binary types, by type */
+    final Map<ReferenceBinding, Map<String, MethodBinding>> traitMethods = new HashMap<ReferenceBinding, Map<String, MethodBinding>>();
+
+    /** overridable methods found by {@link GroovyClassScope} for binary types, by type */
+    final Map<ReferenceBinding, Set<String>> overridableMethods = new HashMap<ReferenceBinding, Set<String>>();
+
     private boolean isScript;
 
     public boolean isScript() {
@@ -238,6 +248,13 @@ public class GroovyCompilationUnitScope extends CompilationUnitScope {
      */
     public ClassNode lookupClassNodeForSource(String typename, JDTResolver jdtResolver) {
         char[][] compoundName = CharOperation.splitOn('.', typename.toCharArray());
+        String missingKey = getMissingTypeKey(typename, compoundName);
+        if (missingKey != null && jdtResolver.isMissingType(missingKey)) {
+            // record the same dependencies as the lookup would
+            recordQualifiedReference(compoundName);
+            recordSimpleReference(compoundName[0]);
+            return null;
+        }
         TypeBinding jdtBinding = null;
         try {
             jdtBinding = getType(compoundName, compoundName.length);
@@ -261,6 +278,8 @@ public class GroovyCompilationUnitScope extends CompilationUnitScope {
                 if (jdtBinding instanceof SourceTypeBinding || jdtBinding instanceof BinaryTypeBinding) {
                     return jdtResolver.convertToClassNode(jdtBinding);
                 }
+            } else if (missingKey != null && prBinding.problemId() == ProblemReasons.NotFound) {
+                jdtResolver.recordMissingType(missingKey);
             }
         }
 
@@ -269,6 +288,13 @@ public class GroovyCompilationUnitScope extends CompilationUnitScope {
 
     public ClassNode lookupClassNodeForBinary(String typename, JDTResolver jdtResolver) {
         char[][] compoundName = CharOperation.splitOn('.', typename.toCharArray());
+        String missingKey = getMissingTypeKey(typename, compoundName);
+        if (missingKey != null && jdtResolver.isMissingType(missingKey)) {
+            // record the same dependencies as the lookup would
+            recordQualifiedReference(compoundName);
+            recordSimpleReference(compoundName[0]);
+            return null;
+        }
         TypeBinding jdtBinding = getType(compoundName, compoundName.length);
 
         if (jdtBinding instanceof BinaryTypeBinding) {
@@ -282,12 +308,37 @@ public class GroovyCompilationUnitScope extends CompilationUnitScope {
                 if (jdtBinding instanceof BinaryTypeBinding) {
                     return jdtResolver.convertToClassNode(jdtBinding);
                 }
+            } else if (missingKey != null && prBinding.problemId() == ProblemReasons.NotFound) {
+                jdtResolver.recordMissingType(missingKey);
             }
         }
 
         return null;
     }
 
+    /**
+     * Returns the key under which a failure to find the given type can be
+     * shared with the other units of this package, or {@code null} if the
+     * lookup depends on this unit.  Like Groovy, a qualified name whose
+     * first segment is in lower case is taken to start with a package name,
+     * unless that segment is the simple name of a type imported by this unit.
+     * Lookups of other names start from the types visible in the unit.
+     */
+    private String getMissingTypeKey(String typename, char[][] compoundName) {
+        if (compoundName.length < 2 || compoundName[0].length == 0 || !Character.isLowerCase(compoundName[0][0])) {
+            return null;
+        }
+        if (imports != null) {
+            for (ImportBinding importBinding : imports) {
+                if (importBinding != null && !importBinding.onDemand &&
+                        CharOperation.equals(importBinding.compoundName[importBinding.compoundName.length - 1], compoundName[0])) {
+                    return null;
+                }
+            }
+        }
+        return (fPackage != null ? CharOperation.toString(fPackage.compoundName) : "") + ':' + typename;
+    }
+
     @Override
     protected void checkPublicTypeNameMatchesFilename(TypeDeclaration typeDecl) {
     }
@@ -269,6 +269,29 @@ public class GroovyParser {
             this.compilationUnit.allowTransforms);
     }
 
+    /**
+     * Releases the loaders created for batch compilation, so that a long-lived
+     * process running one batch compile after another does not keep their
+     * classes and jar files.  Loaders of projects are cached and left alone.
+     */
+    public void close() {
+        if (gclForBatch != null) {
+            closeLoader(this.compilationUnit.getClassLoader());
+            closeLoader(gclForBatch);
+            gclForBatch = null;
+        }
+    }
+
+    private static void closeLoader(GroovyClassLoader groovyClassLoader) {
+        groovyClassLoader.clearCache();
+        try {
+            // available from Java 7
+            URLClassLoader.class.getMethod("close").invoke(groovyClassLoader);
+        } catch (Exception e) {
+            close(groovyClassLoader);
+        }
+    }
+
     static class GrapeAwareGroovyClassLoader extends GroovyClassLoader {
 
         // Could be prodded to indicate a grab has occurred within this compilation unit
@@ -385,7 +408,7 @@ public class GroovyParser {
             }
         }
 
-        SourceUnit groovySourceUnit = new EclipseSourceUnit(eclipseFile, filepath, new String(sourceCode),
+        SourceUnit groovySourceUnit = new EclipseSourceUnit(eclipseFile, filepath, sourceCode,
                 compilationUnit.getConfiguration(), compilationUnit.getClassLoader(), errorCollector, this.resolver);
         groovySourceUnit.isReconcile = compilationUnit.isReconcile;
         GroovyCompilationUnitDeclaration gcuDeclaration = new GroovyCompilationUnitDeclaration(problemReporter, compilationResult,
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 
 import groovy.lang.GroovyClassLoader;
 
@@ -134,6 +135,10 @@ public class JDTResolver extends ResolveVisitor {
 
     private Set<ClassNode> resolvedClassNodes = new HashSet<ClassNode>();
 
+    // Qualified type names that JDT could not find, shared by all the source units resolved by this resolver (the keys
+    // are made by GroovyCompilationUnitScope). They are forgotten whenever new types are recorded.
+    private final Map<String, Boolean> missingTypes = new ConcurrentHashMap<String, Boolean>();
+
     public JDTResolver(CompilationUnit groovyCompilationUnit) {
         super(groovyCompilationUnit);
         if (recordInstances) {
@@ -516,6 +521,14 @@ public class JDTResolver extends ResolveVisitor {
         return activeScope;
     }
 
+    boolean isMissingType(String key) {
+        return missingTypes.containsKey(key);
+    }
+
+    void recordMissingType(String key) {
+        missingTypes.put(key, Boolean.TRUE);
+    }
+
     /**
      * When recorded, the jdt resolver will be able to (later on) navigate from the classnode back to the JDT scope that should be
      * used.
@@ -523,6 +536,11 @@ public class JDTResolver extends ResolveVisitor {
     public void record(GroovyTypeDeclaration gtDeclaration) {
         // FIXASC can the relationship here from classNode to scope be better preserved to remove the need for this map?
         scopes.put(gtDeclaration.getClassNode(), gtDeclaration);
+        // a name that could not be resolved before may now be found
+        if (!missingTypes.isEmpty()) {
+            missingTypes.clear();
+        }
+        forgetResolutionFailures();
         if (gtDeclaration.memberTypes != null) {
             TypeDeclaration[] members = gtDeclaration.memberTypes;
             for (int m = 0; m < members.length; m++) {
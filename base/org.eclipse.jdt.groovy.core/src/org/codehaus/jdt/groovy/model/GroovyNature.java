@@ -17,9 +17,14 @@ package org.codehaus.jdt.groovy.model;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IProjectNature;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IncrementalProjectBuilder;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.resources.WorkspaceJob;
@@ -38,10 +43,12 @@ public class GroovyNature implements IProjectNature {
     public static final String GROOVY_NATURE = "org.eclipse.jdt.groovy.core.groovyNature";
 
     public static void configure(final IProject project) throws CoreException {
+        forgetNature(project);
         cleanAndRebuildProject(project);
     }
 
     public static void deconfigure(final IProject project) throws CoreException {
+        forgetNature(project);
         cleanAndRebuildProject(project);
     }
 
@@ -97,7 +104,36 @@ public class GroovyNature implements IProjectNature {
         this.project = project;
     }
 
+    /**
+     * Answers from a cache of nature lookups.  Setting a description that adds
+     * or removes the Groovy nature configures or deconfigures the nature, which
+     * drops the project's entry right away, even within a workspace operation.
+     * Entries are also dropped when a project is added, removed, opened, closed
+     * or has its description changed.
+     */
     public static boolean hasGroovyNature(IProject project) {
+        Boolean answer = natures.get(project);
+        if (answer == null) {
+            int stamp;
+            synchronized (natures) {
+                if (!listening) {
+                    ResourcesPlugin.getWorkspace().addResourceChangeListener(NATURE_LISTENER, IResourceChangeEvent.POST_CHANGE);
+                    listening = true;
+                }
+                stamp = natureStamp;
+            }
+            answer = Boolean.valueOf(lookupGroovyNature(project));
+            synchronized (natures) {
+                // skip if a change was seen during the lookup
+                if (stamp == natureStamp) {
+                    natures.put(project, answer);
+                }
+            }
+        }
+        return answer.booleanValue();
+    }
+
+    private static boolean lookupGroovyNature(IProject project) {
         try {
             return project.hasNature(GROOVY_NATURE);
         } catch (CoreException e) {
@@ -106,6 +142,30 @@ public class GroovyNature implements IProjectNature {
         return false;
     }
 
+    public static void forgetNature(IProject project) {
+        synchronized (natures) {
+            natureStamp += 1;
+            natures.remove(project);
+        }
+    }
+
+    private static final Map<IProject, Boolean> natures = new ConcurrentHashMap<IProject, Boolean>();
+    private static int natureStamp;
+    private static boolean listening;
+
+    private static final IResourceChangeListener NATURE_LISTENER = new IResourceChangeListener() {
+        public void resourceChanged(IResourceChangeEvent event) {
+            if (event.getDelta() != null && !natures.isEmpty()) {
+                for (IResourceDelta delta : event.getDelta().getAffectedChildren()) {
+                    if (delta.getKind() != IResourceDelta.CHANGED ||
+                            (delta.getFlags() & (IResourceDelta.DESCRIPTION | IResourceDelta.OPEN)) != 0) {
+                        forgetNature((IProject) delta.getResource());
+                    }
+                }
+            }
+        }
+    };
+
     /**
      * Returns a new copy of all available and accessible Groovy projects in the workspace
      */
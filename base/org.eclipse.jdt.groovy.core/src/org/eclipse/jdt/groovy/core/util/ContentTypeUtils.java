@@ -194,12 +194,18 @@ public class ContentTypeUtils {
             if (endsWithAny(fileName, getGroovyLikeExtensions())) {
                 return true;
             }
-            if (GROOVY_FILE_NAMES == null) {
-                GROOVY_FILE_NAMES = loadGroovyFileNames();
+            Set<String> names = GROOVY_FILE_NAMES;
+            if (names == null) {
+                GROOVY_FILE_NAMES = names = loadGroovyFileNames();
+            }
+            if (!names.isEmpty()) {
+                int start = lastIndexOf(fileName, '/') + 1;
+                for (String name : names) {
+                    if (regionMatches(fileName, start, name)) {
+                        return true;
+                    }
+                }
             }
-            fileName = fileName.subSequence(
-                lastIndexOf(fileName, '/') + 1, fileName.length());
-            return GROOVY_FILE_NAMES.contains(fileName.toString());
         }
         return false;
     }
@@ -274,13 +280,40 @@ public class ContentTypeUtils {
             if (offset < 1 || sequence.charAt(offset - 1) != '.') {
                 continue;
             }
-            if (sequence.subSequence(offset, length).toString().equals(String.valueOf(extension))) {
+            if (regionMatches(sequence, offset, extension)) {
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Compares the end of the sequence, from the given offset, without copying it.
+     */
+    private static boolean regionMatches(CharSequence sequence, int offset, char[] chars) {
+        if (sequence.length() - offset != chars.length) {
+            return false;
+        }
+        for (int i = 0; i < chars.length; i += 1) {
+            if (sequence.charAt(offset + i) != chars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionMatches(CharSequence sequence, int offset, String string) {
+        if (sequence.length() - offset != string.length()) {
+            return false;
+        }
+        for (int i = 0, n = string.length(); i < n; i += 1) {
+            if (sequence.charAt(offset + i) != string.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static int lastIndexOf(CharSequence sequence, char character) {
         for (int i = sequence.length() - 1; i >= 0; i -= 1) {
             if (sequence.charAt(i) == character) {
@@ -15,6 +15,9 @@
  */
 package org.eclipse.jdt.groovy.core.util;
 
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -23,6 +26,7 @@ import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -47,11 +51,13 @@ public class ReflectionUtils {
         return interfaces.toArray(NO_TYPES);
     }
 
+    /**
+     * @return the accessible constructor; resolved once per type and parameter types
+     */
+    @SuppressWarnings("unchecked")
     public static <T> Constructor<T> getConstructor(Class<T> instanceType, Class<?>... parameterTypes) {
         try {
-            Constructor<T> ctor = instanceType.getDeclaredConstructor(parameterTypes);
-            ctor.setAccessible(true);
-            return ctor;
+            return (Constructor<T>) resolve(instanceType, "<init>", parameterTypes);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -77,15 +83,8 @@ public class ReflectionUtils {
     }
 
     public static Object getPrivateField(Class<?> clazz, String fieldName, Object target) {
-        String key = clazz.getCanonicalName() + fieldName;
-        Field field = FIELDS.get(key);
         try {
-            if (field == null) {
-                field = clazz.getDeclaredField(fieldName);
-                field.setAccessible(true);
-                FIELDS.put(key, field);
-            }
-            return field.get(target);
+            return ((Field) resolve(clazz, fieldName, null)).get(target);
         } catch (Exception e) {
             log("Error getting private field '" + fieldName + "' on class " + clazz, e);
         }
@@ -93,15 +92,8 @@ public class ReflectionUtils {
     }
 
     public static void setPrivateField(Class<?> clazz, String fieldName, Object target, Object newValue) {
-        String key = clazz.getCanonicalName() + fieldName;
-        Field field = FIELDS.get(key);
         try {
-            if (field == null) {
-                field = clazz.getDeclaredField(fieldName);
-                field.setAccessible(true);
-                FIELDS.put(key, field);
-            }
-            field.set(target, newValue);
+            ((Field) resolve(clazz, fieldName, null)).set(target, newValue);
         } catch (Exception e) {
             log("Error setting private field '" + fieldName + "' on class " + clazz, e);
         }
@@ -112,11 +104,8 @@ public class ReflectionUtils {
     }
 
     public static <T> Object executePrivateMethod(Class<T> clazz, String methodName, Class<?>[] types, Object target, Object[] args) {
-        // forget caching for now...
         try {
-            Method method = clazz.getDeclaredMethod(methodName, types);
-            method.setAccessible(true);
-            return method.invoke(target, args);
+            return ((Method) resolve(clazz, methodName, types)).invoke(target, args);
         } catch (Exception e) {
             log("Error executing private method '" + methodName + "' on class " + clazz, e);
             return null;
@@ -124,21 +113,94 @@ public class ReflectionUtils {
     }
 
     public static <T> Object throwableExecutePrivateMethod(Class<? extends T> clazz, String methodName, Class<?>[] types, T target, Object[] args) throws Exception {
-        // forget caching for now...
-        Method method = clazz.getDeclaredMethod(methodName, types);
-        method.setAccessible(true);
-        return method.invoke(target, args);
+        return ((Method) resolve(clazz, methodName, types)).invoke(target, args);
     }
 
     public static <T> Object throwableGetPrivateField(Class<? extends T> clazz, String fieldName, T target) throws Exception {
-        String key = clazz.getCanonicalName() + fieldName;
-        Field field = FIELDS.get(key);
-        if (field == null) {
-            field = clazz.getDeclaredField(fieldName);
-            field.setAccessible(true);
-            FIELDS.put(key, field);
+        return ((Field) resolve(clazz, fieldName, null)).get(target);
+    }
+
+    /**
+     * Looks up an accessible member of the given class.  Each member is looked
+     * up and made accessible once; a missing member is remembered as well, so
+     * later requests fail fast (with a new exception each time).
+     * <p>
+     * Classes are held weakly, and so are their members (a member refers to
+     * its class), so the cache never keeps a class loader reachable.  A member
+     * that has been collected is simply looked up again.
+     *
+     * @param types parameter types of a method or constructor ("&lt;init&gt;");
+     *              {@code null} for a field
+     */
+    private static AccessibleObject resolve(Class<?> clazz, String name, Class<?>[] types) throws Exception {
+        String key = memberKey(name, types);
+        Map<String, Object> members;
+        Object member;
+        synchronized (MEMBERS) {
+            members = MEMBERS.get(clazz);
+            if (members == null) {
+                members = new HashMap<String, Object>();
+                MEMBERS.put(clazz, members);
+            }
+            member = members.get(key);
+        }
+        if (member instanceof Reference) {
+            member = ((Reference<?>) member).get();
+        }
+        if (member == null) {
+            Object entry;
+            try {
+                member = lookup(clazz, name, types);
+                entry = new WeakReference<Object>(member);
+            } catch (NoSuchFieldException e) {
+                entry = member = new Missing(e.getMessage());
+            } catch (NoSuchMethodException e) {
+                entry = member = new Missing(e.getMessage());
+            }
+            synchronized (MEMBERS) {
+                members.put(key, entry);
+            }
+        }
+        if (member instanceof Missing) {
+            String message = ((Missing) member).message;
+            throw (types == null ? new NoSuchFieldException(message) : new NoSuchMethodException(message));
+        }
+        return (AccessibleObject) member;
+    }
+
+    private static AccessibleObject lookup(Class<?> clazz, String name, Class<?>[] types) throws Exception {
+        AccessibleObject object;
+        if (types == null) {
+            object = clazz.getDeclaredField(name);
+        } else if (name.equals("<init>")) {
+            object = clazz.getDeclaredConstructor(types);
+        } else {
+            object = clazz.getDeclaredMethod(name, types);
+        }
+        object.setAccessible(true);
+        return object;
+    }
+
+    /**
+     * Stands for a member that does not exist.
+     */
+    private static final class Missing {
+        final String message;
+
+        Missing(String message) {
+            this.message = message;
         }
-        return field.get(target);
+    }
+
+    private static String memberKey(String name, Class<?>[] types) {
+        if (types == null) {
+            return name;
+        }
+        StringBuilder key = new StringBuilder(name).append('(');
+        for (Class<?> type : types) {
+            key.append(type.getName()).append(';');
+        }
+        return key.append(')').toString();
     }
 
     private static void log(String message, Throwable throwable) {
@@ -147,5 +209,10 @@ public class ReflectionUtils {
 
     private static final Object[] NO_ARGS = new Object[0];
     private static final Class<?>[] NO_TYPES = new Class[0];
-    private static final Map<String, Field> FIELDS = new HashMap<String, Field>();
+
+    /**
+     * Weak references to resolved members (or {@link Missing} markers) by
+     * declaring class and member key.
+     */
+    private static final Map<Class<?>, Map<String, Object>> MEMBERS = new WeakHashMap<Class<?>, Map<String, Object>>();
 }
@@ -27,7 +27,6 @@ import org.codehaus.groovy.ast.expr.VariableExpression;
 import org.codehaus.jdt.groovy.model.GroovyClassFileWorkingCopy;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.core.IJavaElement;
-import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.core.search.FieldDeclarationMatch;
 import org.eclipse.jdt.core.search.FieldReferenceMatch;
 import org.eclipse.jdt.core.search.SearchMatch;
@@ -47,6 +46,8 @@ public class FieldReferenceSearchRequestor implements ITypeRequestor {
     private final SearchParticipant participant;
 
     private final char[] name;
+    /** the field name as a string */
+    private final String nameString;
     private final String declaringQualifiedName;
     private final boolean readAccess;
     private final boolean writeAccess;
@@ -59,6 +60,7 @@ public class FieldReferenceSearchRequestor implements ITypeRequestor {
         this.requestor = requestor;
         this.participant = participant;
         name = (char[]) ReflectionUtils.getPrivateField(VariablePattern.class, "name", pattern);
+        nameString = (name == null ? null : String.valueOf(name));
         char[] arr = (char[]) ReflectionUtils.getPrivateField(FieldPattern.class, "declaringSimpleName", pattern);
         String declaringSimpleName = arr == null ? "" : String.valueOf(arr);
         arr = (char[]) ReflectionUtils.getPrivateField(FieldPattern.class, "declaringQualification", pattern);
@@ -71,6 +73,13 @@ public class FieldReferenceSearchRequestor implements ITypeRequestor {
         findReferences = (Boolean) ReflectionUtils.getPrivateField(VariablePattern.class, "findReferences", pattern);
     }
 
+    /**
+     * @return {@code true} if the given name matches the searched field name; a {@code null} name (from a "*" pattern) matches any name
+     */
+    private boolean nameMatches(String candidate) {
+        return nameString == null || nameString.equals(candidate);
+    }
+
     public VisitStatus acceptASTNode(ASTNode node, TypeLookupResult result, IJavaElement enclosingElement) {
         boolean doCheck = false;
         boolean isAssignment = false;
@@ -80,8 +89,7 @@ public class FieldReferenceSearchRequestor implements ITypeRequestor {
 
         // include method calls here because of closures
         if (node instanceof ConstantExpression) {
-            String cName = ((ConstantExpression) node).getText();
-            if (cName != null && CharOperation.equals(name, cName.toCharArray())) {
+            if (nameMatches(((ConstantExpression) node).getText())) {
                 doCheck = true;
                 if (EqualityVisitor.checkForAssignment(node, result.enclosingAssignment)) {
                     isAssignment = true;
@@ -90,18 +98,19 @@ public class FieldReferenceSearchRequestor implements ITypeRequestor {
                 end = node.getEnd();
             }
         } else if (node instanceof FieldExpression) {
-            if (CharOperation.equals(name, ((FieldExpression) node).getFieldName().toCharArray())) {
+            String fieldName = ((FieldExpression) node).getFieldName();
+            if (nameMatches(fieldName)) {
                 doCheck = true;
                 if (EqualityVisitor.checkForAssignment(node, result.enclosingAssignment)) {
                     isAssignment = true;
                 }
                 // fully qualified field expressions in static contexts will have an sloc of the entire qualified name
                 end = node.getEnd();
-                start = end - name.length;
+                start = end - fieldName.length();
             }
         } else if (node instanceof FieldNode) {
             FieldNode fnode = (FieldNode) node;
-            if (CharOperation.equals(name, fnode.getName().toCharArray())) {
+            if (nameMatches(fnode.getName())) {
                 doCheck = true;
                 isDeclaration = true;
                 // assume all fieldNodes are assignments. Not true if there is no initializer, but we can't know this at this point
@@ -112,7 +121,7 @@ public class FieldReferenceSearchRequestor implements ITypeRequestor {
             }
         } else if (node instanceof VariableExpression) {
             VariableExpression vnode = (VariableExpression) node;
-            if (CharOperation.equals(name, vnode.getName().toCharArray())) {
+            if (nameMatches(vnode.getName())) {
                 doCheck = true;
                 if (EqualityVisitor.checkForAssignment(node, result.enclosingAssignment)) {
                     isAssignment = true;
@@ -191,6 +191,24 @@ public class GenericsMapper {
         return !allGenerics.isEmpty() && !allGenerics.getLast().isEmpty();
     }
 
+    /**
+     * Describes the type parameters and their resolved types at the highest
+     * level of the hierarchy, which are all that {@link #findParameter} reads.
+     * Mappers with the same signature resolve types the same way.
+     */
+    protected String getSignature() {
+        if (allGenerics.isEmpty()) {
+            return "";
+        }
+        StringBuilder signature = new StringBuilder();
+        for (Map.Entry<String, ClassNode> entry : allGenerics.getLast().entrySet()) {
+            signature.append(entry.getKey()).append('=');
+            ClassNode type = entry.getValue();
+            signature.append(type == null ? "null" : type.toString(false)).append(';');
+        }
+        return signature.toString();
+    }
+
     /**
      * Finds the type of a parameter name in the highest level of the type hierarchy currently analyzed.
      *
@@ -33,7 +33,6 @@ import org.codehaus.jdt.groovy.internal.compiler.ast.JDTClassNode;
 import org.codehaus.jdt.groovy.model.GroovyClassFileWorkingCopy;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.core.IJavaElement;
-import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.core.search.MethodDeclarationMatch;
 import org.eclipse.jdt.core.search.MethodReferenceMatch;
 import org.eclipse.jdt.core.search.SearchMatch;
@@ -57,6 +56,8 @@ public class MethodReferenceSearchRequestor implements ITypeRequestor {
     protected final SearchParticipant participant;
 
     protected final char[] name;
+    /** the method name as a string */
+    protected final String nameString;
     protected final String declaringQualifiedName;
     protected final boolean findDeclarations;
     protected final boolean findReferences;
@@ -65,10 +66,17 @@ public class MethodReferenceSearchRequestor implements ITypeRequestor {
     protected final int declaredParameterCount;
     protected final Set<Position> acceptedPositions = new HashSet<Position>();
 
+    private final MethodPattern pattern;
+    /** supertype checks for the declaring type, shared by the requestors of a search; keyed by type name */
+    private Map<String, Boolean> cachedDeclaringNameMatches;
+    private Map<ClassNode, boolean[]> cachedParameterCounts = new HashMap<ClassNode, boolean[]>();
+
     public MethodReferenceSearchRequestor(MethodPattern pattern, SearchRequestor requestor, SearchParticipant participant) {
+        this.pattern = pattern;
         this.requestor = requestor;
         this.participant = participant;
         name = (char[]) ReflectionUtils.getPrivateField(MethodPattern.class, "selector", pattern);
+        nameString = (name == null ? null : String.valueOf(name));
         char[] arr = (char[]) ReflectionUtils.getPrivateField(MethodPattern.class, "declaringSimpleName", pattern);
         String declaringSimpleName = arr == null ? "" : new String(arr);
         arr = (char[]) ReflectionUtils.getPrivateField(MethodPattern.class, "declaringQualification", pattern);
@@ -82,34 +90,39 @@ public class MethodReferenceSearchRequestor implements ITypeRequestor {
         declaredParameterCount = pattern.parameterSimpleNames == null ? 0 : pattern.parameterSimpleNames.length;
     }
 
+    /**
+     * @return {@code true} if the given name matches the searched method name; a {@code null} name (from a "*" pattern) matches any name
+     */
+    protected boolean nameMatches(String candidate) {
+        return nameString == null || nameString.equals(candidate);
+    }
+
     public VisitStatus acceptASTNode(ASTNode node, TypeLookupResult result, IJavaElement enclosingElement) {
         boolean doCheck = false;
         boolean isDeclaration = false;
         boolean isConstructorCall = false; // FIXADE hmmm...not capturing constructor calls here.
         int start = 0;
         int end = 0;
-
-        if (result.declaringType == null) {
-            // GRECLIPSE-1180 probably a literal of some kind
-            return VisitStatus.CONTINUE;
-        }
+        String nodeName = null;
 
         if (node instanceof ConstantExpression) {
-            String cName = ((ConstantExpression) node).getText();
-            if (cName != null && CharOperation.equals(name, cName.toCharArray())) {
+            nodeName = ((ConstantExpression) node).getText();
+            if (nameMatches(nodeName)) {
                 start = node.getStart();
                 end = node.getEnd();
                 doCheck = end > 0; // avoid synthetic references
             }
         } else if (node instanceof FieldExpression) {
-            if (CharOperation.equals(name, ((FieldExpression) node).getFieldName().toCharArray())) {
+            nodeName = ((FieldExpression) node).getFieldName();
+            if (nameMatches(nodeName)) {
                 start = node.getStart();
                 end = node.getEnd();
                 doCheck = end > 0; // avoid synthetic references
             }
         } else if (node instanceof MethodNode) {
             MethodNode mnode = (MethodNode) node;
-            if (CharOperation.equals(name, mnode.getName().toCharArray())) {
+            nodeName = mnode.getName();
+            if (nameMatches(nodeName)) {
                 isDeclaration = true;
                 start = mnode.getNameStart();
                 end = mnode.getNameEnd() + 1; // arrrgh...why +1?
@@ -117,28 +130,38 @@ public class MethodReferenceSearchRequestor implements ITypeRequestor {
             }
         } else if (node instanceof VariableExpression) {
             VariableExpression vnode = (VariableExpression) node;
-            if (CharOperation.equals(name, vnode.getName().toCharArray())) {
+            nodeName = vnode.getName();
+            if (nameMatches(nodeName)) {
                 start = vnode.getStart();
-                end = start + vnode.getName().length();
+                end = start + nodeName.length();
                 doCheck = true;
             }
         } else if (node instanceof StaticMethodCallExpression) {
             StaticMethodCallExpression smnode = (StaticMethodCallExpression) node;
-            if (CharOperation.equals(name, smnode.getMethod().toCharArray())) {
+            nodeName = smnode.getMethod();
+            if (nameMatches(nodeName)) {
                 start = smnode.getStart();
-                end = start + name.length;
+                end = start + nodeName.length();
                 doCheck = true;
             }
         }
 
+        // GRECLIPSE-1180 no declaring type; probably a literal of some kind
+        if (result.declaringType == null) {
+            return VisitStatus.CONTINUE;
+        }
+
         // at this point, if doCheck is true, then we know that the method name matches
         if (doCheck && end > 0) {
             // don't want to double accept nodes. This could happen with field and object initializers can get pushed into multiple
             // constructors
             Position position = new Position(start, end - start);
             if (!acceptedPositions.contains(position)) {
+                if (cachedDeclaringNameMatches == null) {
+                    cachedDeclaringNameMatches = TypeNameMatchCache.forSearch(pattern, enclosingElement.getJavaProject());
+                }
                 int numberOfParameters = findNumberOfParameters(node, result);
-                boolean isCompleteMatch = nameAndArgsMatch(GroovyUtils.getBaseType(result.declaringType), numberOfParameters);
+                boolean isCompleteMatch = nameAndArgsMatch(GroovyUtils.getBaseType(result.declaringType), nodeName, numberOfParameters);
                 if (isCompleteMatch) {
                     IJavaElement realElement = enclosingElement.getOpenable() instanceof GroovyClassFileWorkingCopy ? ((GroovyClassFileWorkingCopy) enclosingElement
                             .getOpenable()).convertToBinary(enclosingElement) : enclosingElement;
@@ -175,14 +198,20 @@ public class MethodReferenceSearchRequestor implements ITypeRequestor {
                 : Math.max(0, result.scope.getMethodCallNumberOfArguments());
     }
 
-    private Map<ClassNode, Boolean> cachedDeclaringNameMatches = new HashMap<ClassNode, Boolean>();
-    private Map<ClassNode, boolean[]> cachedParameterCounts = new HashMap<ClassNode, boolean[]>();
-
     /**
      * Recursively checks the hierarchy for matching names
+     *
+     * @param methodName the name of the method at the current node; differs from the searched name for a "*" pattern
      */
-    private boolean nameAndArgsMatch(ClassNode declaringType, int currentCallCount) {
-        return matchOnName(declaringType) && matchOnNumberOfParameters(declaringType, currentCallCount);
+    private boolean nameAndArgsMatch(ClassNode declaringType, String methodName, int currentCallCount) {
+        if (declaringType == null) {
+            return false;
+        }
+        // since local variables have a declaring type of object, we don't accidentally want to return them as a match
+        if (declaringType.getName().equals("java.lang.Object") && declaringType.getDeclaredMethods(methodName).isEmpty()) {
+            return false;
+        }
+        return matchOnName(declaringType) && matchOnNumberOfParameters(declaringType, methodName, currentCallCount);
     }
 
     private boolean matchOnName(ClassNode declaringType) {
@@ -190,24 +219,20 @@ public class MethodReferenceSearchRequestor implements ITypeRequestor {
             return false;
         }
         String declaringTypeName = declaringType.getName();
-        if (// since local variables have a declaring type of object, we don't accidentally want to return them as a match
-        (declaringTypeName.equals("java.lang.Object") && declaringType.getDeclaredMethods(String.valueOf(name)).size() == 0)) {
-            return false;
-        }
         if (declaringQualifiedName == null || declaringQualifiedName.equals("")) {
             // no type specified, accept all
             return true;
         }
 
-        declaringTypeName = declaringTypeName.replace('$', '.');
-
-        Boolean maybeMatch = cachedDeclaringNameMatches.get(declaringType);
+        Boolean maybeMatch = cachedDeclaringNameMatches.get(declaringTypeName);
         if (maybeMatch != null) {
             return maybeMatch;
         }
+        String cacheKey = declaringTypeName;
+        declaringTypeName = declaringTypeName.replace('$', '.');
 
         if (declaringTypeName.equals(declaringQualifiedName)) {
-            cachedDeclaringNameMatches.put(declaringType, true);
+            cachedDeclaringNameMatches.put(cacheKey, true);
 
             // the name matches, now what about number of arguments?
             return true;
@@ -223,7 +248,7 @@ public class MethodReferenceSearchRequestor implements ITypeRequestor {
                     }
                 }
             }
-            cachedDeclaringNameMatches.put(declaringType, maybeMatch);
+            cachedDeclaringNameMatches.put(cacheKey, maybeMatch);
             return maybeMatch;
         }
     }
@@ -245,22 +270,26 @@ public class MethodReferenceSearchRequestor implements ITypeRequestor {
      * </ol>
      *
      * @param declaringType
+     * @param methodName
      * @param currentCallCount
      * @return true if there is a precise match between number of arguments and numner of parameters. false if there exists a
      *         different method with same number of arguments in current type, or true otherwise
      */
-    private boolean matchOnNumberOfParameters(ClassNode declaringType, int currentCallCount) {
+    private boolean matchOnNumberOfParameters(ClassNode declaringType, String methodName, int currentCallCount) {
         boolean methodParamNumberMatch;
         if (currentCallCount == declaredParameterCount) {
             // precise match
             methodParamNumberMatch = true;
         } else {
 
-            boolean[] foundParameterNumbers = cachedParameterCounts.get(declaringType);
+            // the counts depend on the method name, so they are only kept when it is fixed
+            boolean[] foundParameterNumbers = (nameString != null ? cachedParameterCounts.get(declaringType) : null);
             if (foundParameterNumbers == null) {
                 foundParameterNumbers = new boolean[MAX_PARAMS + 1];
-                gatherParameters(declaringType, foundParameterNumbers);
-                cachedParameterCounts.put(declaringType, foundParameterNumbers);
+                gatherParameters(declaringType, methodName, foundParameterNumbers);
+                if (nameString != null) {
+                    cachedParameterCounts.put(declaringType, foundParameterNumbers);
+                }
             }
             // now, if we find a method that has the same number of parameters in the call,
             // then assume the call is for this target method (and therefore there is no match)
@@ -269,12 +298,12 @@ public class MethodReferenceSearchRequestor implements ITypeRequestor {
         return methodParamNumberMatch;
     }
 
-    private void gatherParameters(ClassNode declaringType, boolean[] foundParameterNumbers) {
+    private void gatherParameters(ClassNode declaringType, String methodName, boolean[] foundParameterNumbers) {
         if (declaringType == null) {
             return;
         }
         declaringType = findWrappedNode(declaringType.redirect());
-        List<MethodNode> methods = declaringType.getMethods(String.valueOf(name));
+        List<MethodNode> methods = declaringType.getMethods(methodName);
         for (MethodNode method : methods) {
             // GRECLIPSE-1233
             // ensure default parameters are ignored
@@ -282,9 +311,9 @@ public class MethodReferenceSearchRequestor implements ITypeRequestor {
             foundParameterNumbers[Math.min(method.getParameters().length, MAX_PARAMS)] = true;
         }
 
-        gatherParameters(declaringType.getSuperClass(), foundParameterNumbers);
+        gatherParameters(declaringType.getSuperClass(), methodName, foundParameterNumbers);
         for (ClassNode iface : declaringType.getInterfaces()) {
-            gatherParameters(iface, foundParameterNumbers);
+            gatherParameters(iface, methodName, foundParameterNumbers);
         }
     }
 
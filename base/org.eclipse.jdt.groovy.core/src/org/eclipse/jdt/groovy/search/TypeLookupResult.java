@@ -141,7 +141,7 @@ public class TypeLookupResult {
 
             if (!(declaration instanceof MethodNode)) {
                 GenericsMapper mapper = GenericsMapper.gatherGenerics(targetType, declaringType.redirect());
-                ClassNode maybe = VariableScope.resolveTypeParameterization(mapper, VariableScope.clone(type));
+                ClassNode maybe = VariableScope.resolveTypeParameterization(mapper, VariableScope.cloneIfParameterized(type));
                 if (!maybe.toString(false).equals(type.toString(false))) {
                     TypeLookupResult result = new TypeLookupResult(maybe, declaringType, declaration, confidence, scope, extraDoc);
                     result.enclosingAnnotation = enclosingAnnotation;
@@ -165,7 +165,7 @@ public class TypeLookupResult {
                     return new TypeLookupResult(classType, method.getDeclaringClass(), method, confidence, scope, extraDoc);
                 } else {
                     GenericsMapper mapper = GenericsMapper.gatherGenerics(argumentTypes, targetType, method, scope.getMethodCallGenericsTypes());
-                    method = VariableScope.resolveTypeParameterization(mapper, method);
+                    method = scope.getParameterizedMethod(mapper, method);
                     if (method != declaration) {
                         TypeLookupResult result = new TypeLookupResult(method.getReturnType(), method.getDeclaringClass(), method, confidence, scope, extraDoc);
                         result.enclosingAnnotation = enclosingAnnotation;
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.jdt.groovy.search;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.search.SearchPattern;
+
+/**
+ * Answers to "does the type with this name match the search pattern?" that
+ * are shared by the requestors created for a search, one per possible match.
+ * The answers are kept for as long as the pattern is alive, which is usually
+ * the length of a single search.
+ * <p>
+ * Answers that depend on a type's hierarchy are kept separately for each
+ * project, since a type name may stand for different types in different
+ * projects.
+ */
+final class TypeNameMatchCache {
+
+    private TypeNameMatchCache() {}
+
+    private static final Map<SearchPattern, Map<Object, Map<String, Boolean>>> CACHES =
+        new WeakHashMap<SearchPattern, Map<Object, Map<String, Boolean>>>();
+
+    private static final Object NO_PROJECT = new Object();
+
+    /**
+     * @param project the project whose types are being matched, or
+     *        {@code null} if the answers depend on the type name alone
+     * @return type name matches for the given search pattern and project; safe
+     *         for use by more than one thread
+     */
+    static Map<String, Boolean> forSearch(SearchPattern pattern, IJavaProject project) {
+        Object key = (project != null ? project : NO_PROJECT);
+        synchronized (CACHES) {
+            Map<Object, Map<String, Boolean>> caches = CACHES.get(pattern);
+            if (caches == null) {
+                caches = new HashMap<Object, Map<String, Boolean>>();
+                CACHES.put(pattern, caches);
+            }
+            Map<String, Boolean> cache = caches.get(key);
+            if (cache == null) {
+                cache = new ConcurrentHashMap<String, Boolean>();
+                caches.put(key, cache);
+            }
+            return cache;
+        }
+    }
+}
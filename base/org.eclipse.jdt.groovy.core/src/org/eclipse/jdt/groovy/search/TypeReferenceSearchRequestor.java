@@ -16,6 +16,7 @@
 package org.eclipse.jdt.groovy.search;
 
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.codehaus.groovy.ast.ASTNode;
@@ -61,6 +62,8 @@ public class TypeReferenceSearchRequestor implements ITypeRequestor {
     private final boolean findDeclaration;
 
     private final Set<Position> acceptedPositions = new HashSet<Position>();
+    /** answers of {@link #qualifiedNameMatches(ClassNode)}, shared by the requestors of a search; keyed by type name */
+    private final Map<String, Boolean> cachedNameMatches;
     private char[] cachedContents;
 
     public TypeReferenceSearchRequestor(TypeReferencePattern pattern, SearchRequestor requestor, SearchParticipant participant) {
@@ -75,6 +78,7 @@ public class TypeReferenceSearchRequestor implements ITypeRequestor {
                 .booleanValue();
 
         this.findDeclaration = pattern instanceof DeclarationOfReferencedTypesPattern;
+        this.cachedNameMatches = TypeNameMatchCache.forSearch(pattern, null);
     }
 
     protected char[] extractArray(TypeReferencePattern pattern, String fieldName) {
@@ -275,6 +279,16 @@ public class TypeReferenceSearchRequestor implements ITypeRequestor {
     }
 
     private boolean qualifiedNameMatches(ClassNode type) {
+        String typeName = type.getName();
+        Boolean match = cachedNameMatches.get(typeName);
+        if (match == null) {
+            match = Boolean.valueOf(qualifiedNameMatches0(type));
+            cachedNameMatches.put(typeName, match);
+        }
+        return match.booleanValue();
+    }
+
+    private boolean qualifiedNameMatches0(ClassNode type) {
         String[] nameAndQualification = extractNameAndQualification(type);
         String name, qualification;
         qualification = nameAndQualification[0];
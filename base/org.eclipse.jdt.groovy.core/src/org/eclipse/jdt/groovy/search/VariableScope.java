@@ -268,6 +268,10 @@ public class VariableScope implements Iterable<VariableScope.VariableInfo> {
          * true iff current scope is implicit run method of script
          */
         boolean isRunMethod;
+        /**
+         * methods with type parameters resolved, by declaration and then by {@link GenericsMapper#getSignature()}
+         */
+        final Map<MethodNode, Map<String, MethodNode>> parameterizedMethods = new HashMap<MethodNode, Map<String, MethodNode>>();
     }
 
     /**
@@ -636,11 +640,34 @@ public class VariableScope implements Iterable<VariableScope.VariableInfo> {
         return unresolved;
     }
 
+    /**
+     * Resolves the type parameters of the method like {@link #resolveTypeParameterization(GenericsMapper, MethodNode)},
+     * but answers the same node for the same method and parameterization throughout the inference pass.  The
+     * answer is shared, so it must not be modified.
+     */
+    public MethodNode getParameterizedMethod(GenericsMapper mapper, MethodNode method) {
+        if (!mapper.hasGenerics()) {
+            return method;
+        }
+        Map<String, MethodNode> parameterizations = shared.parameterizedMethods.get(method);
+        if (parameterizations == null) {
+            parameterizations = new HashMap<String, MethodNode>(4);
+            shared.parameterizedMethods.put(method, parameterizations);
+        }
+        String signature = mapper.getSignature();
+        MethodNode resolved = parameterizations.get(signature);
+        if (resolved == null) {
+            resolved = resolveTypeParameterization(mapper, method);
+            parameterizations.put(signature, resolved);
+        }
+        return resolved;
+    }
+
     public static MethodNode resolveTypeParameterization(GenericsMapper mapper, MethodNode method) {
         if (mapper.hasGenerics() && (GroovyUtils.getGenericsTypes(method).length > 0 ||
                 GroovyUtils.getGenericsTypes(method.getDeclaringClass()).length > 0)) {
 
-            ClassNode returnType = resolveTypeParameterization(mapper, clone(method.getReturnType()));
+            ClassNode returnType = resolveTypeParameterization(mapper, cloneIfParameterized(method.getReturnType()));
 
             Parameter[] parameters = method.getParameters();
             if (parameters != null && parameters.length > 0) {
@@ -648,7 +675,7 @@ public class VariableScope implements Iterable<VariableScope.VariableInfo> {
                 parameters = new Parameter[n];
                 for (int i = 0; i < n; i += 1) {
                     Parameter original = method.getParameters()[i];
-                    ClassNode parameterType = resolveTypeParameterization(mapper, clone(original.getType()));
+                    ClassNode parameterType = resolveTypeParameterization(mapper, cloneIfParameterized(original.getType()));
                     parameters[i] = new Parameter(parameterType, original.getName(), original.getInitialExpression());
                     parameters[i].addAnnotations(original.getAnnotations());
                     parameters[i].setClosureSharedVariable(original.isClosureSharedVariable());
@@ -674,7 +701,7 @@ public class VariableScope implements Iterable<VariableScope.VariableInfo> {
                 resolved.addAnnotations(method.getAnnotations());
             }
             resolved.setAnnotationDefault(method.hasAnnotationDefault());
-            resolved.setDeclaringClass(resolveTypeParameterization(mapper, clone(method.getDeclaringClass())));
+            resolved.setDeclaringClass(resolveTypeParameterization(mapper, cloneIfParameterized(method.getDeclaringClass())));
             resolved.setGenericsTypes(method.getGenericsTypes()); // TODO: resolve?
             resolved.setHasNoRealSourcePosition(method.hasNoRealSourcePosition());
             resolved.copyNodeMetaData(method);
@@ -706,6 +733,17 @@ public class VariableScope implements Iterable<VariableScope.VariableInfo> {
         return cloneInternal(type, 0);
     }
 
+    /**
+     * Resolving type parameters changes only types that have generics, so the
+     * others need not be copied before they are resolved.
+     */
+    static ClassNode cloneIfParameterized(ClassNode type) {
+        if (type == null || GroovyUtils.getGenericsTypes(type).length == 0) {
+            return type;
+        }
+        return clone(type);
+    }
+
     public static ClassNode clonedMap() {
         ClassNode clone = clone(MAP_CLASS_NODE);
         cleanGenerics(clone.getGenericsTypes()[0]);
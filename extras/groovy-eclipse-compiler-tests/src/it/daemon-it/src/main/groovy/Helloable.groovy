@@ -0,0 +1,3 @@
+interface Helloable {
+	void sayHello()
+}
\ No newline at end of file
@@ -0,0 +1,5 @@
+public class JavaHello implements Helloable {
+	public void sayHello() {
+		System.out.println("Hello World from Java!");
+	}
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package p
+
+class GroovyGreeter extends JavaGreeter {
+	String greet() {
+		GREETING
+	}
+}
\ No newline at end of file
@@ -0,0 +1,5 @@
+package p
+
+class Obsolete {
+	def closure = { -> "obsolete" }
+}
\ No newline at end of file
@@ -0,0 +1,5 @@
+package p;
+
+public class Greeting {
+	public static final String TEXT = "first greeting";
+}
\ No newline at end of file
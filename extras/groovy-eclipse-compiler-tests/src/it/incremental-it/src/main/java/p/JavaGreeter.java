@@ -0,0 +1,6 @@
+package p;
+
+public class JavaGreeter {
+	// inlined, so only a recompile picks up a new greeting
+	public static final String GREETING = Greeting.TEXT + "!";
+}
\ No newline at end of file
@@ -0,0 +1,5 @@
+package p;
+
+public class Unrelated {
+	public static final String TEXT = "unrelated";
+}
\ No newline at end of file
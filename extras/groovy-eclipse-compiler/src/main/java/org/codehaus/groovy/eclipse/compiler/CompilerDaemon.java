@@ -0,0 +1,223 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.compiler;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.internal.compiler.batch.Main;
+
+/**
+ * Long-lived compiler process used when the <code>-daemon</code> compiler
+ * argument is given.  The daemon is started by {@link DaemonClient} with the
+ * groovy-eclipse-batch jar on its classpath and serves compile requests over a
+ * loopback socket, so the Groovy runtime and the JIT-compiled JDT compiler stay
+ * warm between modules and builds.
+ * <p>
+ * Requests are served one at a time; each one runs a fresh JDT batch
+ * {@link Main}.  The daemon exits after it has been idle for the configured
+ * number of minutes.  Only JRE and JDT classes may be used here, since the
+ * maven and plexus jars are not on the daemon's classpath.
+ * <p>
+ * Usage: <code>CompilerDaemon &lt;portFile&gt; &lt;idleMinutes&gt;</code>
+ */
+public class CompilerDaemon {
+
+    private final File portFile;
+
+    private final int idleMillis;
+
+    private final String secret;
+
+    CompilerDaemon(File portFile, int idleMinutes) {
+        this.portFile = portFile;
+        this.idleMillis = idleMinutes * 60 * 1000;
+        this.secret = Long.toHexString(new SecureRandom().nextLong());
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CompilerDaemon <portFile> <idleMinutes>");
+            System.exit(1);
+        }
+        new CompilerDaemon(new File(args[0]), Integer.parseInt(args[1])).serve();
+        System.exit(0);
+    }
+
+    void serve() throws IOException {
+        ServerSocket server = new ServerSocket(0, 50, InetAddress.getByName(null));
+        try {
+            server.setSoTimeout(idleMillis);
+            DaemonProtocol.writePortFile(portFile, server.getLocalPort(), secret);
+            while (true) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketTimeoutException e) {
+                    // idle for too long
+                    break;
+                }
+                try {
+                    handle(socket);
+                } catch (IOException e) {
+                    // client went away; keep serving others
+                } finally {
+                    socket.close();
+                }
+            }
+        } finally {
+            server.close();
+            DaemonProtocol.deletePortFile(portFile, server.getLocalPort());
+        }
+    }
+
+    private void handle(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+        int version = in.readInt();
+        String token = DaemonProtocol.readString(in);
+        if (version != DaemonProtocol.VERSION || !secret.equals(token)) {
+            out.writeBoolean(false);
+            out.flush();
+            return;
+        }
+        out.writeBoolean(true);
+        out.flush();
+
+        int argCount = in.readInt();
+        String[] args = new String[argCount];
+        for (int i = 0; i < argCount; i += 1) {
+            args[i] = DaemonProtocol.readString(in);
+        }
+        String baseDirectory = DaemonProtocol.readString(in);
+        if (baseDirectory.length() > 0) {
+            // the daemon keeps the working directory of the build that started it
+            args = resolveArguments(args, new File(baseDirectory));
+        }
+
+        StringWriter output = new StringWriter();
+        PrintWriter writer = new PrintWriter(output);
+        List<CompilerProblem> problems = Collections.emptyList();
+        boolean success;
+        int errors, warnings;
+        try {
+            Main main = new RecordingMain(writer, writer, null/* progress */);
+            problems = ProblemCollector.install(main, writer, writer).problems;
+            success = main.compile(args);
+            errors = main.globalErrorsCount;
+            warnings = main.globalWarningsCount;
+        } catch (RuntimeException e) {
+            output.append(e.toString());
+            success = false; errors = 1; warnings = 0;
+        } catch (LinkageError e) {
+            output.append(e.toString());
+            success = false; errors = 1; warnings = 0;
+        }
+
+        out.writeBoolean(success);
+        out.writeInt(errors);
+        out.writeInt(warnings);
+        CompilerProblem.writeAll(out, problems);
+        DaemonProtocol.writeString(out, output.toString());
+        out.flush();
+    }
+
+    /** options followed by a single path */
+    private static final Set<String> PATH_OPTIONS = new HashSet<String>(Arrays.asList(
+        "-d", "-s", "-log", "-properties", DependencyGraph.PARAM_NAME));
+
+    /** options followed by a list of paths */
+    private static final Set<String> PATH_LIST_OPTIONS = new HashSet<String>(Arrays.asList(
+        "-cp", "-classpath", "-sourcepath", "-bootclasspath", "-extdirs", "-endorseddirs", "-processorpath"));
+
+    /** options followed by a value that is not a path */
+    private static final Set<String> VALUE_OPTIONS = new HashSet<String>(Arrays.asList(
+        "-encoding", "-source", "-target", "-processor", "-repeat", "-maxProblems"));
+
+    /**
+     * Makes the paths in the compiler arguments absolute with respect to the
+     * given directory, as if the compiler had been started there.
+     */
+    static String[] resolveArguments(String[] args, File baseDirectory) {
+        String[] resolved = new String[args.length];
+        for (int i = 0; i < args.length; i += 1) {
+            String arg = args[i];
+            String option = arg.trim();
+            resolved[i] = arg;
+            if (i + 1 < args.length && (PATH_OPTIONS.contains(option) || PATH_LIST_OPTIONS.contains(option) || VALUE_OPTIONS.contains(option))) {
+                i += 1;
+                if (PATH_LIST_OPTIONS.contains(option)) {
+                    resolved[i] = resolvePathList(args[i], baseDirectory);
+                } else if (PATH_OPTIONS.contains(option) && !("-d".equals(option) && "none".equals(args[i]))) {
+                    resolved[i] = resolvePath(args[i], baseDirectory);
+                } else {
+                    resolved[i] = args[i];
+                }
+            } else if (arg.startsWith("@")) {
+                resolved[i] = "@" + resolvePath(arg.substring(1), baseDirectory);
+            } else if (!arg.startsWith("-")) {
+                // source file or directory
+                resolved[i] = resolvePath(arg, baseDirectory);
+            }
+        }
+        return resolved;
+    }
+
+    private static String resolvePathList(String paths, File baseDirectory) {
+        StringBuilder sb = new StringBuilder();
+        for (String path : paths.split(File.pathSeparator, -1)) {
+            if (sb.length() > 0) {
+                sb.append(File.pathSeparatorChar);
+            }
+            // keep access rules and destination suffixes, such as "lib.jar[-d out]"
+            int suffix = path.indexOf('[');
+            if (suffix > 0) {
+                sb.append(resolvePath(path.substring(0, suffix), baseDirectory)).append(path.substring(suffix));
+            } else if (path.length() > 0) {
+                sb.append(resolvePath(path, baseDirectory));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String resolvePath(String path, File baseDirectory) {
+        boolean quoted = path.length() > 1 && path.startsWith("\"") && path.endsWith("\"");
+        String unquoted = quoted ? path.substring(1, path.length() - 1) : path;
+        File file = new File(unquoted);
+        if (unquoted.length() == 0 || file.isAbsolute()) {
+            return path;
+        }
+        String absolute = new File(baseDirectory, unquoted).getPath();
+        return quoted ? "\"" + absolute + "\"" : absolute;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.compiler;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A problem reported by the batch compiler, captured straight from its
+ * compilation results instead of being scraped from the textual output.
+ * Only depends on the JRE, so it can be passed back from a forked compiler
+ * or a {@link CompilerDaemon}.
+ */
+final class CompilerProblem {
+
+    static final int ERROR = 0;
+    static final int WARNING = 1;
+    static final int TASK = 2;
+
+    final String file;
+    final int severity;
+    final int line;
+    final int startColumn;
+    final int endColumn;
+    final String message;
+
+    CompilerProblem(String file, int severity, int line, int startColumn, int endColumn, String message) {
+        this.file = file;
+        this.severity = severity;
+        this.line = line;
+        this.startColumn = startColumn;
+        this.endColumn = endColumn;
+        this.message = message;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        DaemonProtocol.writeString(out, file);
+        out.writeInt(severity);
+        out.writeInt(line);
+        out.writeInt(startColumn);
+        out.writeInt(endColumn);
+        DaemonProtocol.writeString(out, message);
+    }
+
+    static CompilerProblem read(DataInputStream in) throws IOException {
+        String file = DaemonProtocol.readString(in);
+        int severity = in.readInt();
+        int line = in.readInt();
+        int startColumn = in.readInt();
+        int endColumn = in.readInt();
+        String message = DaemonProtocol.readString(in);
+        return new CompilerProblem(file, severity, line, startColumn, endColumn, message);
+    }
+
+    static void writeAll(DataOutputStream out, List<CompilerProblem> problems) throws IOException {
+        out.writeInt(problems.size());
+        for (CompilerProblem problem : problems) {
+            problem.write(out);
+        }
+    }
+
+    static List<CompilerProblem> readAll(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<CompilerProblem> problems = new ArrayList<CompilerProblem>(count);
+        for (int i = 0; i < count; i += 1) {
+            problems.add(read(in));
+        }
+        return problems;
+    }
+}
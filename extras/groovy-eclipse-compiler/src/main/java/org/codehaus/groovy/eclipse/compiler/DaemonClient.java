@@ -0,0 +1,225 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.compiler;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.codehaus.groovy.eclipse.compiler.InternalCompiler.Result;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.util.StringUtils;
+
+/**
+ * Connects to (and if necessary starts) a {@link CompilerDaemon} for the
+ * current compiler classpath.  Daemons are keyed by a fingerprint of the
+ * java executable, the groovy-eclipse-batch jar and this plugin's jar, so a
+ * build using a different compiler version never talks to a stale daemon.
+ * <p>
+ * IMPORTANT!!! like {@link GroovyEclipseCompiler}, this class must not
+ * reference any JDT classes directly.
+ */
+class DaemonClient {
+
+    private static final int IDLE_MINUTES = 30;
+
+    private static final long STARTUP_TIMEOUT = 30000;
+
+    private final Logger logger;
+
+    private final String executable;
+
+    private final String classpath;
+
+    private final String maxmem;
+
+    private final File portFile;
+
+    /** port and secret of the daemon that {@link #connect()} last reached */
+    private int port;
+
+    private String secret;
+
+    DaemonClient(Logger logger, String executable, String groovyEclipseLocation, String compilerLocation, String maxmem) {
+        this.logger = logger;
+        this.executable = executable;
+        this.classpath = groovyEclipseLocation + File.pathSeparator + compilerLocation;
+        this.maxmem = maxmem;
+        this.portFile = new File(getDaemonDirectory(), fingerprint(executable, maxmem,
+                groovyEclipseLocation, compilerLocation) + ".port");
+    }
+
+    /**
+     * Compiles using a daemon, starting one if none is running.
+     *
+     * @param baseDirectory directory that relative paths in the arguments are
+     *        resolved against, or <code>null</code> for the daemon's own
+     * @return the result of the compile, or <code>null</code> if no daemon could be reached
+     */
+    Result compile(String[] args, File baseDirectory, StringWriter out) {
+        Socket socket = connect();
+        if (socket == null) {
+            logger.info("Starting groovy-eclipse compiler daemon");
+            if (!startDaemon()) {
+                return null;
+            }
+            socket = connect();
+            if (socket == null) {
+                return null;
+            }
+        }
+        try {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+            output.writeInt(DaemonProtocol.VERSION);
+            DaemonProtocol.writeString(output, secret);
+            output.flush();
+            if (!input.readBoolean()) {
+                logger.warn("Compiler daemon rejected the request");
+                return null;
+            }
+
+            output.writeInt(args.length);
+            for (String arg : args) {
+                DaemonProtocol.writeString(output, arg);
+            }
+            DaemonProtocol.writeString(output, baseDirectory != null ? baseDirectory.getAbsolutePath() : "");
+            output.flush();
+
+            boolean success = input.readBoolean();
+            int errors = input.readInt();
+            int warnings = input.readInt();
+            List<CompilerProblem> problems = CompilerProblem.readAll(input);
+            out.write(DaemonProtocol.readString(input));
+            return new Result(success, errors, warnings, problems);
+        } catch (IOException e) {
+            logger.warn("Lost connection to the compiler daemon", e);
+            return null;
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * @return the port of the daemon that served the last compile
+     */
+    int getPort() {
+        return port;
+    }
+
+    private Socket connect() {
+        String[] contents = DaemonProtocol.readPortFile(portFile);
+        if (contents == null) {
+            return null;
+        }
+        try {
+            port = Integer.parseInt(contents[0]);
+            secret = contents[1];
+            return new Socket(InetAddress.getByName(null), port);
+        } catch (IOException e) {
+            // daemon has died without cleaning up
+            portFile.delete();
+            return null;
+        } catch (NumberFormatException e) {
+            portFile.delete();
+            return null;
+        }
+    }
+
+    private boolean startDaemon() {
+        portFile.getParentFile().mkdirs();
+        List<String> command = new ArrayList<String>();
+        command.add(executable);
+        if (!StringUtils.isEmpty(maxmem)) {
+            command.add("-Xmx" + maxmem);
+        }
+        command.add("-cp");
+        command.add(classpath);
+        command.add("org.codehaus.groovy.eclipse.compiler.CompilerDaemon");
+        command.add(portFile.getAbsolutePath());
+        command.add(String.valueOf(IDLE_MINUTES));
+
+        try {
+            Process process = new ProcessBuilder(command).start();
+            // the daemon does not write to its standard streams
+            process.getOutputStream().close();
+            process.getInputStream().close();
+            process.getErrorStream().close();
+        } catch (IOException e) {
+            logger.warn("Unable to start the compiler daemon", e);
+            return false;
+        }
+
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT;
+        while (System.currentTimeMillis() < deadline) {
+            if (DaemonProtocol.readPortFile(portFile) != null) {
+                return true;
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        logger.warn("Timed out waiting for the compiler daemon to start");
+        return false;
+    }
+
+    private static File getDaemonDirectory() {
+        return new File(System.getProperty("java.io.tmpdir"), "groovy-eclipse-daemon-" + System.getProperty("user.name"));
+    }
+
+    private static String fingerprint(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            for (String part : parts) {
+                if (part != null) {
+                    digest.update(part.getBytes("UTF-8"));
+                    File file = new File(part);
+                    if (file.isFile()) {
+                        digest.update(String.valueOf(file.lastModified() + ":" + file.length()).getBytes("UTF-8"));
+                    }
+                }
+                digest.update((byte) 0);
+            }
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest()) {
+                sb.append(Integer.toHexString((b & 0xFF) | 0x100).substring(1));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
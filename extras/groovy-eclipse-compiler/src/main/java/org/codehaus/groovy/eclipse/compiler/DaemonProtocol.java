@@ -0,0 +1,106 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.compiler;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Wire format shared by {@link DaemonClient} and {@link CompilerDaemon}.
+ * Only depends on the JRE, since the daemon runs without the maven or plexus
+ * jars on its classpath.
+ * <p>
+ * A request is the protocol version, the daemon's secret, the compiler
+ * arguments and the directory that relative paths are resolved against
+ * (empty for the daemon's working directory); the reply is the success flag, the error and warning counts,
+ * the {@link CompilerProblem}s and the remaining textual compiler output.
+ * The daemon advertises its port and secret in a port file that only the
+ * current user can read.
+ */
+final class DaemonProtocol {
+
+    static final int VERSION = 4;
+
+    private DaemonProtocol() {}
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes("UTF-8");
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+
+    static void writePortFile(File portFile, int port, String secret) throws IOException {
+        File temp = new File(portFile.getPath() + ".tmp");
+        temp.delete();
+        Writer writer = new OutputStreamWriter(new FileOutputStream(temp), "UTF-8");
+        try {
+            temp.setReadable(false, false);
+            temp.setReadable(true, true);
+            writer.write(port + " " + secret);
+        } finally {
+            writer.close();
+        }
+        portFile.delete();
+        if (!temp.renameTo(portFile)) {
+            throw new IOException("Unable to write " + portFile);
+        }
+    }
+
+    /**
+     * Removes the port file, unless it has since been taken over by another daemon.
+     */
+    static void deletePortFile(File portFile, int port) {
+        String[] contents = readPortFile(portFile);
+        if (contents != null && contents[0].equals(String.valueOf(port))) {
+            portFile.delete();
+        }
+    }
+
+    /**
+     * @return port and secret, or <code>null</code> if no usable port file exists
+     */
+    static String[] readPortFile(File portFile) {
+        if (!portFile.isFile()) {
+            return null;
+        }
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(portFile), "UTF-8"));
+            try {
+                String line = reader.readLine();
+                String[] contents = line != null ? line.trim().split(" ") : new String[0];
+                return contents.length == 2 ? contents : null;
+            } finally {
+                reader.close();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.compiler;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The class files written for, and the type names referenced by, every source
+ * compiled into an output directory.  The compiler records an {@link Entry}
+ * for each source it compiles (see <code>RecordingMain</code>); the entries
+ * are merged into the graph after every build, so that the next build can
+ * find the sources that depend on the ones that changed and the class files
+ * that no longer have a source.
+ * <p>
+ * Sources are keyed by canonical path, as the batch compiler names them.  The
+ * graph lives next to the {@link SourceHashManifest}, so a <code>mvn clean</code>
+ * removes it along with the class files.  Only JRE classes may be used here.
+ */
+class DependencyGraph {
+
+    /** argument that asks the compiler to write its entries to the file that follows */
+    static final String PARAM_NAME = "-dependencyFile";
+
+    private static final int VERSION = 1;
+
+    /**
+     * What the compiler recorded for one source file.
+     */
+    static class Entry {
+        final String source;
+        /** class files written for the source, relative to the output directory and without ".class" (e.g. "p/A$B") */
+        final List<String> classFiles;
+        /** qualified names (packages and types) referenced by the source, '/' separated */
+        final Set<String> qualifiedReferences;
+        /** simple names referenced by the source */
+        final Set<String> simpleReferences;
+
+        Entry(String source, List<String> classFiles, Set<String> qualifiedReferences, Set<String> simpleReferences) {
+            this.source = source;
+            this.classFiles = classFiles;
+            this.qualifiedReferences = qualifiedReferences;
+            this.simpleReferences = simpleReferences;
+        }
+
+        /**
+         * @return names of the top-level types defined by the source, '/' separated (e.g. "p/A")
+         */
+        List<String> getTypeNames() {
+            List<String> names = new ArrayList<String>(classFiles.size());
+            for (String classFile : classFiles) {
+                if (classFile.indexOf('$') < 0) {
+                    names.add(classFile);
+                }
+            }
+            return names;
+        }
+
+        /**
+         * Tells whether the source may refer to the named top-level type.  Like
+         * the incremental builder, this requires that the simple name and the
+         * package both be referenced.  A <code>null</code> package stands for
+         * any package.
+         */
+        boolean mayReference(String packageName, String simpleName) {
+            return simpleReferences.contains(simpleName) && (packageName == null ||
+                packageName.length() == 0 || qualifiedReferences.contains(packageName));
+        }
+    }
+
+    private final File file;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>();
+
+    private DependencyGraph(File file) throws IOException {
+        this.file = file;
+        if (file.isFile()) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                for (Entry entry : readEntries(in)) {
+                    entries.put(entry.source, entry);
+                }
+            } finally {
+                in.close();
+            }
+        }
+    }
+
+    static DependencyGraph forOutputDirectory(File outputDirectory) throws IOException {
+        File dir = new File(outputDirectory.getAbsoluteFile().getParentFile(), "groovy-eclipse-compiler");
+        return new DependencyGraph(new File(dir, outputDirectory.getName() + ".deps"));
+    }
+
+    static String key(File source) {
+        try {
+            return source.getCanonicalPath();
+        } catch (IOException e) {
+            return source.getAbsolutePath();
+        }
+    }
+
+    Entry get(String source) {
+        return entries.get(source);
+    }
+
+    void put(Entry entry) {
+        entries.put(entry.source, entry);
+    }
+
+    Entry remove(String source) {
+        return entries.remove(source);
+    }
+
+    Set<String> getSources() {
+        return entries.keySet();
+    }
+
+    /**
+     * Finds the sources that may be affected by changes to the given sources:
+     * those that reference a type the changed sources defined (or, for sources
+     * that are new to the graph, a type named after the file), and then those
+     * that reference a type of an affected source, and so on.
+     *
+     * @param changed keys of sources that were changed, added or removed
+     * @return keys of the affected sources, not including the changed ones
+     */
+    Set<String> findAffectedSources(Collection<String> changed) {
+        Set<String> affected = new HashSet<String>();
+        List<String> pending = new ArrayList<String>(changed);
+        Set<String> visited = new HashSet<String>(changed);
+        while (!pending.isEmpty()) {
+            // (package, simple name) pairs of the types whose dependents are affected
+            List<String[]> types = new ArrayList<String[]>();
+            for (String source : pending) {
+                Entry entry = entries.get(source);
+                if (entry != null) {
+                    for (String typeName : entry.getTypeNames()) {
+                        int slash = typeName.lastIndexOf('/');
+                        types.add(new String[] {slash < 0 ? "" : typeName.substring(0, slash), typeName.substring(slash + 1)});
+                    }
+                }
+                // types may have been added to the source, and are probably named after it
+                String name = new File(source).getName();
+                int dot = name.lastIndexOf('.');
+                types.add(new String[] {null, dot < 0 ? name : name.substring(0, dot)});
+            }
+            pending = new ArrayList<String>();
+            for (Entry entry : entries.values()) {
+                if (!visited.contains(entry.source)) {
+                    for (String[] type : types) {
+                        if (entry.mayReference(type[0], type[1])) {
+                            visited.add(entry.source);
+                            affected.add(entry.source);
+                            pending.add(entry.source);
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return affected;
+    }
+
+    void save() throws IOException {
+        file.getParentFile().mkdirs();
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            writeEntries(out, entries.values());
+        } finally {
+            out.close();
+        }
+    }
+
+    void delete() {
+        entries.clear();
+        file.delete();
+    }
+
+    //--------------------------------------------------------------------------
+
+    static void writeEntries(DataOutputStream out, Collection<Entry> entries) throws IOException {
+        out.writeInt(VERSION);
+        out.writeInt(entries.size());
+        for (Entry entry : entries) {
+            out.writeUTF(entry.source);
+            writeStrings(out, entry.classFiles);
+            writeStrings(out, entry.qualifiedReferences);
+            writeStrings(out, entry.simpleReferences);
+        }
+    }
+
+    /**
+     * @return the entries, or an empty list if they were written in another format
+     */
+    static List<Entry> readEntries(DataInputStream in) throws IOException {
+        if (in.readInt() != VERSION) {
+            return new ArrayList<Entry>();
+        }
+        int count = in.readInt();
+        List<Entry> entries = new ArrayList<Entry>(count);
+        for (int i = 0; i < count; i += 1) {
+            String source = in.readUTF();
+            List<String> classFiles = new ArrayList<String>();
+            readStrings(in, classFiles);
+            Set<String> qualifiedReferences = new HashSet<String>();
+            readStrings(in, qualifiedReferences);
+            Set<String> simpleReferences = new HashSet<String>();
+            readStrings(in, simpleReferences);
+            entries.add(new Entry(source, classFiles, qualifiedReferences, simpleReferences));
+        }
+        return entries;
+    }
+
+    private static void writeStrings(DataOutputStream out, Collection<String> strings) throws IOException {
+        out.writeInt(strings.size());
+        for (String string : strings) {
+            out.writeUTF(string);
+        }
+    }
+
+    private static void readStrings(DataInputStream in, Collection<String> strings) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i += 1) {
+            strings.add(in.readUTF());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.compiler;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import org.eclipse.jdt.internal.compiler.batch.Main;
+
+/**
+ * Entry point of the forked compiler process.  Runs the batch compiler like
+ * <code>java -jar groovy-eclipse-batch.jar</code> would, but writes the
+ * compiler problems to a file in binary form so that the maven process does
+ * not have to parse them out of the console output.
+ * <p>
+ * Usage: <code>ForkedCompiler &lt;problemsFile&gt; &lt;compiler arguments...&gt;</code>
+ * <p>
+ * Only JRE and JDT classes may be used here.
+ */
+public class ForkedCompiler {
+
+    public static void main(String[] args) throws IOException {
+        String[] compilerArgs = new String[args.length - 1];
+        System.arraycopy(args, 1, compilerArgs, 0, compilerArgs.length);
+
+        PrintWriter out = new PrintWriter(System.out);
+        PrintWriter err = new PrintWriter(System.err);
+        Main main = new RecordingMain(out, err, null/* progress */);
+        ProblemCollector collector = ProblemCollector.install(main, out, err);
+        boolean success = main.compile(compilerArgs);
+        out.flush();
+        err.flush();
+
+        DataOutputStream problems = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(args[0])));
+        try {
+            CompilerProblem.writeAll(problems, collector.problems);
+        } finally {
+            problems.close();
+        }
+        System.exit(success ? 0 : 1);
+    }
+}
@@ -12,7 +12,10 @@
  *******************************************************************************/
 package org.codehaus.groovy.eclipse.compiler;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
@@ -25,6 +28,7 @@ import java.security.ProtectionDomain;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -42,6 +46,7 @@ import org.codehaus.plexus.compiler.CompilerResult;
 import org.codehaus.plexus.compiler.CompilerMessage.Kind;
 import org.codehaus.plexus.compiler.CompilerOutputStyle;
 import org.codehaus.plexus.compiler.util.scan.InclusionScanException;
+import org.codehaus.plexus.compiler.util.scan.SimpleSourceInclusionScanner;
 import org.codehaus.plexus.compiler.util.scan.SourceInclusionScanner;
 import org.codehaus.plexus.compiler.util.scan.StaleSourceScanner;
 import org.codehaus.plexus.compiler.util.scan.mapping.SourceMapping;
@@ -72,10 +77,33 @@ public class GroovyEclipseCompiler extends AbstractCompiler {
 
     private static final String JAVA_AGENT_CLASS_PARAM_NAME = "-javaAgentClass";
 
+    private static final String DAEMON_PARAM_NAME = "-daemon";
+
     private String javaAgentClass = "";
 
     boolean verbose;
 
+    /**
+     * set when the <code>-daemon</code> compiler argument is given; compiles
+     * are then sent to a long-lived {@link CompilerDaemon} process
+     */
+    boolean useDaemon;
+
+    /** content hashes of the output directory's sources, or <code>null</code> if unavailable */
+    private SourceHashManifest manifest;
+
+    /** current content hash of every source in the build */
+    private Map<File,String> sourceHashes = Collections.emptyMap();
+
+    /** references and class files of the output directory's sources, or <code>null</code> if unavailable */
+    private DependencyGraph dependencies;
+
+    /** time at which the current compile started */
+    private long compileTime;
+
+    /** class files written within this many milliseconds before a compile are taken to be from it (file systems round times) */
+    private static final long TIMESTAMP_GRANULARITY = 2000;
+
     public GroovyEclipseCompiler() {
         // here is a bit of a hack. maven only wants a single file extension
         // for sources, so we pass it "". Later, we must recalculate for real.
@@ -105,32 +133,48 @@ public class GroovyEclipseCompiler extends AbstractCompiler {
     }
 
     private boolean internalCompile(CompilerConfiguration config, List<CompilerMessage> messages) throws CompilerException {
+        compileTime = System.currentTimeMillis();
 
         String[] args = createCommandLine(config);
         if (args.length == 0) {
             getLogger().info("Nothing to compile - all classes are up to date");
+            updateManifest(true, Collections.<File>emptySet());
+            updateDependencies(null);
             return true;
         }
 
-        boolean success;
-        if (config.isFork()) {
-            String executable = config.getExecutable();
-
-            if (StringUtils.isEmpty(executable)) {
-                try {
-                    executable = getJavaExecutable();
-                } catch (IOException e) {
-                    getLogger().warn("Unable to autodetect 'java' path, using 'java' from the environment.");
-                    executable = "java";
-                }
+        // asks the compiler to record the references of the sources it compiles
+        String[] recordingArgs = new String[0];
+        File dependencyFile = null;
+        if (dependencies != null) {
+            try {
+                dependencyFile = File.createTempFile(GroovyEclipseCompiler.class.getName(), "dependencies");
+                dependencyFile.deleteOnExit();
+                recordingArgs = new String[] {DependencyGraph.PARAM_NAME, dependencyFile.getAbsolutePath()};
+            } catch (IOException e) {
+                getLogger().warn("Unable to record source dependencies; the next build may compile all sources", e);
             }
+        }
 
+        boolean success;
+        boolean forkAgent = false;
+        if (useDaemon && !StringUtils.isEmpty(javaAgentClass)) {
+            // the daemon cannot take on a java agent after it has started
+            getLogger().info("A javaAgentClass is set; compiling in a forked process instead of the compiler daemon");
+            forkAgent = true;
+        }
+        Result daemonResult = useDaemon && !forkAgent ? compileInDaemon(config, concat(recordingArgs, args), messages) : null;
+        if (daemonResult != null) {
+            success = daemonResult.success;
+        } else if (config.isFork() || forkAgent) {
+            String executable = getExecutable(config);
             String groovyEclipseLocation = getGroovyEclipseBatchLocation();
-            success = compileOutOfProcess(config, executable, groovyEclipseLocation, args, messages);
+            success = compileOutOfProcess(config, executable, groovyEclipseLocation, recordingArgs, args, messages);
         } else {
             StringWriter out = new StringWriter();
-            Result result = InternalCompiler.doCompile(args, out, getLogger(), verbose);
+            Result result = InternalCompiler.doCompile(concat(recordingArgs, args), out, getLogger(), verbose);
             success = result.success;
+            messages.addAll(toCompilerMessages(result.problems, config.isShowWarnings()));
             try {
                 messages.addAll(parseMessages(success ? 0 : 1, out.getBuffer().toString(), config.isShowWarnings()));
             } catch (IOException e) {
@@ -141,24 +185,309 @@ public class GroovyEclipseCompiler extends AbstractCompiler {
                 messages.add(formatResult(success, result.globalErrorsCount, result.globalWarningsCount));
             }
         }
+        updateManifest(success, config.getSourceFiles());
+        updateDependencies(dependencyFile);
         return success;
     }
 
+    private static String[] concat(String[] first, String[] second) {
+        String[] result = new String[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    /**
+     * Records the hashes of the sources that are now up to date.  Sources of a
+     * failed compile are forgotten, so that they are compiled again next time.
+     */
+    private void updateManifest(boolean success, Set<File> compiledSources) {
+        if (manifest == null) {
+            return;
+        }
+        manifest.retainAll(sourceHashes.keySet());
+        for (Map.Entry<File,String> entry : sourceHashes.entrySet()) {
+            if (compiledSources.contains(entry.getKey())) {
+                if (success) {
+                    manifest.put(entry.getKey(), entry.getValue(), compileTime);
+                } else {
+                    manifest.remove(entry.getKey());
+                }
+            } else if (!manifest.contains(entry.getKey())) {
+                // up to date by timestamp; the time of its compile is unknown
+                manifest.put(entry.getKey(), entry.getValue(), 0);
+            }
+        }
+        try {
+            manifest.save();
+        } catch (IOException e) {
+            getLogger().warn("Unable to save source hashes; all sources will be considered stale", e);
+        }
+    }
+
+    /**
+     * Merges the entries recorded by the compiler into the dependency graph.
+     * The graph loses the entries of compiled sources that the compiler did
+     * not record (for example because it stopped early), so the next build
+     * compiles everything if one of them is unchanged.
+     *
+     * @param dependencyFile file written by the compiler, or <code>null</code>
+     *        if nothing was compiled or nothing was recorded
+     */
+    private void updateDependencies(File dependencyFile) {
+        if (dependencies == null) {
+            return;
+        }
+        try {
+            if (dependencyFile != null && dependencyFile.length() > 0) {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(dependencyFile)));
+                try {
+                    for (DependencyGraph.Entry entry : DependencyGraph.readEntries(in)) {
+                        dependencies.put(entry);
+                    }
+                } finally {
+                    in.close();
+                }
+            }
+            dependencies.save();
+        } catch (IOException e) {
+            getLogger().warn("Unable to save source dependencies; the next build will compile all sources", e);
+            dependencies.delete();
+        } finally {
+            if (dependencyFile != null) {
+                dependencyFile.delete();
+            }
+        }
+    }
+
+    private List<CompilerMessage> toCompilerMessages(List<CompilerProblem> problems, boolean showWarnings) {
+        List<CompilerMessage> converted = new ArrayList<CompilerMessage>(problems.size());
+        for (CompilerProblem problem : problems) {
+            Kind kind;
+            switch (problem.severity) {
+            case CompilerProblem.ERROR:
+                kind = Kind.ERROR;
+                break;
+            case CompilerProblem.WARNING:
+                kind = Kind.WARNING;
+                break;
+            default:
+                kind = Kind.NOTE;
+            }
+            if (showWarnings || kind == Kind.ERROR) {
+                converted.add(new CompilerMessage(problem.file, kind, problem.line, problem.startColumn,
+                        problem.line, problem.endColumn, problem.message));
+            }
+        }
+        return converted;
+    }
+
+    private String getExecutable(CompilerConfiguration config) {
+        String executable = config.getExecutable();
+        if (StringUtils.isEmpty(executable)) {
+            try {
+                executable = getJavaExecutable();
+            } catch (IOException e) {
+                getLogger().warn("Unable to autodetect 'java' path, using 'java' from the environment.");
+                executable = "java";
+            }
+        }
+        return executable;
+    }
+
+    /**
+     * Compiles in a shared daemon process, which is started if necessary.
+     *
+     * @return <code>null</code> if the daemon could not be used, in which case
+     *         the caller should compile in the usual way
+     */
+    private Result compileInDaemon(CompilerConfiguration config, String[] args, List<CompilerMessage> messages) throws CompilerException {
+        DaemonClient client = new DaemonClient(getLogger(), getExecutable(config), getGroovyEclipseBatchLocation(),
+                getClassLocation(GroovyEclipseCompiler.class.getName()), config.getMaxmem());
+
+        long start = System.currentTimeMillis();
+        StringWriter out = new StringWriter();
+        Result result = client.compile(args, config.getWorkingDirectory(), out);
+        if (result == null) {
+            getLogger().warn("Compiler daemon is not available; falling back to " + (config.isFork() ? "forked" : "in-process") + " compilation");
+            return null;
+        }
+        getLogger().info("Compiled in daemon process on port " + client.getPort() + " in " + (System.currentTimeMillis() - start) + "ms");
+
+        messages.addAll(toCompilerMessages(result.problems, config.isShowWarnings()));
+        try {
+            messages.addAll(parseMessages(result.success ? 0 : 1, out.getBuffer().toString(), config.isShowWarnings()));
+        } catch (IOException e) {
+            // ignore
+        }
+        if (!result.success) {
+            messages.add(formatResult(result.success, result.globalErrorsCount, result.globalWarningsCount));
+        }
+        return result;
+    }
+
     private File[] recalculateStaleFiles(CompilerConfiguration config) throws CompilerException {
         config.setSourceFiles(null);
-        long staleMillis = 0; // can we do better than using 0?
         Set<String> includes = config.getIncludes();
         if (includes == null || includes.isEmpty()) {
             includes = Collections.singleton("**/*");
         }
-        StaleSourceScanner scanner = new StaleSourceScanner(staleMillis, includes, config.getExcludes());
-        Set<File> staleSources = computeStaleSources(config, scanner);
+
+        try {
+            manifest = SourceHashManifest.forOutputDirectory(new File(config.getOutputLocation()));
+        } catch (IOException e) {
+            getLogger().warn("Unable to read source hashes; using timestamps to find stale sources", e);
+            manifest = null;
+        }
+
+        Set<File> staleSources;
+        if (manifest == null || !manifest.exists()) {
+            // nothing known about the contents of the last build
+            long staleMillis = 0;
+            StaleSourceScanner scanner = new StaleSourceScanner(staleMillis, includes, config.getExcludes());
+            staleSources = computeStaleSources(config, scanner);
+        } else {
+            staleSources = new HashSet<File>();
+        }
+
+        sourceHashes = new HashMap<File,String>();
+        if (manifest != null) {
+            File outputDirectory = new File(config.getOutputLocation());
+            try {
+                dependencies = DependencyGraph.forOutputDirectory(outputDirectory);
+            } catch (IOException e) {
+                getLogger().warn("Unable to read source dependencies; compiling changed sources only", e);
+                dependencies = null;
+            }
+
+            SimpleSourceInclusionScanner scanner = new SimpleSourceInclusionScanner(includes, config.getExcludes());
+            for (File source : computeStaleSources(config, scanner)) {
+                String hash;
+                try {
+                    hash = SourceHashManifest.hash(source);
+                } catch (IOException e) {
+                    throw new CompilerException("Error reading source file: " + source, e);
+                }
+                sourceHashes.put(source, hash);
+                if (manifest.exists() && (!manifest.isUnchanged(source, hash) ||
+                        !isOutputCurrent(config, source, manifest.getCompileTime(source)))) {
+                    staleSources.add(source);
+                }
+            }
+
+            if (dependencies != null) {
+                staleSources = addAffectedSources(staleSources, outputDirectory);
+            }
+        } else {
+            dependencies = null;
+        }
         config.setSourceFiles(staleSources);
 
         File[] sourceFiles = staleSources.toArray(new File[0]);
         return sourceFiles;
     }
 
+    /**
+     * Tells whether the class files of an unchanged source are all present and
+     * were written by the compile that the manifest recorded for it.  The class
+     * files are those recorded in the dependency graph or, if these are not
+     * known, the one named after the source.
+     */
+    private boolean isOutputCurrent(CompilerConfiguration config, File source, long compileTime) {
+        File outputDirectory = new File(config.getOutputLocation());
+        List<File> classFiles = new ArrayList<File>();
+        DependencyGraph.Entry entry = dependencies != null ? dependencies.get(DependencyGraph.key(source)) : null;
+        if (entry != null) {
+            for (String classFile : entry.classFiles) {
+                classFiles.add(new File(outputDirectory, classFile.replace('/', File.separatorChar) + ".class"));
+            }
+        } else {
+            String sourcePath = source.getAbsolutePath();
+            for (String sourceRoot : config.getSourceLocations()) {
+                String rootPath = new File(sourceRoot).getAbsolutePath() + File.separator;
+                if (sourcePath.startsWith(rootPath)) {
+                    String relativePath = sourcePath.substring(rootPath.length());
+                    int dot = relativePath.lastIndexOf('.');
+                    classFiles.add(new File(outputDirectory, (dot < 0 ? relativePath : relativePath.substring(0, dot)) + ".class"));
+                    break;
+                }
+            }
+        }
+        for (File classFile : classFiles) {
+            long lastModified = classFile.lastModified();
+            if (lastModified == 0 || lastModified < compileTime - TIMESTAMP_GRANULARITY) {
+                if (verbose) {
+                    getLogger().info("Output of " + source + " is missing or out of date: " + classFile);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the sources that may depend on a changed, added or removed source
+     * to the stale ones, and deletes the class files last written for the
+     * sources to compile and for the removed sources, so that no stale class
+     * file can satisfy a reference while compiling.  Compiles all sources
+     * when the dependencies of an unchanged source were not recorded.
+     */
+    private Set<File> addAffectedSources(Set<File> staleSources, File outputDirectory) {
+        Map<String,File> sources = new HashMap<String,File>();
+        for (File source : sourceHashes.keySet()) {
+            sources.put(DependencyGraph.key(source), source);
+        }
+        Set<String> changed = new HashSet<String>();
+        for (File source : staleSources) {
+            changed.add(DependencyGraph.key(source));
+        }
+        for (String source : dependencies.getSources()) {
+            if (!sources.containsKey(source)) {
+                changed.add(source);
+            }
+        }
+        if (changed.isEmpty()) {
+            return staleSources;
+        }
+
+        Set<File> compile = new HashSet<File>(staleSources);
+        boolean complete = true;
+        for (String source : sources.keySet()) {
+            if (!changed.contains(source) && dependencies.get(source) == null) {
+                complete = false;
+                break;
+            }
+        }
+        if (complete) {
+            for (String source : dependencies.findAffectedSources(changed)) {
+                File file = sources.get(source);
+                if (file != null) {
+                    compile.add(file);
+                }
+            }
+            if (verbose) {
+                getLogger().info((compile.size() - staleSources.size()) + " source(s) depend on the " + changed.size() + " changed source(s)");
+            }
+        } else {
+            getLogger().info("Source dependencies are unknown; compiling all sources");
+            compile.addAll(sources.values());
+        }
+
+        Set<String> obsolete = new HashSet<String>(changed);
+        for (File source : compile) {
+            obsolete.add(DependencyGraph.key(source));
+        }
+        for (String source : obsolete) {
+            DependencyGraph.Entry entry = dependencies.remove(source);
+            if (entry != null) {
+                for (String classFile : entry.classFiles) {
+                    new File(outputDirectory, classFile.replace('/', File.separatorChar) + ".class").delete();
+                }
+            }
+        }
+        return compile;
+    }
+
     private boolean startsWithHyphen(Object key) {
         return null != key && String.class.isInstance(key) && ((String) key).startsWith("-");
     }
@@ -307,10 +636,15 @@ public class GroovyEclipseCompiler extends AbstractCompiler {
             args.put("-encoding", config.getSourceEncoding());
         }
 
+        useDaemon = false;
         for (Entry<String, String> entry : config.getCustomCompilerArgumentsAsMap().entrySet()) {
 
             String key = entry.getKey();
-            if (startsWithHyphen(key)) {
+            if (DAEMON_PARAM_NAME.equals(key) || DAEMON_PARAM_NAME.equals("-" + key)) {
+                // not a batch compiler option; selects daemon mode
+                useDaemon = true;
+                continue;
+            } else if (startsWithHyphen(key)) {
                 if (JAVA_AGENT_CLASS_PARAM_NAME.equals(key)) {
                     setJavaAgentClass(entry.getValue());
                     // do not add the custom java agent arg because it is not
@@ -384,6 +718,8 @@ public class GroovyEclipseCompiler extends AbstractCompiler {
      *            compiler configuration
      * @param executable
      *            name of the executable to launch
+     * @param recordingArgs
+     *            arguments for recording source dependencies, if any
      * @param args
      *            arguments for the executable launched
      * @param messages2
@@ -391,21 +727,29 @@ public class GroovyEclipseCompiler extends AbstractCompiler {
      * @throws CompilerException
      */
     private boolean compileOutOfProcess(CompilerConfiguration config, String executable, String groovyEclipseLocation,
-            String[] args, List<CompilerMessage> messages) throws CompilerException {
+            String[] recordingArgs, String[] args, List<CompilerMessage> messages) throws CompilerException {
 
         Commandline cli = new Commandline();
         cli.setWorkingDirectory(config.getWorkingDirectory().getAbsolutePath());
         cli.setExecutable(executable);
 
+        File problemsFile;
+
         try {
-            // we need to setup any javaagent before the -jar flag
+            // we need to setup any javaagent before the main class
             if (!StringUtils.isEmpty(javaAgentClass)) {
                 cli.addArguments(new String[] { "-javaagent:" + getAdditionnalJavaAgentLocation() });
             } else {
                 getLogger().info("no javaAgentClass seems to be set");
             }
 
-            cli.addArguments(new String[] { "-jar", groovyEclipseLocation });
+            // run the batch compiler through ForkedCompiler, which hands problems back in a file
+            problemsFile = File.createTempFile(GroovyEclipseCompiler.class.getName(), "problems");
+            problemsFile.deleteOnExit();
+            cli.addArguments(new String[] { "-cp", groovyEclipseLocation + File.pathSeparator + getClassLocation(GroovyEclipseCompiler.class.getName()),
+                    "org.codehaus.groovy.eclipse.compiler.ForkedCompiler", problemsFile.getAbsolutePath() });
+            // kept out of the arguments file, which the batch compiler expands itself
+            cli.addArguments(recordingArgs);
 
             File argumentsFile = createFileWithArguments(args, config.getOutputLocation());
             cli.addArguments(new String[] { "@" + argumentsFile.getCanonicalPath().replace(File.separatorChar, '/') });
@@ -446,11 +790,14 @@ public class GroovyEclipseCompiler extends AbstractCompiler {
         try {
             getLogger().info("Compiling in a forked process using " + groovyEclipseLocation);
             returnCode = CommandLineUtils.executeCommandLine(cli, out, err);
+            messages.addAll(toCompilerMessages(readProblems(problemsFile), config.isShowWarnings()));
             messages.addAll(parseMessages(returnCode, out.getOutput(), config.isShowWarnings()));
         } catch (CommandLineException e) {
             throw new CompilerException("Error while executing the external compiler.", e);
         } catch (IOException e) {
             throw new CompilerException("Error while executing the external compiler.", e);
+        } finally {
+            problemsFile.delete();
         }
 
         if ((returnCode != 0) && messages.isEmpty()) {
@@ -464,6 +811,19 @@ public class GroovyEclipseCompiler extends AbstractCompiler {
         return returnCode == 0;
     }
 
+    private List<CompilerProblem> readProblems(File problemsFile) throws IOException {
+        if (problemsFile.length() == 0) {
+            // forked compiler did not get as far as writing its problems
+            return Collections.emptyList();
+        }
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(problemsFile)));
+        try {
+            return CompilerProblem.readAll(in);
+        } finally {
+            in.close();
+        }
+    }
+
     /**
      * Parse the output from the compiler into a list of CompilerError objects
      *
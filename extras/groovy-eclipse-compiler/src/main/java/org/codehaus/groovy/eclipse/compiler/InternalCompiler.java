@@ -19,6 +19,7 @@ package org.codehaus.groovy.eclipse.compiler;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.List;
 
 import org.codehaus.plexus.logging.Logger;
 import org.eclipse.jdt.core.compiler.CompilationProgress;
@@ -37,11 +38,13 @@ class InternalCompiler extends CompilationProgress {
         final boolean success;
         final int globalErrorsCount;
         final int globalWarningsCount;
-        public Result(boolean success, int globalErrorCount, int globalWarningCount) {
+        final List<CompilerProblem> problems;
+        public Result(boolean success, int globalErrorCount, int globalWarningCount, List<CompilerProblem> problems) {
             super();
             this.success = success;
             this.globalErrorsCount = globalErrorCount;
             this.globalWarningsCount = globalWarningCount;
+            this.problems = problems;
         }
     }
 
@@ -79,9 +82,10 @@ class InternalCompiler extends CompilationProgress {
 
     static Result doCompile(String[] args, StringWriter out, Logger logger, boolean verbose) {
         InternalCompiler progress = new InternalCompiler(logger, verbose);
-        Main main = new Main(new PrintWriter(out), new PrintWriter(out), false/* systemExit */,
-                null/* options */, progress);
+        PrintWriter writer = new PrintWriter(out);
+        Main main = new RecordingMain(writer, writer, progress);
+        ProblemCollector collector = ProblemCollector.install(main, writer, writer);
         boolean result = main.compile(args);
-        return new Result(result, main.globalErrorsCount, main.globalWarningsCount);
+        return new Result(result, main.globalErrorsCount, main.globalWarningsCount, collector.problems);
     }
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.compiler;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.core.compiler.CategorizedProblem;
+import org.eclipse.jdt.core.compiler.IProblem;
+import org.eclipse.jdt.internal.compiler.batch.Main;
+
+/**
+ * Batch compiler logger that also records problems as {@link CompilerProblem}s.
+ * Problems are logged exactly as the default logger logs them (counts, the
+ * <code>-log</code> file and its XML form), except that they are not printed
+ * to the console output, which is still used for everything else (summaries,
+ * annotation processor output, command line errors).
+ */
+class ProblemCollector extends Main.Logger {
+
+    final List<CompilerProblem> problems = new ArrayList<CompilerProblem>();
+
+    private final MutableWriter console;
+
+    private ProblemCollector(Main main, PrintWriter out, MutableWriter err) {
+        super(main, out, new PrintWriter(err));
+        this.console = err;
+    }
+
+    /**
+     * Replaces the default logger of the given compiler with a collector.
+     */
+    static ProblemCollector install(Main main, PrintWriter out, PrintWriter err) {
+        ProblemCollector collector = new ProblemCollector(main, out, new MutableWriter(err));
+        main.logger = collector;
+        return collector;
+    }
+
+    @Override
+    public int logProblems(CategorizedProblem[] problems, char[] unitSource, Main currentMain) {
+        for (CategorizedProblem problem : problems) {
+            if (problem != null) {
+                int severity;
+                if (problem.isError()) {
+                    severity = CompilerProblem.ERROR;
+                } else if (problem.getID() == IProblem.Task) {
+                    severity = CompilerProblem.TASK;
+                } else {
+                    severity = CompilerProblem.WARNING;
+                }
+                this.problems.add(toCompilerProblem(problem, severity, unitSource));
+            }
+        }
+        // the collected problems take the place of the printed ones
+        console.muted = true;
+        try {
+            return super.logProblems(problems, unitSource, currentMain);
+        } finally {
+            console.muted = false;
+        }
+    }
+
+    private static CompilerProblem toCompilerProblem(CategorizedProblem problem, int severity, char[] unitSource) {
+        int start = problem.getSourceStart(), end = problem.getSourceEnd();
+        int startColumn = 0, endColumn = 0;
+        if (unitSource != null && start >= 0 && start < unitSource.length) {
+            int lineStart = start;
+            while (lineStart > 0 && unitSource[lineStart - 1] != '\n' && unitSource[lineStart - 1] != '\r') {
+                lineStart -= 1;
+            }
+            startColumn = start - lineStart + 1;
+            endColumn = startColumn + Math.max(0, end - start);
+        }
+        char[] fileName = problem.getOriginatingFileName();
+        return new CompilerProblem(fileName != null ? new String(fileName) : "", severity,
+                problem.getSourceLineNumber(), startColumn, endColumn, problem.getMessage());
+    }
+
+    /**
+     * Forwards to the console writer unless muted.
+     */
+    private static final class MutableWriter extends Writer {
+
+        private final Writer target;
+
+        boolean muted;
+
+        MutableWriter(Writer target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            if (!muted) {
+                target.write(cbuf, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            target.flush();
+        }
+    }
+}
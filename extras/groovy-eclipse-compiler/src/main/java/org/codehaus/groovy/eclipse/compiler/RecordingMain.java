@@ -0,0 +1,112 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.compiler;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.core.compiler.CompilationProgress;
+import org.eclipse.jdt.internal.compiler.ClassFile;
+import org.eclipse.jdt.internal.compiler.CompilationResult;
+import org.eclipse.jdt.internal.compiler.batch.Main;
+
+/**
+ * Batch compiler that can also record, for every source it compiles, the
+ * class files it writes and the names the source references.  Recording is
+ * requested by the <code>-dependencyFile &lt;file&gt;</code> argument, which
+ * is not passed on to the batch compiler; the entries are written to the file
+ * in the form read by {@link DependencyGraph#readEntries}.
+ * <p>
+ * Only JRE and JDT classes may be used here.
+ */
+class RecordingMain extends Main {
+
+    private final Map<String, DependencyGraph.Entry> entries = new LinkedHashMap<String, DependencyGraph.Entry>();
+
+    RecordingMain(PrintWriter out, PrintWriter err, CompilationProgress progress) {
+        super(out, err, false/* systemExit */, null/* options */, progress);
+    }
+
+    @Override
+    public boolean compile(String[] argv) {
+        String dependencyFile = null;
+        List<String> args = new ArrayList<String>(argv.length + 1);
+        for (int i = 0; i < argv.length; i += 1) {
+            if (DependencyGraph.PARAM_NAME.equals(argv[i]) && i + 1 < argv.length) {
+                dependencyFile = argv[++i];
+            } else {
+                args.add(argv[i]);
+            }
+        }
+        if (dependencyFile == null) {
+            return super.compile(argv);
+        }
+        args.add(0, "-referenceInfo");
+
+        entries.clear();
+        boolean success = super.compile(args.toArray(new String[args.size()]));
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(dependencyFile)));
+            try {
+                DependencyGraph.writeEntries(out, entries.values());
+            } finally {
+                out.close();
+            }
+        } catch (IOException e) {
+            // the next build will not be incremental
+            this.logger.logException(e);
+        }
+        return success;
+    }
+
+    @Override
+    public void outputClassFiles(CompilationResult unitResult) {
+        super.outputClassFiles(unitResult);
+        if (unitResult != null && unitResult.getFileName() != null) {
+            // class files are only written when the unit compiled, unless proceeding on error
+            List<String> classFiles = new ArrayList<String>();
+            if (!unitResult.hasErrors() || this.proceedOnError) {
+                for (ClassFile classFile : unitResult.getClassFiles()) {
+                    classFiles.add(new String(classFile.fileName()));
+                }
+            }
+            Set<String> qualifiedReferences = new HashSet<String>();
+            if (unitResult.qualifiedReferences != null) {
+                for (char[][] name : unitResult.qualifiedReferences) {
+                    qualifiedReferences.add(new String(CharOperation.concatWith(name, '/')));
+                }
+            }
+            Set<String> simpleReferences = new HashSet<String>();
+            if (unitResult.simpleNameReferences != null) {
+                for (char[] name : unitResult.simpleNameReferences) {
+                    simpleReferences.add(new String(name));
+                }
+            }
+            String source = new String(unitResult.getFileName());
+            entries.put(source, new DependencyGraph.Entry(source, classFiles, qualifiedReferences, simpleReferences));
+        }
+    }
+}
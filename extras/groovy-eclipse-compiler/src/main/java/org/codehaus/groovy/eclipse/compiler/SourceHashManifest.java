@@ -0,0 +1,162 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.compiler;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Records the content hash of every source file that was last compiled
+ * successfully into an output directory, along with the time of that compile.
+ * A source is only stale when its contents differ from the recorded hash or
+ * its class files are missing or older than the compile, so touching a file or
+ * clock skew between the source and output directories does not cause a
+ * recompile.
+ * <p>
+ * The manifest lives next to the output directory (e.g.
+ * <code>target/groovy-eclipse-compiler/classes.sha1</code>), so a
+ * <code>mvn clean</code> removes it along with the class files.
+ */
+class SourceHashManifest {
+
+    private final File file;
+
+    private final Properties hashes = new Properties();
+
+    private final boolean existed;
+
+    private SourceHashManifest(File file) throws IOException {
+        this.file = file;
+        this.existed = file.isFile();
+        if (existed) {
+            InputStream in = new BufferedInputStream(new FileInputStream(file));
+            try {
+                hashes.load(in);
+            } finally {
+                in.close();
+            }
+        }
+    }
+
+    static SourceHashManifest forOutputDirectory(File outputDirectory) throws IOException {
+        File dir = new File(outputDirectory.getAbsoluteFile().getParentFile(), "groovy-eclipse-compiler");
+        return new SourceHashManifest(new File(dir, outputDirectory.getName() + ".sha1"));
+    }
+
+    /**
+     * @return <code>false</code> if no manifest has been written for this output
+     *         directory yet, in which case nothing is known about staleness
+     */
+    boolean exists() {
+        return existed;
+    }
+
+    boolean isUnchanged(File source, String hash) {
+        String value = hashes.getProperty(source.getAbsolutePath());
+        return value != null && value.startsWith(hash) &&
+            (value.length() == hash.length() || value.charAt(hash.length()) == ' ');
+    }
+
+    /**
+     * @return the time at which the compile that wrote the source's class files
+     *         started, or <code>0</code> if that is not known
+     */
+    long getCompileTime(File source) {
+        String value = hashes.getProperty(source.getAbsolutePath());
+        int space = value != null ? value.indexOf(' ') : -1;
+        if (space > 0) {
+            try {
+                return Long.parseLong(value.substring(space + 1));
+            } catch (NumberFormatException e) {
+                // fall through
+            }
+        }
+        return 0;
+    }
+
+    boolean contains(File source) {
+        return hashes.containsKey(source.getAbsolutePath());
+    }
+
+    /**
+     * @param compileTime time at which the compile of the source started, or
+     *        <code>0</code> if not known
+     */
+    void put(File source, String hash, long compileTime) {
+        hashes.setProperty(source.getAbsolutePath(), compileTime > 0 ? hash + ' ' + compileTime : hash);
+    }
+
+    void remove(File source) {
+        hashes.remove(source.getAbsolutePath());
+    }
+
+    /**
+     * Forgets all sources that are no longer part of the build.
+     */
+    void retainAll(Collection<File> sources) {
+        Set<String> paths = new HashSet<String>();
+        for (File source : sources) {
+            paths.add(source.getAbsolutePath());
+        }
+        hashes.keySet().retainAll(paths);
+    }
+
+    void save() throws IOException {
+        file.getParentFile().mkdirs();
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+        try {
+            hashes.store(out, "groovy-eclipse-compiler source hashes");
+        } finally {
+            out.close();
+        }
+    }
+
+    static String hash(File source) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        InputStream in = new FileInputStream(source);
+        try {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, n);
+            }
+        } finally {
+            in.close();
+        }
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append(Integer.toHexString((b & 0xFF) | 0x100).substring(1));
+        }
+        return sb.toString();
+    }
+}
@@ -26,6 +26,7 @@ import org.junit.runners.Suite
     // org.codehaus.groovy.eclipse.codeassist.tests
     org.codehaus.groovy.eclipse.codeassist.tests.AnnotationCompletionTests,
     org.codehaus.groovy.eclipse.codeassist.tests.CommandChainCompletionTests,
+    org.codehaus.groovy.eclipse.codeassist.tests.CompletionSessionTests,
     org.codehaus.groovy.eclipse.codeassist.tests.ConstructorCompletionTests,
     org.codehaus.groovy.eclipse.codeassist.tests.ContentAssistLocationTests,
     org.codehaus.groovy.eclipse.codeassist.tests.ContextInformationTests,
@@ -43,6 +44,7 @@ import org.junit.runners.Suite
     org.codehaus.groovy.eclipse.codeassist.tests.MethodCompletionTests,
     org.codehaus.groovy.eclipse.codeassist.tests.NewFieldCompletionTests,
     org.codehaus.groovy.eclipse.codeassist.tests.OtherCompletionTests,
+    org.codehaus.groovy.eclipse.codeassist.tests.ProcessorTimeLimitTests,
     org.codehaus.groovy.eclipse.codeassist.tests.ProposalProviderAndFilterTests,
     org.codehaus.groovy.eclipse.codeassist.tests.RelevanceTests,
     org.codehaus.groovy.eclipse.codeassist.tests.StaticImportsCompletionTests,
@@ -51,6 +53,7 @@ import org.junit.runners.Suite
 
     // org.codehaus.groovy.eclipse.codebrowsing.tests
     org.codehaus.groovy.eclipse.codebrowsing.tests.ASTFragmentTests,
+    org.codehaus.groovy.eclipse.codebrowsing.tests.ASTNodeIndexTests,
     org.codehaus.groovy.eclipse.codebrowsing.tests.ASTPositionTests,
     org.codehaus.groovy.eclipse.codebrowsing.tests.CodeSelectAttributesTests,
     org.codehaus.groovy.eclipse.codebrowsing.tests.CodeSelectCategoriesTests,
@@ -86,6 +89,7 @@ import org.junit.runners.Suite
     org.codehaus.groovy.eclipse.dsl.tests.MetaDSLInferencingTests,
     org.codehaus.groovy.eclipse.dsl.tests.PointcutCreationTests,
     org.codehaus.groovy.eclipse.dsl.tests.PointcutEvaluationTests,
+    org.codehaus.groovy.eclipse.dsl.tests.StaticCheckerTests,
     org.codehaus.groovy.eclipse.dsl.tests.StringObjectVectorTests,
 
     // org.codehaus.groovy.eclipse.junit.tests
@@ -108,6 +112,7 @@ import org.junit.runners.Suite
     org.codehaus.groovy.eclipse.refactoring.test.extract.StaticExpressionCheckerTests,
     org.codehaus.groovy.eclipse.refactoring.test.extract.StaticFragmentCheckerTests,
     org.codehaus.groovy.eclipse.refactoring.test.formatter.FindIndentsTests,
+    org.codehaus.groovy.eclipse.refactoring.test.formatter.FormatterNodeIndexTests,
     org.codehaus.groovy.eclipse.refactoring.test.formatter.FormatterPreferencesTests,
     org.codehaus.groovy.eclipse.refactoring.test.formatter.GroovyFormatterTests,
     org.codehaus.groovy.eclipse.refactoring.test.formatter.GroovyDocumentScannerTests,
@@ -127,6 +132,7 @@ import org.junit.runners.Suite
     org.codehaus.groovy.eclipse.test.actions.ConvertToPropertyActionTests,
     org.codehaus.groovy.eclipse.test.actions.GroovyNatureActionTests,
     org.codehaus.groovy.eclipse.test.actions.OrganizeImportsTests,
+    org.codehaus.groovy.eclipse.test.actions.ParallelCleanUpTests,
     org.codehaus.groovy.eclipse.test.actions.SaveParticipantRegistryTests,
     org.codehaus.groovy.eclipse.test.adapters.GroovyFileAdapterFactoryTests,
     org.codehaus.groovy.eclipse.test.adapters.GroovyIFileEditorInputAdapterFactoryTests,
@@ -70,7 +70,10 @@ import org.junit.runners.Suite
     org.eclipse.jdt.core.groovy.tests.search.OperatorOverloadingInferencingTests,
     org.eclipse.jdt.core.groovy.tests.search.StaticInferencingTests,
     org.eclipse.jdt.core.groovy.tests.search.SyntheticAccessorInferencingTests,
-    org.eclipse.jdt.core.groovy.tests.search.TypeReferenceSearchTests
+    org.eclipse.jdt.core.groovy.tests.search.TypeReferenceSearchTests,
+
+    // Utility tests
+    org.eclipse.jdt.core.groovy.tests.util.ReflectionUtilsTests
 ])
 final class GroovyJDTTests {
     @BeforeClass
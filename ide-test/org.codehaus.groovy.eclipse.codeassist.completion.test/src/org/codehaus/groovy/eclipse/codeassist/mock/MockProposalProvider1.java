@@ -28,18 +28,34 @@ public class MockProposalProvider1 implements IProposalProvider {
 
     private static boolean providerCalled = false;
 
+    /** milliseconds to spend on expression proposals */
+    public static volatile long delay = 0;
+
+    /** the thread that last asked for expression proposals */
+    public static volatile Thread thread;
+
     public static boolean wasProviderCalled() {
         return providerCalled;
     }
 
     public static void reset() {
         providerCalled = false;
+        delay = 0;
+        thread = null;
     }
 
     public List<IGroovyProposal> getStatementAndExpressionProposals(
             ContentAssistContext context, ClassNode completionType,
             boolean isStatic, Set<ClassNode> categories) {
         providerCalled = true;
+        thread = Thread.currentThread();
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
         return null;
     }
 
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.codeassist.tests
+
+import static org.junit.Assert.*
+
+import org.codehaus.groovy.eclipse.GroovyLogManager
+import org.codehaus.groovy.eclipse.IGroovyLogger
+import org.codehaus.groovy.eclipse.TraceCategory
+import org.codehaus.groovy.eclipse.codeassist.requestor.GroovyCompletionProposalComputer
+import org.codehaus.groovy.eclipse.test.SynchronizationUtils
+import org.eclipse.jdt.core.ICompilationUnit
+import org.eclipse.jdt.core.groovy.tests.SimpleProgressMonitor
+import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor
+import org.eclipse.jdt.ui.text.java.IJavaCompletionProposal
+import org.eclipse.jdt.ui.text.java.JavaContentAssistInvocationContext
+import org.eclipse.jface.text.IDocument
+import org.eclipse.jface.text.contentassist.ICompletionProposal
+import org.junit.Test
+
+/**
+ * Filter-as-you-type invocations within a completion session must produce the
+ * same proposals as a cold invocation.
+ */
+final class CompletionSessionTests extends CompletionTestSuite {
+
+    private static final String CONTENTS = '''\
+        class Bar {
+          String name
+          int nameLength() { name.length() }
+          void reset() { name = null }
+        }
+        def bar = new Bar()
+        bar.'''.stripIndent()
+
+    private List<ICompletionProposal> computeProposals(GroovyCompletionProposalComputer computer, JavaEditor editor, int offset) {
+        JavaContentAssistInvocationContext context = new JavaContentAssistInvocationContext(editor.viewer, offset, editor)
+        return computer.computeCompletionProposals(context, new SimpleProgressMonitor('Create completion proposals'))
+    }
+
+    private void assertSameProposals(List<ICompletionProposal> expected, List<ICompletionProposal> actual) {
+        assertEquals(expected*.displayString, actual*.displayString)
+        assertEquals(expected.collect { ((IJavaCompletionProposal) it).relevance }, actual.collect { ((IJavaCompletionProposal) it).relevance })
+    }
+
+    private final List<String> messages = []
+
+    private final IGroovyLogger logger = new IGroovyLogger() {
+        boolean isCategoryEnabled(TraceCategory category) {
+            category == TraceCategory.CONTENT_ASSIST
+        }
+        void log(TraceCategory category, String message) {
+            if (category == TraceCategory.CONTENT_ASSIST) {
+                synchronized (messages) { messages << message }
+            }
+        }
+    }
+
+    private boolean isContinued(String prefix) {
+        synchronized (messages) {
+            boolean continued = messages.contains("Continuing completion session for prefix '$prefix'".toString())
+            messages.clear()
+            return continued
+        }
+    }
+
+    @Test
+    void testExtendingPrefix() {
+        ICompilationUnit unit = addGroovySource(CONTENTS, nextUnitName())
+        JavaEditor editor = openInEditor(unit)
+        SynchronizationUtils.waitForIndexingToComplete(unit)
+        IDocument document = editor.viewer.document
+
+        GroovyCompletionProposalComputer computer = new GroovyCompletionProposalComputer()
+        computer.sessionStarted()
+        GroovyLogManager.manager.addLogger(logger)
+        try {
+            int offset = CONTENTS.length()
+            String prefix = ''
+            for (typed in ['', 'n', 'a', 'm', 'e', 'L']) {
+                if (typed) {
+                    document.replace(offset, 0, typed)
+                    offset += typed.length()
+                    prefix += typed
+                }
+
+                isContinued(prefix)
+                List<ICompletionProposal> session = computeProposals(computer, editor, offset)
+                // each keystroke is reconciled into a new module node, but the receiver is unchanged
+                assertEquals("Session for prefix '$prefix'", typed as boolean, isContinued(prefix))
+                List<ICompletionProposal> cold = computeProposals(new GroovyCompletionProposalComputer(), editor, offset)
+                assertSameProposals(cold, session)
+                // again without an edit
+                isContinued(prefix)
+                assertSameProposals(cold, computeProposals(computer, editor, offset))
+                assertTrue("Session for prefix '$prefix'", isContinued(prefix))
+            }
+            proposalExists(computeProposals(computer, editor, offset) as ICompletionProposal[], 'nameLength', 1)
+        } finally {
+            GroovyLogManager.manager.removeLogger(logger)
+            computer.sessionEnded()
+        }
+    }
+
+    @Test
+    void testOtherEditEndsReuse() {
+        ICompilationUnit unit = addGroovySource(CONTENTS, nextUnitName())
+        JavaEditor editor = openInEditor(unit)
+        SynchronizationUtils.waitForIndexingToComplete(unit)
+        IDocument document = editor.viewer.document
+
+        GroovyCompletionProposalComputer computer = new GroovyCompletionProposalComputer()
+        computer.sessionStarted()
+        try {
+            int offset = CONTENTS.length()
+            proposalExists(computeProposals(computer, editor, offset) as ICompletionProposal[], 'reset', 1)
+
+            // rename the method while the session is still open
+            int at = CONTENTS.indexOf('reset')
+            document.replace(at, 'reset'.length(), 'clear')
+
+            GroovyLogManager.manager.addLogger(logger)
+            List<ICompletionProposal> session
+            try {
+                isContinued('')
+                session = computeProposals(computer, editor, offset)
+                assertFalse(isContinued(''))
+            } finally {
+                GroovyLogManager.manager.removeLogger(logger)
+            }
+            proposalExists(session as ICompletionProposal[], 'reset', 0)
+            proposalExists(session as ICompletionProposal[], 'clear', 1)
+            assertSameProposals(computeProposals(new GroovyCompletionProposalComputer(), editor, offset), session)
+        } finally {
+            computer.sessionEnded()
+        }
+    }
+}
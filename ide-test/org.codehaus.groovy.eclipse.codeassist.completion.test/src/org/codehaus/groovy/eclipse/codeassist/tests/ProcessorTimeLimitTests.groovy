@@ -0,0 +1,82 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.codeassist.tests
+
+import static org.junit.Assert.*
+
+import org.codehaus.groovy.eclipse.codeassist.GroovyContentAssist
+import org.codehaus.groovy.eclipse.codeassist.mock.MockProposalProvider1
+import org.codehaus.groovy.eclipse.test.ui.Extender1
+import org.eclipse.jface.text.contentassist.ICompletionProposal
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+
+/**
+ * Completion processors run one after another in the calling thread; once the
+ * time limit is reached the rest are skipped, but the proposals of processors
+ * that have already finished are kept.
+ */
+final class ProcessorTimeLimitTests extends CompletionTestSuite {
+
+    private static final String CONTENTS = '''\
+        class Bar {
+          String name
+          int nameLength() { name.length() }
+        }
+        new Bar().na'''.stripIndent()
+
+    @Before
+    void setUp() {
+        MockProposalProvider1.reset()
+        // the mock provider slows down the expression processor
+        addNature(Extender1.NATURE1)
+    }
+
+    @After
+    void tearDown() {
+        MockProposalProvider1.reset()
+        removeNature(Extender1.NATURE1)
+        GroovyContentAssist.default.preferenceStore.setToDefault(GroovyContentAssist.PROPOSAL_TIMEOUT)
+    }
+
+    private ICompletionProposal[] complete(int timeout) {
+        GroovyContentAssist.default.preferenceStore.setValue(GroovyContentAssist.PROPOSAL_TIMEOUT, timeout)
+        return createProposalsAtOffset(CONTENTS, CONTENTS.length())
+    }
+
+    @Test
+    void testNoTimeLimit() {
+        MockProposalProvider1.delay = 200
+        proposalExists(complete(0), 'nameLength', 1)
+        assertTrue(MockProposalProvider1.wasProviderCalled())
+    }
+
+    @Test
+    void testCallingThread() {
+        proposalExists(complete(10000), 'nameLength', 1)
+        // processors share the resolver and name environment, which are not thread-safe
+        assertSame(Thread.currentThread(), MockProposalProvider1.thread)
+    }
+
+    @Test
+    void testFinishedProcessorPastTimeLimit() {
+        // the expression processor runs past the limit without polling its monitor
+        MockProposalProvider1.delay = 500
+        proposalExists(complete(100), 'nameLength', 1)
+        assertTrue(MockProposalProvider1.wasProviderCalled())
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.codebrowsing.tests
+
+import static org.junit.Assert.*
+
+import org.codehaus.groovy.ast.ModuleNode
+import org.codehaus.groovy.eclipse.codebrowsing.requestor.ASTNodeFinder
+import org.codehaus.groovy.eclipse.codebrowsing.requestor.ASTNodeIndex
+import org.codehaus.groovy.eclipse.codebrowsing.requestor.Region
+import org.junit.Test
+
+/**
+ * Checks that lookups answered by {@link ASTNodeIndex} match a full visit of the module.
+ */
+final class ASTNodeIndexTests extends BrowsingTestSuite {
+
+    private void assertSameLookups(String contents) {
+        ModuleNode module = addGroovySource(contents, nextUnitName()).getModuleNode()
+        for (int offset = 0; offset <= contents.length(); offset += 1) {
+            for (int length = 0; length <= 3 && offset + length <= contents.length(); length += 1) {
+                Region region = new Region(offset, length)
+
+                ASTNodeFinder visitor = new ASTNodeFinder(region) {} // sub-types always visit the module
+                def expectNode = visitor.doVisit(module)
+
+                ASTNodeFinder indexed = new ASTNodeFinder(region)
+                def actualNode = indexed.doVisit(module)
+
+                String where = "selection [$offset,$length] '${contents.substring(offset, offset + length)}'"
+                assertSame("Wrong node for $where", expectNode, actualNode)
+                assertEquals("Wrong region for $where", visitor.@sloc, indexed.@sloc)
+            }
+        }
+    }
+
+    @Test
+    void testIndexIsCached() {
+        ModuleNode module = addGroovySource('class C { def x = 1 }', nextUnitName()).getModuleNode()
+        assertSame(ASTNodeIndex.forModule(module), ASTNodeIndex.forModule(module))
+    }
+
+    @Test
+    void testSameLookups1() {
+        assertSameLookups '''\
+            import java.util.regex.Pattern
+            class Foo<T extends Number> extends ArrayList<T> implements Serializable, Cloneable {
+              static final Pattern P = ~/x+/
+              static String s = "${P}"
+              @Deprecated
+              private Map<String, List<T>> map = [:]
+              Foo(int i) { super(i) }
+              def <U> U bar(U u, Class<? super U> c) throws IOException {
+                def list = new ArrayList<U>()
+                list << u
+                return (U) list[0]
+              }
+            }
+            '''.stripIndent()
+    }
+
+    @Test
+    void testSameLookups2() {
+        assertSameLookups '''\
+            def x = [1, 2, 3].collect { it * 2 }
+            String y = x.join(',')
+            println "$y ${x.size()}"
+            new Object() {
+              String toString() { 'anon' }
+            }
+            enum E { A, B }
+            '''.stripIndent()
+    }
+
+    @Test
+    void testSameLookups3() {
+        assertSameLookups '''\
+            class Outer {
+              static Runnable R = new Runnable() {
+                void run() { Integer.valueOf(1) }
+              }
+              static class Inner {
+                static final String S = 'inner'
+                String s = S
+              }
+              Inner make() { new Inner() }
+            }
+            '''.stripIndent()
+    }
+}
@@ -17,6 +17,13 @@ package org.codehaus.groovy.eclipse.dsl.tests
 
 import groovy.transform.NotYetImplemented
 
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
 import org.codehaus.jdt.groovy.model.GroovyCompilationUnit
 import org.eclipse.jdt.core.groovy.tests.search.InferencingTestSuite
 import org.junit.Before
@@ -944,6 +951,79 @@ final class DSLInferencingTests extends DSLInferencingTestSuite {
         assertType(contents, start, end, 'java.lang.Long')
     }
 
+    @Test
+    void testConcurrentContributions() {
+        createDsls(
+            'contribute(currentType(String)) {\n' +
+            '  def latch = System.properties["dsld.test.latch"]\n' +
+            '  if (latch != null) {\n' +
+            '    latch.countDown()\n' +
+            '    if (!latch.await(20, java.util.concurrent.TimeUnit.SECONDS)) return\n' +
+            '  }\n' +
+            '  property name: "shared", type: Integer\n' +
+            '}')
+
+        String contents = '"abc".shared'
+        int start = contents.indexOf('shared')
+        int end = start + 'shared'.length()
+        List<GroovyCompilationUnit> units = (1..4).collect { addGroovySource(contents, nextUnitName()) }
+
+        def infer = { GroovyCompilationUnit unit ->
+            def requestor = InferencingTestSuite.doVisit(start, end, unit, false)
+            InferencingTestSuite.printTypeName(requestor.result.type) + ' ' + requestor.declaringTypeName
+        }
+        List<String> expected = units.collect(infer)
+        assert expected.every { it == 'java.lang.Integer java.lang.String' }
+
+        // each visit waits in the contribution closure until all visits have reached it
+        def latch = new CountDownLatch(units.size())
+        System.properties['dsld.test.latch'] = latch
+        def executor = Executors.newFixedThreadPool(units.size())
+        try {
+            List<Future<String>> results = units.collect { unit -> executor.submit({ infer(unit) } as Callable<String>) }
+            assert results.collect { it.get(60, TimeUnit.SECONDS) } == expected
+        } finally {
+            executor.shutdownNow()
+            System.properties.remove('dsld.test.latch')
+        }
+    }
+
+    @Test
+    void testMemoizedContributions() {
+        createDsls(
+            'contribute(currentType(String)) {\n' +
+            '  System.properties["dsld.test.plain"].incrementAndGet()\n' +
+            '  property name: "plain", type: Integer\n' +
+            '}',
+            'contribute(currentType(String)) {\n' +
+            '  System.properties["dsld.test.wormhole"].incrementAndGet()\n' +
+            '  if (wormhole != null) property name: "wormhole", type: Long\n' +
+            '}')
+
+        String contents = (1..20).collect { "'$it'.plain\n'$it'.wormhole\n" }.join('')
+        GroovyCompilationUnit unit = addGroovySource(contents, nextUnitName())
+
+        def plain = new AtomicInteger(), wormhole = new AtomicInteger()
+        System.properties['dsld.test.plain'] = plain
+        System.properties['dsld.test.wormhole'] = wormhole
+        try {
+            for (i in 1..20) {
+                int start = contents.indexOf("'$i'.plain")
+                start = contents.indexOf('plain', start)
+                InferencingTestSuite.assertType(unit, start, start + 'plain'.length(), 'java.lang.Integer')
+                start = contents.indexOf('wormhole', start)
+                InferencingTestSuite.assertType(unit, start, start + 'wormhole'.length(), 'java.lang.Long')
+            }
+        } finally {
+            System.properties.remove('dsld.test.plain')
+            System.properties.remove('dsld.test.wormhole')
+        }
+
+        // the closure that looks at the wormhole runs for every match; the other runs once per set of inputs
+        assert wormhole.get() > 0
+        assert plain.get() < wormhole.get()
+    }
+
     /*@Test // GRECLIPSE-1458
     void testMultiProject() {
         IPath otherPath = env.addProject('Other', '1.5')
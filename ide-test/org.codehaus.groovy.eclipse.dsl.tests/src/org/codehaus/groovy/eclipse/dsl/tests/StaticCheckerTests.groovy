@@ -0,0 +1,108 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.dsl.tests
+
+import org.codehaus.groovy.eclipse.dsl.checker.CheckedFile
+import org.codehaus.groovy.eclipse.dsl.checker.ResourceTypeChecker
+import org.codehaus.groovy.eclipse.dsl.checker.StaticCheckerReport
+import org.codehaus.groovy.eclipse.dsl.checker.SysoutStaticCheckerHandler
+import org.eclipse.core.resources.IResource
+import org.junit.Before
+import org.junit.Test
+
+final class StaticCheckerTests extends DSLInferencingTestSuite {
+
+    @Before
+    void setUp() {
+        addGroovySource('package p\nclass Flart { Integer flart }', 'Flart', 'p')
+        for (i in 1..8) {
+            addGroovySource("""\
+                package p
+                def a$i = 'abc' // TYPE:java.lang.String
+                def b$i = 9 // TYPE:java.lang.String
+                def c$i = new Flart().flart // TYPE:java.lang.Integer
+                def d$i = unknownThing$i
+                """.stripIndent(), "Script$i", 'p')
+        }
+    }
+
+    private String output
+    private StaticCheckerReport report
+
+    private void check(int workers, boolean onlyAssertions = false) {
+        def out = new ByteArrayOutputStream()
+        def checker = new ResourceTypeChecker(new SysoutStaticCheckerHandler(new PrintStream(out)),
+            [project] as List<IResource>, null, null, onlyAssertions)
+        checker.workers = workers
+        checker.doCheck(null)
+        output = out.toString()
+        report = checker.report
+    }
+
+    private static List<String> summarize(StaticCheckerReport report) {
+        report.files.collect { CheckedFile file ->
+            file.file.fullPath.toString() + ': ' + file.problems.collect { CheckedFile.Problem problem ->
+                "$problem.line $problem.text $problem.expectedType $problem.actualType"
+            }
+        }
+    }
+
+    @Test
+    void testSequentialAndParallelResultsMatch() {
+        check(1)
+        String sequentialOutput = output
+        List<String> sequentialReport = summarize(report)
+
+        check(4)
+        assert output == sequentialOutput
+        assert summarize(report) == sequentialReport
+
+        assert sequentialOutput.contains('Expected: java.lang.String Actual: java.lang.Integer')
+        assert !sequentialOutput.contains('Expected: java.lang.Integer')
+        assert sequentialOutput.contains('unknown type: unknownThing8')
+        assert report.files.size() == 9
+    }
+
+    @Test
+    void testSequentialAndParallelAssertionsMatch() {
+        check(1, true)
+        String sequentialOutput = output
+
+        check(3, true)
+        assert output == sequentialOutput
+        assert !output.contains('unknown type')
+        assert report.numProblemsFound() == 8
+    }
+
+    @Test
+    void testMachineReadableReports() {
+        check(2, true)
+
+        def json = new StringWriter()
+        report.writeJson(json)
+        def parsed = new groovy.json.JsonSlurper().parseText(json.toString())
+        assert parsed.problems == 8
+        assert parsed.files*.path == report.files*.file*.fullPath*.toString()
+        assert parsed.files.every { it.millis >= 0 }
+        assert parsed.files.find { it.path.endsWith('Script3.groovy') }.problems[0].expected == 'java.lang.String'
+
+        def xml = new StringWriter()
+        report.writeJUnitXml(xml, 'checks')
+        def suite = new XmlSlurper().parseText(xml.toString())
+        assert suite.@tests.text() == '9'
+        assert suite.@failures.text() == '8'
+    }
+}
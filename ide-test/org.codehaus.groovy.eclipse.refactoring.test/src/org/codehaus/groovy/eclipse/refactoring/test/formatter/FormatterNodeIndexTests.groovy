@@ -0,0 +1,81 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.refactoring.test.formatter
+
+import static org.junit.Assert.*
+
+import org.codehaus.groovy.ast.ModuleNode
+import org.codehaus.groovy.eclipse.refactoring.core.utils.ASTTools
+import org.codehaus.groovy.eclipse.refactoring.core.utils.astScanner.ASTScanner
+import org.codehaus.groovy.eclipse.refactoring.core.utils.astScanner.predicates.ClosuresInCodePredicate
+import org.codehaus.groovy.eclipse.refactoring.core.utils.astScanner.predicates.SourceCodePredicate
+import org.codehaus.groovy.eclipse.refactoring.formatter.FormatterNodeIndex
+import org.codehaus.groovy.eclipse.refactoring.formatter.KlenkDocumentScanner
+import org.codehaus.groovy.eclipse.refactoring.formatter.ListInCodePredicate
+import org.eclipse.jface.text.Document
+import org.junit.Test
+
+/**
+ * The node index must answer the same as the per-predicate scans it replaces.
+ */
+final class FormatterNodeIndexTests {
+
+    private static final String SOURCE = '''\
+        |import java.util.concurrent.*
+        |class Foo {
+        |  def list = [1, 2, [3, 4]]
+        |  def map = [a: { it }, b: [5]]
+        |  def m(String s, int i = 0) {
+        |    [s, i].each { x ->
+        |      println "$x ${ [x].size() }"
+        |    }
+        |    def c = { a, b -> a + b }
+        |    return c(1, 2) as List
+        |  }
+        |}
+        |new Foo().m('x') { -> [] }
+        |'''.stripMargin()
+
+    @Test
+    void testSameAsScans() {
+        Document doc = new Document(SOURCE)
+        ModuleNode root = ASTTools.getASTNodeFromSource(SOURCE)
+        FormatterNodeIndex index = new FormatterNodeIndex(root, doc)
+
+        assertEquals(scan(root, doc, new ListInCodePredicate()), index.lists)
+        assertEquals(scan(root, doc, new ClosuresInCodePredicate()), index.closures)
+        assertFalse(index.lists.isEmpty())
+        assertFalse(index.closures.isEmpty())
+
+        KlenkDocumentScanner tokens = new KlenkDocumentScanner(doc)
+        try {
+            for (int i = 0; i < tokens.size(); i += 1) {
+                def token = tokens.get(i)
+                assertEquals("Token $token".toString(),
+                    scan(root, doc, new SourceCodePredicate(token.line, token.column)),
+                    index.getNodesAt(token.line, token.column))
+            }
+        } finally {
+            tokens.dispose()
+        }
+    }
+
+    private static List scan(ModuleNode root, Document doc, predicate) {
+        ASTScanner scanner = new ASTScanner(root, predicate, doc)
+        scanner.startASTscan()
+        return new ArrayList(scanner.matchedNodes.keySet())
+    }
+}
@@ -18,6 +18,8 @@ package org.codehaus.groovy.eclipse.test.actions
 import static org.eclipse.jdt.core.tests.util.GroovyUtils.isAtLeastGroovy
 import static org.junit.Assume.assumeTrue
 
+import org.codehaus.groovy.eclipse.test.SynchronizationUtils
+import org.eclipse.jdt.ui.PreferenceConstants
 import org.junit.Ignore
 import org.junit.Test
 
@@ -130,6 +132,58 @@ final class OrganizeImportsTests extends OrganizeImportsTestSuite {
         doAddImportTest(contents, ['import other.FirstClass'])
     }
 
+    @Test
+    void testAddImportForTypeAddedLater() {
+        doAddImportTest('FirstClass f', ['import other.FirstClass'])
+
+        // types found before are kept up to date from Java element deltas
+        addGroovySource('class FifthClass { }', 'Fifth', 'other5')
+        doAddImportTest('FirstClass f; FifthClass g', ['import other.FirstClass', 'import other5.FifthClass'])
+
+        addGroovySource('class SixthClass { }', 'Fifth', 'other5')
+        doAddImportTest('SixthClass s', ['import other5.SixthClass'])
+        doAddImportTest('FifthClass f')
+    }
+
+    @Test
+    void testAddImportForTypeSavedInEditor() {
+        doAddImportTest('FirstClass f', ['import other.FirstClass'])
+
+        // changes saved from an editor come from the primary working copy
+        def unit = addGroovySource('class FifthClass { }', 'Fifth', 'other5')
+        def editor = openInEditor(unit)
+        try {
+            editor.documentProvider.getDocument(editor.editorInput).set('package other5\nclass SixthClass { }\n')
+            editor.doSave(null)
+            SynchronizationUtils.runEventQueue()
+        } finally {
+            editor.close(false)
+        }
+        doAddImportTest('SixthClass s', ['import other5.SixthClass'])
+        doAddImportTest('FifthClass f')
+    }
+
+    @Test
+    void testAddInnerImportForTypeAddedLater() {
+        doAddImportTest('FirstClass f', ['import other.FirstClass'])
+
+        // member types are found whether they were read from the index or from the Java model
+        addGroovySource('class Outer6 { static class Inner6 { } }', 'Outer6', 'other6')
+        doAddImportTest('Inner6 i; Inner j', ['import other6.Outer6.Inner6', 'import other.Outer.Inner'])
+    }
+
+    @Test
+    void testAddImportAfterTypeFilterChange() {
+        doAddImportTest('FirstClass f', ['import other.FirstClass'])
+        try {
+            setJavaPreference(PreferenceConstants.TYPEFILTER_ENABLED, 'other.*')
+            doAddImportTest('FirstClass f')
+        } finally {
+            setJavaPreference(PreferenceConstants.TYPEFILTER_ENABLED, '')
+        }
+        doAddImportTest('FirstClass f', ['import other.FirstClass'])
+    }
+
     @Test
     void testAddInnerImport1() {
         String contents = '''
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.test.actions
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.fail
+
+import org.codehaus.groovy.eclipse.refactoring.actions.AbstractGroovyCleanUp
+import org.codehaus.groovy.eclipse.refactoring.actions.FormatKind
+import org.codehaus.groovy.eclipse.refactoring.actions.GroovyCodeFormatCleanUp
+import org.codehaus.groovy.eclipse.refactoring.actions.TrailingWhitespacesCleanUp
+import org.codehaus.groovy.eclipse.refactoring.actions.UnnecessarySemicolonsCleanUp
+import org.codehaus.groovy.eclipse.test.GroovyEclipseTestSuite
+import org.codehaus.jdt.groovy.model.GroovyCompilationUnit
+import org.eclipse.core.runtime.OperationCanceledException
+import org.eclipse.jdt.ui.cleanup.CleanUpContext
+import org.eclipse.jface.text.Document
+import org.junit.Test
+
+/**
+ * Clean ups of several units compute their edits concurrently; the result
+ * must be the same as cleaning up each unit on its own.
+ */
+final class ParallelCleanUpTests extends GroovyEclipseTestSuite {
+
+    private List<GroovyCompilationUnit> createUnits() {
+        (1..12).collect { int i ->
+            addGroovySource("""\
+                |package p$i ;
+                |class C$i {   \t
+                |def x = $i ;
+                |      def m(a,b){
+                |  if (a) {   b.each { println it ; }
+                |    }
+                |   else {return   x;}   \t
+                |}
+                |}
+                |""".stripMargin(), "C$i", "p$i")
+        }
+    }
+
+    private static List<String> cleanUp(AbstractGroovyCleanUp cleanUp, List<GroovyCompilationUnit> units, boolean together) {
+        if (together) {
+            cleanUp.checkPreConditions(units[0].javaProject, units as GroovyCompilationUnit[], null)
+        }
+        try {
+            units.collect { GroovyCompilationUnit unit ->
+                if (!together) {
+                    cleanUp.checkPreConditions(unit.javaProject, [unit] as GroovyCompilationUnit[], null)
+                }
+                def fix = cleanUp.createFix(new CleanUpContext(unit, null))
+                def doc = new Document(String.valueOf(unit.contents))
+                fix.createChange(null).edit.apply(doc)
+                if (!together) {
+                    cleanUp.checkPostConditions(null)
+                }
+                doc.get()
+            }
+        } finally {
+            if (together) {
+                cleanUp.checkPostConditions(null)
+            }
+        }
+    }
+
+    private void assertSameResults(Closure<AbstractGroovyCleanUp> factory) {
+        def units = createUnits()
+        def expected = cleanUp(factory(), units, false)
+        assertEquals(expected, cleanUp(factory(), units, true))
+        // a second run must not reuse anything from the first
+        assertEquals(expected, cleanUp(factory(), units, true))
+    }
+
+    @Test
+    void testFormat() {
+        assertSameResults { new GroovyCodeFormatCleanUp(FormatKind.FORMAT) }
+    }
+
+    @Test
+    void testIndent() {
+        assertSameResults { new GroovyCodeFormatCleanUp(FormatKind.INDENT_ONLY) }
+    }
+
+    @Test
+    void testSemicolons() {
+        assertSameResults { new UnnecessarySemicolonsCleanUp() }
+    }
+
+    @Test
+    void testTrailingWhitespace() {
+        assertSameResults { new TrailingWhitespacesCleanUp() }
+    }
+
+    @Test
+    void testChangedContents() {
+        def units = createUnits()
+        def cleanUp = new TrailingWhitespacesCleanUp()
+        cleanUp.checkPreConditions(units[0].javaProject, units as GroovyCompilationUnit[], null)
+        try {
+            // contents change after the edits were started; the edit must match the new contents
+            GroovyCompilationUnit unit = units[0]
+            unit.becomeWorkingCopy(null)
+            try {
+                unit.buffer.contents = 'class Changed {   \n}\n'
+                def fix = cleanUp.createFix(new CleanUpContext(unit, null))
+                def doc = new Document(String.valueOf(unit.contents))
+                fix.createChange(null).edit.apply(doc)
+                assertEquals('class Changed {\n}\n', doc.get())
+            } finally {
+                unit.discardWorkingCopy()
+            }
+        } finally {
+            cleanUp.checkPostConditions(null)
+        }
+    }
+
+    @Test
+    void testSaveSnapshot() {
+        GroovyCompilationUnit unit = createUnits()[0]
+        def expected = cleanUp(new UnnecessarySemicolonsCleanUp(), [unit], false)
+
+        // as the save listener does: every clean up starts from the same contents
+        def cleanUp = new UnnecessarySemicolonsCleanUp()
+        cleanUp.checkPreConditions(unit.javaProject, [unit] as GroovyCompilationUnit[], null)
+        cleanUp.precomputeEdit(unit, unit.contents)
+        try {
+            def fix = cleanUp.createFix(new CleanUpContext(unit, null))
+            def doc = new Document(String.valueOf(unit.contents))
+            fix.createChange(null).edit.apply(doc)
+            assertEquals(expected[0], doc.get())
+            assert cleanUp.editTime >= 0
+        } finally {
+            cleanUp.checkPostConditions(null)
+        }
+    }
+
+    @Test
+    void testDeadlinePassed() {
+        GroovyCompilationUnit unit = createUnits()[0]
+        def cleanUp = new GroovyCodeFormatCleanUp(FormatKind.FORMAT)
+        cleanUp.checkPreConditions(unit.javaProject, [unit] as GroovyCompilationUnit[], null)
+        cleanUp.setDeadline(System.nanoTime() - 1000000L)
+        try {
+            cleanUp.createFix(new CleanUpContext(unit, null))
+            fail('Clean up should have run out of time')
+        } catch (OperationCanceledException expected) {
+        } finally {
+            cleanUp.cancelEdits()
+        }
+    }
+}
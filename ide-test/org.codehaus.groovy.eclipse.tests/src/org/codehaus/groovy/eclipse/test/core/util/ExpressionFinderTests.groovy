@@ -19,6 +19,7 @@ import static org.junit.Assert.assertEquals
 
 import org.codehaus.groovy.eclipse.core.ISourceBuffer
 import org.codehaus.groovy.eclipse.core.impl.StringSourceBuffer
+import org.codehaus.groovy.eclipse.core.util.CompletionTokenView
 import org.codehaus.groovy.eclipse.core.util.ExpressionFinder
 import org.junit.Ignore
 import org.junit.Test
@@ -546,4 +547,42 @@ final class ExpressionFinderTests {
         String expression = finder.findForCompletions(sourceBuffer, completionLocation.length() - 1)
         assertEquals("(new ArrayList<String>()).", expression)
     }
+
+    @Test
+    void testTokenViewMatchesFinder() {
+        String source = '''\
+            |def x = [1, 2].collect { it.toString() }.
+            |"str ${x.size()} end".tr
+            |// comment. with dot
+            |foo(bar).baz?.qu  x*.y  new ArrayList().
+            |a.@b c.&d 1..2 ; \'\'\'
+            |'''.stripMargin()
+        ExpressionFinder finder = new ExpressionFinder()
+        for (int offset = 0; offset <= source.length(); offset += 1) {
+            ISourceBuffer buffer = new StringSourceBuffer(source)
+            CompletionTokenView view = new CompletionTokenView(buffer, offset)
+
+            def expected, actual
+            try {
+                expected = (offset > 0 ? finder.findForCompletions(buffer, offset - 1) : '')
+            } catch (Exception e) {
+                expected = e.class
+            }
+            for (int i = 0; i < 2; i += 1) { // second time is cached
+                try {
+                    actual = view.completionText
+                } catch (Exception e) {
+                    actual = e.class
+                }
+                assertEquals("offset $offset".toString(), expected, actual)
+            }
+            assertEquals(finder.findTokenEnd(buffer, offset), view.completionEnd)
+
+            String text = (expected instanceof String ? expected : '')
+            for (int i = 0; i < 2; i += 1) {
+                assert view.split(text) == finder.splitForCompletion(text)
+                assert view.splitNoTrim(text) == finder.splitForCompletionNoTrim(text)
+            }
+        }
+    }
 }
@@ -16,6 +16,13 @@
 package org.codehaus.groovy.eclipse.test.debug
 
 import org.codehaus.groovy.ast.ASTNode
+import org.codehaus.groovy.ast.ClassNode
+import org.codehaus.groovy.ast.FieldNode
+import org.codehaus.groovy.ast.expr.ClosureExpression
+import org.codehaus.groovy.ast.expr.DeclarationExpression
+import org.codehaus.groovy.ast.stmt.Statement
+import org.codehaus.groovy.eclipse.core.search.LexicalClassVisitor
+import org.codehaus.groovy.eclipse.debug.ui.BreakpointLocationTable
 import org.codehaus.groovy.eclipse.debug.ui.ValidBreakpointLocationFinder
 import org.eclipse.jface.text.Document
 import org.junit.Test
@@ -149,4 +156,42 @@ final class BreakpointLocationTests extends BreakpointTestSuite {
     void testBreakpointInScript23() {
         doBreakpointTest(23)
     }
+
+    @Test
+    void testLocationTableIsCached() {
+        assert BreakpointLocationTable.forModule(unit.moduleNode).is(BreakpointLocationTable.forModule(unit.moduleNode))
+    }
+
+    @Test
+    void testLocationTableMatchesScan() {
+        def table = BreakpointLocationTable.forModule(unit.moduleNode)
+        int lines = new Document(String.valueOf(unit.contents)).numberOfLines
+        for (line in 0..lines + 1) {
+            assert table.getLocation(line).is(scanForLocation(line)) : 'Wrong location for line ' + line
+        }
+    }
+
+    /**
+     * Finds the location for a line by walking the module node.
+     */
+    private ASTNode scanForLocation(int line) {
+        ASTNode lastValid = null
+        def visitor = new LexicalClassVisitor(unit.moduleNode)
+        boolean skipNext = false
+        while (visitor.hasNextNode()) {
+            ASTNode node = visitor.nextNode
+            if (node instanceof DeclarationExpression) {
+                skipNext = true
+            } else if (skipNext) {
+                skipNext = false
+            } else if (!(node.lineNumber == -1 || node instanceof Statement || node instanceof ClosureExpression || node instanceof ClassNode || node instanceof FieldNode)) {
+                if (node.lineNumber == line) {
+                    lastValid = node
+                } else if (node.lineNumber > line) {
+                    return lastValid ?: node
+                }
+            }
+        }
+        return lastValid
+    }
 }
@@ -16,6 +16,7 @@
 package org.codehaus.groovy.eclipse.test.debug
 
 import org.codehaus.groovy.eclipse.core.compiler.CompilerUtils
+import org.codehaus.groovy.eclipse.core.model.GroovyProjectFacade
 import org.codehaus.groovy.eclipse.launchers.GroovyScriptLaunchShortcut
 import org.codehaus.groovy.eclipse.test.GroovyEclipseTestSuite
 import org.codehaus.groovy.eclipse.test.TestProject
@@ -230,6 +231,50 @@ final class GroovyLauncherShortcutTests extends GroovyEclipseTestSuite {
         }
     }
 
+    @Test // cached classpath must follow changes to the classpath
+    void testClasspathGeneration3() {
+        TestProject p2 = new TestProject('P2b')
+        TestProject p1 = new TestProject('P1b')
+        try {
+            def shortcut = new MockGroovyScriptLaunchShortcut()
+            String before = shortcut.generateClasspath(p1.javaProject)
+            Assert.assertEquals(before, shortcut.generateClasspath(p1.javaProject))
+            Assert.assertFalse(before.contains('P2b'))
+
+            p1.addProjectReference(p2.javaProject)
+            String after = shortcut.generateClasspath(p1.javaProject)
+            Assert.assertTrue(after.contains('${workspace_loc:' + File.separator + 'P2b}'))
+
+            p2.createSourceFolder('src2', 'bin2')
+            Assert.assertTrue(shortcut.generateClasspath(p1.javaProject).contains('P2b}' + File.separator + 'src2'))
+        } finally {
+            p1.dispose()
+            p2.dispose()
+        }
+    }
+
+    @Test // runnable types read from the module node must match those read from the java model
+    void testRunnableTypes() {
+        ICompilationUnit unit = addGroovySource('''\
+            |class A { static void main(String[] args) {} }
+            |class B { def main(args) {} }
+            |class C { static main(String... args) {} }
+            |class D { static main(args) {} ; static class E { static void main(Object args) {} } }
+            |class F { static int main(String[] args) {} }
+            |class G { static void main(String[][] args) {} }
+            |println 'script'
+            |'''.stripMargin(), 'Runnable')
+        def expected = unit.allTypes.findAll { GroovyProjectFacade.hasRunnableMain(it) }*.fullyQualifiedName
+        Assert.assertEquals(['Runnable', 'A', 'C', 'D', 'D$E'] as Set, expected as Set)
+
+        unit.becomeWorkingCopy(null)
+        try {
+            Assert.assertEquals(expected, GroovyProjectFacade.findAllRunnableTypes(unit)*.fullyQualifiedName)
+        } finally {
+            unit.discardWorkingCopy()
+        }
+    }
+
     //
 
     private String createClassPathString1() {
@@ -37,6 +37,8 @@ public class GroovyContentAssist extends AbstractUIPlugin {
     public static final String CLOSURE_BRACKETS = PLUGIN_ID + ".closures.literals";
     // if true do not use parens around methods
     public static final String CLOSURE_NOPARENS = PLUGIN_ID + ".closures.noparens";
+    // milliseconds to wait for completion processors; 0 for no limit
+    public static final String PROPOSAL_TIMEOUT = PLUGIN_ID + ".timeout";
 
     private static GroovyContentAssist plugin;
 
@@ -26,6 +26,7 @@ import org.eclipse.jface.dialogs.IDialogConstants;
 import org.eclipse.jface.dialogs.IInputValidator;
 import org.eclipse.jface.dialogs.InputDialog;
 import org.eclipse.jface.preference.BooleanFieldEditor;
+import org.eclipse.jface.preference.IntegerFieldEditor;
 import org.eclipse.jface.preference.ListEditor;
 import org.eclipse.jface.window.Window;
 import org.eclipse.swt.SWT;
@@ -213,6 +214,14 @@ public class ContentAssistPreferencesPage extends FieldEditorOverlayPage impleme
 
         addField(new CompletionFilterListEditor("Filtered DGMs",
             "Default Groovy Methods that will be filtered from content assist", fieldGroup));
+
+        //
+        fieldGroup = createFieldGroup("Performance");
+
+        IntegerFieldEditor timeout = new IntegerFieldEditor(GroovyContentAssist.PROPOSAL_TIMEOUT,
+            "Time limit for computing proposals in milliseconds (0 for none)", fieldGroup, 5);
+        timeout.setValidRange(0, 60000);
+        addField(timeout);
     }
 
     private Composite createFieldGroup(String label) {
@@ -314,15 +314,8 @@ public class StatementAndExpressionCompletionProcessor extends AbstractGroovyCom
     }
 
     public List<ICompletionProposal> generateProposals(IProgressMonitor monitor) {
-        TypeInferencingVisitorFactory factory = new TypeInferencingVisitorFactory();
         ContentAssistContext context = getContext();
-        TypeInferencingVisitorWithRequestor visitor = factory.createVisitor(context.unit);
-        ExpressionCompletionRequestor requestor = new ExpressionCompletionRequestor();
-
-        // if completion node is null, then it is likely because of a syntax error
-        if (completionNode != null) {
-            visitor.visitCompilationUnit(requestor);
-        }
+        ExpressionCompletionRequestor requestor = findRequestor(context);
         ClassNode completionType;
         boolean isStatic;
         List<IGroovyProposal> groovyProposals = new LinkedList<IGroovyProposal>();
@@ -443,6 +436,68 @@ public class StatementAndExpressionCompletionProcessor extends AbstractGroovyCom
         return javaProposals;
     }
 
+    /**
+     * Finds the receiver type and scope of the completion.  Within a completion
+     * session the result of an earlier invocation is reused while only the
+     * completion prefix has been extended; the session drops it as soon as any
+     * other part of the document changes.
+     */
+    private ExpressionCompletionRequestor findRequestor(ContentAssistContext context) {
+        String key = StatementAndExpressionCompletionProcessor.class.getName();
+        ExpressionCompletionRequestor requestor = new ExpressionCompletionRequestor();
+        if (context.session != null) {
+            InferenceResult inference = (InferenceResult) context.session.get(key);
+            if (inference != null) {
+                inference.restore(requestor);
+                return requestor;
+            }
+        }
+
+        // if completion node is null, then it is likely because of a syntax error
+        if (completionNode != null) {
+            TypeInferencingVisitorFactory factory = new TypeInferencingVisitorFactory();
+            TypeInferencingVisitorWithRequestor visitor = factory.createVisitor(context.unit);
+            visitor.visitCompilationUnit(requestor);
+        }
+
+        // for expressions the completion node is the receiver, which is not affected by the prefix;
+        // elsewhere the completion node is the prefix itself, so its type may change with each keystroke
+        if (context.session != null && requestor.visitSuccessful && context.location == ContentAssistLocation.EXPRESSION) {
+            context.session.put(key, new InferenceResult(requestor));
+        }
+        return requestor;
+    }
+
+    /**
+     * What {@link ExpressionCompletionRequestor} inferred for the receiver,
+     * kept apart from the requestor so that no processor or context of an
+     * earlier invocation is retained.
+     */
+    private static final class InferenceResult {
+        private final boolean isStatic;
+        private final ClassNode lhsType;
+        private final ClassNode resultingType;
+        private final Set<ClassNode> categories;
+        private final VariableScope currentScope;
+
+        InferenceResult(ExpressionCompletionRequestor requestor) {
+            this.isStatic = requestor.isStatic;
+            this.lhsType = requestor.lhsType;
+            this.resultingType = requestor.resultingType;
+            this.categories = requestor.categories;
+            this.currentScope = requestor.currentScope;
+        }
+
+        void restore(ExpressionCompletionRequestor requestor) {
+            requestor.isStatic = isStatic;
+            requestor.lhsType = lhsType;
+            requestor.resultingType = resultingType;
+            requestor.categories = categories;
+            requestor.currentScope = currentScope;
+            requestor.visitSuccessful = true;
+        }
+    }
+
     private void proposalCreatorLoop(ContentAssistContext context, ExpressionCompletionRequestor requestor,
             ClassNode completionType, boolean isStatic, List<IGroovyProposal> groovyProposals, IProposalCreator[] creators, boolean isClosureThis) {
         for (IProposalCreator creator : creators) {
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.codeassist.requestor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.codehaus.groovy.eclipse.codeassist.GroovyContentAssist;
+import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.internal.core.JavaProject;
+import org.eclipse.jdt.internal.core.SearchableEnvironment;
+import org.eclipse.jdt.ui.text.java.JavaContentAssistInvocationContext;
+import org.eclipse.jface.text.IDocument;
+
+/**
+ * State shared by the content assist invocations of one completion popup.
+ * <p>
+ * While the only edits to the document extend the identifier being completed
+ * (same location, replacement offset and receiver, and the same text before
+ * and after the identifier), the state computed for the first invocation stays
+ * valid even though each edit is reconciled into a new module node: the
+ * searchable environment and whatever the processors stored, such as the
+ * inferred receiver type.  Any other edit discards that state, so inference is
+ * redone against the current module.  Proposals are still created and filtered
+ * for the current prefix, so they are the same as those of a cold invocation.
+ */
+public class CompletionSession {
+
+    private GroovyCompilationUnit unit;
+    private ContentAssistLocation location;
+    private int replacementOffset = -1;
+    private String completionExpression;
+    private String receiverExpression;
+    private int completionLocation;
+    private String contents;
+
+    private final Map<String, Object> values = new HashMap<String, Object>();
+    private SearchableEnvironment environment;
+
+    /**
+     * Records the given invocation; state of the previous invocation is
+     * discarded unless the document has only been changed by extending its
+     * completion prefix.
+     *
+     * @return {@code true} if the state of the previous invocation was kept
+     */
+    public synchronized boolean update(ContentAssistContext context, IDocument document) {
+        String prefix = context.completionExpression;
+        String full = context.fullCompletionExpression != null ? context.fullCompletionExpression : "";
+        String receiver = full.endsWith(prefix) ? full.substring(0, full.length() - prefix.length()) : null;
+        int offset = context.completionLocation - prefix.length();
+
+        String text = document.get();
+
+        boolean continued = (receiver != null && context.unit == unit && context.location == location &&
+            offset == replacementOffset && receiver.equals(receiverExpression) && isExtension(completionExpression, prefix) &&
+            isUnchangedAround(contents, completionLocation, text, context.completionLocation));
+        if (!continued) {
+            reset();
+        }
+
+        unit = context.unit;
+        location = context.location;
+        replacementOffset = (receiver != null ? offset : -1);
+        completionExpression = prefix;
+        receiverExpression = receiver;
+        completionLocation = context.completionLocation;
+        contents = text;
+
+        context.session = this;
+        return continued;
+    }
+
+    public synchronized Object get(String key) {
+        return values.get(key);
+    }
+
+    public synchronized void put(String key, Object value) {
+        values.put(key, value);
+    }
+
+    /**
+     * @return the searchable environment for this session, or {@code null} if it could not be created
+     */
+    public synchronized SearchableEnvironment getSearchableEnvironment(JavaContentAssistInvocationContext javaContext) {
+        if (environment == null) {
+            try {
+                environment = ((JavaProject) javaContext.getProject()).newSearchableNameEnvironment(javaContext.getCompilationUnit().getOwner());
+            } catch (JavaModelException e) {
+                GroovyContentAssist.logError("Exception creating searchable environment for " + javaContext.getCompilationUnit(), e);
+            }
+        }
+        return environment;
+    }
+
+    public synchronized void dispose() {
+        reset();
+        unit = null;
+        location = null;
+        replacementOffset = -1;
+        completionExpression = receiverExpression = contents = null;
+    }
+
+    private void reset() {
+        values.clear();
+        if (environment != null) {
+            environment.cleanup();
+            environment = null;
+        }
+    }
+
+    /**
+     * @return {@code true} if the text before the previous completion location
+     *         and the text after it are the same in the current text
+     */
+    private static boolean isUnchangedAround(String previous, int previousLocation, String current, int currentLocation) {
+        if (previous == null || current.length() - currentLocation != previous.length() - previousLocation) {
+            return false;
+        }
+        return current.regionMatches(0, previous, 0, previousLocation) &&
+            current.regionMatches(currentLocation, previous, previousLocation, previous.length() - previousLocation);
+    }
+
+    private static boolean isExtension(String previous, String current) {
+        if (previous == null || !current.startsWith(previous)) {
+            return false;
+        }
+        for (int i = previous.length(), n = current.length(); i < n; i += 1) {
+            if (!Character.isJavaIdentifierPart(current.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -98,6 +98,12 @@ public class ContentAssistContext {
      */
     public VariableScope currentScope;
 
+    /**
+     * The completion session of this invocation. Might be null if content
+     * assist was not invoked from a completion popup (eg- in tests).
+     */
+    public CompletionSession session;
+
     private Set<String> favoriteStaticMembers;
 
     public ContentAssistContext(
@@ -43,13 +43,14 @@ import org.codehaus.groovy.eclipse.codeassist.processors.IGroovyCompletionProces
 import org.codehaus.groovy.eclipse.codeassist.processors.IProposalFilter;
 import org.codehaus.groovy.eclipse.codeassist.processors.IProposalFilterExtension;
 import org.codehaus.groovy.eclipse.codeassist.processors.ProposalProviderRegistry;
-import org.codehaus.groovy.eclipse.core.ISourceBuffer;
-import org.codehaus.groovy.eclipse.core.util.ExpressionFinder;
+import org.codehaus.groovy.eclipse.core.util.CompletionTokenView;
 import org.codehaus.groovy.eclipse.core.util.ParseException;
 import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
 import org.codehaus.jdt.groovy.model.ModuleNodeMapper.ModuleNodeInfo;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.ProgressMonitorWrapper;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.JavaModelException;
@@ -165,6 +166,11 @@ public class GroovyCompletionProposalComputer implements IJavaCompletionProposal
         LOCATION_FACTORIES = Collections.unmodifiableMap(locationFactories);
     }
 
+    /**
+     * State shared by invocations between {@link #sessionStarted()} and {@link #sessionEnded()}.
+     */
+    private volatile CompletionSession session;
+
     public List<ICompletionProposal> computeCompletionProposals(ContentAssistInvocationContext context, IProgressMonitor monitor) {
         if (!(context instanceof JavaContentAssistInvocationContext)) {
             return Collections.EMPTY_LIST;
@@ -204,22 +210,32 @@ public class GroovyCompletionProposalComputer implements IJavaCompletionProposal
         ContentAssistContext assistContext = createContentAssistContext(gunit, offset, document);
         List<ICompletionProposal> proposals = new ArrayList<ICompletionProposal>();
         if (assistContext != null) {
+            CompletionSession session = this.session;
+            if (session != null) {
+                boolean continued = session.update(assistContext, document);
+                if (traceEvent != null && continued) {
+                    GroovyLogManager.manager.log(TraceCategory.CONTENT_ASSIST, "Continuing completion session for prefix '" + assistContext.completionExpression + "'");
+                }
+            }
             List<IGroovyCompletionProcessorFactory> factories = LOCATION_FACTORIES.get(assistContext.location);
             if (factories != null) {
                 SubMonitor submon = SubMonitor.convert(monitor, factories.size());
-                SearchableEnvironment environment = createSearchableEnvironment(javaContext);
+                SearchableEnvironment environment = (session != null ? session.getSearchableEnvironment(javaContext) : createSearchableEnvironment(javaContext));
                 try {
+                    List<IGroovyCompletionProcessor> processors = new ArrayList<IGroovyCompletionProcessor>(factories.size());
                     for (IGroovyCompletionProcessorFactory factory : factories) {
                         IGroovyCompletionProcessor processor = factory.createProcessor(assistContext, javaContext, environment);
                         if (processor != null) {
                             if (processor instanceof ITypeResolver) {
                                 ((ITypeResolver) processor).setResolverInformation(moduleInfo.module, moduleInfo.resolver);
                             }
-                            proposals.addAll(processor.generateProposals(submon.newChild(1)));
+                            processors.add(processor);
                         }
                     }
+                    proposals.addAll(generateProposals(processors, getTimeBudget(), submon, traceEvent != null));
                 } finally {
-                    if (environment != null) {
+                    // a session's environment is cleaned up when the session ends
+                    if (environment != null && session == null) {
                         environment.cleanup();
                     }
                     submon.done();
@@ -253,10 +269,79 @@ public class GroovyCompletionProposalComputer implements IJavaCompletionProposal
         return proposals;
     }
 
+    /**
+     * Runs the processors one after another and collects their proposals.
+     * <p>
+     * The processors share the module's resolver and the searchable name
+     * environment, neither of which is thread-safe, and some depend on updates
+     * that earlier ones make to the {@link ContentAssistContext} (eg- the
+     * current scope), so they all run in the calling thread.
+     *
+     * @param budget milliseconds to allow the processors; once they are used up,
+     *        the running processor is canceled through its progress monitor and
+     *        the remaining processors are skipped (0 for no limit).  Proposals
+     *        of a processor that returns are kept, even if it ran past the
+     *        limit; one that stops because it was canceled throws
+     *        {@link OperationCanceledException}.
+     */
+    private List<ICompletionProposal> generateProposals(List<IGroovyCompletionProcessor> processors, long budget, IProgressMonitor monitor, boolean trace) {
+        List<ICompletionProposal> proposals = new ArrayList<ICompletionProposal>();
+        SubMonitor submon = SubMonitor.convert(monitor, processors.size());
+        long deadline = (budget > 0 ? System.currentTimeMillis() + budget : Long.MAX_VALUE);
+        for (IGroovyCompletionProcessor processor : processors) {
+            if (submon.isCanceled()) {
+                break;
+            }
+            DeadlineMonitor child = new DeadlineMonitor(submon.newChild(1), deadline);
+            if (child.isCanceled()) {
+                if (trace) {
+                    GroovyLogManager.manager.log(TraceCategory.CONTENT_ASSIST, "Completion processors exceeded " + budget + "ms");
+                }
+                break;
+            }
+            try {
+                List<ICompletionProposal> result = processor.generateProposals(child);
+                if (result != null) {
+                    proposals.addAll(result);
+                }
+            } catch (OperationCanceledException e) {
+                // skipped
+            } catch (RuntimeException e) {
+                GroovyContentAssist.logError("Exception in completion processor " + processor.getClass().getName(), e);
+            }
+        }
+        submon.done();
+        return proposals;
+    }
+
+    private long getTimeBudget() {
+        GroovyContentAssist plugin = GroovyContentAssist.getDefault();
+        return (plugin != null ? plugin.getPreferenceStore().getInt(GroovyContentAssist.PROPOSAL_TIMEOUT) : 0);
+    }
+
+    /**
+     * Reports cancellation once the deadline has passed.
+     */
+    private static class DeadlineMonitor extends ProgressMonitorWrapper {
+        private final long deadline;
+
+        DeadlineMonitor(IProgressMonitor monitor, long deadline) {
+            super(monitor);
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return super.isCanceled() || System.currentTimeMillis() >= deadline;
+        }
+    }
+
     // visible for testing
     public ContentAssistContext createContentAssistContext(GroovyCompilationUnit gunit, int invocationOffset, IDocument document) {
-        String fullCompletionText = findCompletionText(document, invocationOffset);
-        String[] completionExpressions = findCompletionExpression(fullCompletionText);
+        // one view of the document for all of the expression queries
+        CompletionTokenView view = new CompletionTokenView(new DocumentSourceBuffer(document), invocationOffset);
+        String fullCompletionText = findCompletionText(view);
+        String[] completionExpressions = view.split(fullCompletionText);
         final String completionExpression;
         if (completionExpressions == null || "@".equals(fullCompletionText)) {
             completionExpression = "";
@@ -265,8 +350,8 @@ public class GroovyCompletionProposalComputer implements IJavaCompletionProposal
         } else {
             completionExpression = completionExpressions[1];
         }
-        int completionEnd = findCompletionEnd(document, invocationOffset);
-        int supportingNodeEnd = findSupportingNodeEnd(gunit, invocationOffset, fullCompletionText);
+        int completionEnd = view.getCompletionEnd();
+        int supportingNodeEnd = findSupportingNodeEnd(view, fullCompletionText);
 
         CompletionNodeFinder finder = new CompletionNodeFinder(
             invocationOffset,
@@ -287,16 +372,9 @@ public class GroovyCompletionProposalComputer implements IJavaCompletionProposal
         }
     }
 
-    private String[] findCompletionExpression(String completionText) {
-        return new ExpressionFinder().splitForCompletion(completionText);
-    }
-
-    protected String findCompletionText(IDocument doc, int offset) {
+    private String findCompletionText(CompletionTokenView view) {
         try {
-            if (offset > 0) {
-                ISourceBuffer buffer = new DocumentSourceBuffer(doc);
-                return new ExpressionFinder().findForCompletions(buffer, offset - 1);
-            }
+            return view.getCompletionText();
         } catch (ParseException e) {
             // can ignore; probably just invalid code that is being completed at
             if (GroovyLogManager.manager.hasLoggers()) {
@@ -306,18 +384,13 @@ public class GroovyCompletionProposalComputer implements IJavaCompletionProposal
         return "";
     }
 
-    private int findCompletionEnd(IDocument doc, int offset) {
-        ISourceBuffer buffer = new DocumentSourceBuffer(doc);
-        return new ExpressionFinder().findTokenEnd(buffer, offset);
-    }
-
-    protected int findSupportingNodeEnd(GroovyCompilationUnit gunit, int invocationOffset, String fullCompletionText) {
-        String[] completionExpressions = new ExpressionFinder().splitForCompletionNoTrim(fullCompletionText);
+    private int findSupportingNodeEnd(CompletionTokenView view, String fullCompletionText) {
+        String[] completionExpressions = view.splitNoTrim(fullCompletionText);
         // if second part of completion expression is null, then there is no supporting node (ie- no '.')
         if (completionExpressions[1] == null) {
             return -1;
         }
-        int end = invocationOffset - fullCompletionText.length() + completionExpressions[0].length();
+        int end = view.getOffset() - fullCompletionText.length() + completionExpressions[0].length();
         return end;
     }
 
@@ -337,8 +410,14 @@ public class GroovyCompletionProposalComputer implements IJavaCompletionProposal
     }
 
     public void sessionStarted() {
+        session = new CompletionSession();
     }
 
     public void sessionEnded() {
+        CompletionSession ended = session;
+        session = null;
+        if (ended != null) {
+            ended.dispose();
+        }
     }
 }
@@ -61,16 +61,34 @@ public class ASTNodeFinder extends DepthFirstVisitor {
     protected ASTNode result;
     protected Region sloc;
 
+    /** when non-null, candidates are recorded for an index instead of being checked against {@link #sloc} */
+    private ASTNodeIndex.Builder recorder;
+
     public ASTNodeFinder(Region sloc) {
         this.sloc = sloc;
     }
 
+    ASTNodeFinder(ASTNodeIndex.Builder recorder) {
+        this(new Region(0, 0));
+        this.recorder = recorder;
+    }
+
     /**
      * The main entry point.
      */
     public ASTNode doVisit(ModuleNode node) {
         module = node;
         result = null;
+        if (getClass() == ASTNodeFinder.class) {
+            // sub-types customize the visit, so only plain lookups can use the module's index
+            ASTNodeIndex.Candidate match = ASTNodeIndex.forModule(node).find(sloc);
+            if (match != null) {
+                result = match.node;
+                if (match.region != null)
+                    sloc = match.region;
+            }
+            return result;
+        }
         try {
             visitModule(node);
         } catch (VisitCompleteException done) {
@@ -78,6 +96,15 @@ public class ASTNodeFinder extends DepthFirstVisitor {
         return result;
     }
 
+    /**
+     * Visits the entire module, passing every node and source range that
+     * {@link #doVisit} would check to the recorder (in visitation order).
+     */
+    void record(ModuleNode node) {
+        module = node;
+        visitModule(node);
+    }
+
     @Override
     public void visitPackage(PackageNode node) {
         super.visitPackage(node);
@@ -111,6 +138,7 @@ public class ASTNodeFinder extends DepthFirstVisitor {
         // However, there is a problem in that constant fields are seen here as well.
         // If a match is found here, keep it for later because there may be a more appropriate match in the class body
         VisitCompleteException vce = null;
+        if (recorder != null) recorder.beginDeferred();
         try {
             MethodNode clinit = node.getMethod("<clinit>", Parameter.EMPTY_ARRAY);
             if (clinit != null && clinit.getCode() instanceof BlockStatement) {
@@ -120,6 +148,8 @@ public class ASTNodeFinder extends DepthFirstVisitor {
             }
         } catch (VisitCompleteException e) {
             vce = e;
+        } finally {
+            if (recorder != null) recorder.endDeferred();
         }
 
         // visit trait members
@@ -156,6 +186,7 @@ public class ASTNodeFinder extends DepthFirstVisitor {
         if (vce != null) {
             throw vce;
         }
+        if (recorder != null) recorder.flushDeferred();
     }
 
     @Override
@@ -295,10 +326,13 @@ public class ASTNodeFinder extends DepthFirstVisitor {
                 int until = call.getArguments().getStart() - 1;
 
                 // check call name and generics
+                if (recorder != null) recorder.substitute(call);
                 check(call.getType(), start, until);
             } catch (VisitCompleteException e) {
                 result = call;
                 throw e;
+            } finally {
+                if (recorder != null) recorder.substitute(null);
             }
             // in case of @Newify, "new" keyword is not present
             if (call.getStart() == call.getType().getStart() && !call.isUsingAnonymousInnerClass()) {
@@ -372,8 +406,8 @@ public class ASTNodeFinder extends DepthFirstVisitor {
         if (node instanceof ClassNode) {
             checkGenerics((ClassNode) node);
         }
-        if (node.getEnd() > 0 && sloc.regionIsCoveredByNode(node)) {
-            completeVisitation(node, null);
+        if (node.getEnd() > 0) {
+            checkRange(node, node.getStart(), node.getEnd(), null);
         }
     }
 
@@ -388,9 +422,7 @@ public class ASTNodeFinder extends DepthFirstVisitor {
             if (node instanceof ClassNode) {
                 checkGenerics((ClassNode) node);
             }
-            if (sloc.getOffset() >= start && sloc.getEnd() <= until) {
-                completeVisitation(node, new Region(start, until - start));
-            }
+            checkRange(node, start, until, new Region(start, until - start));
         }
     }
 
@@ -398,10 +430,8 @@ public class ASTNodeFinder extends DepthFirstVisitor {
      * Checks if the name of the node covers the selection.
      */
     protected void checkNameRange(AnnotatedNode node) {
-        if (sloc.regionIsCoveredByNameRange(node)) {
-            completeVisitation(node, new Region(
-                node.getNameStart(), node.getNameEnd() - node.getNameStart()));
-        }
+        checkRange(node, node.getNameStart(), node.getNameEnd() + 1, // FIXADE why +1?
+            new Region(node.getNameStart(), node.getNameEnd() - node.getNameStart()));
         if (node instanceof ClassNode) {
             checkGenerics((ClassNode) node);
         }
@@ -412,13 +442,22 @@ public class ASTNodeFinder extends DepthFirstVisitor {
      */
     private void checkSupers(ClassNode node) {
         // supers can only appear after the name
-        if (!(sloc.getOffset() > node.getNameEnd())) {
+        if (recorder == null && !(sloc.getOffset() > node.getNameEnd())) {
             return;
         }
         // anonymous inner classes cannot have extends or implements clauses
         if (node instanceof InnerClassNode && ((InnerClassNode) node).isAnonymous()) {
             return;
         }
+        if (recorder != null) recorder.constrain(node.getNameEnd() + 1);
+        try {
+            checkSuperTypes(node);
+        } finally {
+            if (recorder != null) recorder.constrain(0);
+        }
+    }
+
+    private void checkSuperTypes(ClassNode node) {
         // set offset beyond the class name and any generics
         GenericsType type = ArrayUtils.lastElement(node.getGenericsTypes());
         int offset = (type != null ? type.getEnd() : node.getNameEnd()) + 1;
@@ -528,6 +567,19 @@ public class ASTNodeFinder extends DepthFirstVisitor {
         }
     }
 
+    /**
+     * Checks if the source range covers the selection.
+     *
+     * @param nodeRegion replacement for the selection if covered; {@code null} to keep it
+     */
+    private void checkRange(ASTNode node, int start, int until, Region nodeRegion) {
+        if (recorder != null) {
+            recorder.add(node, start, until, nodeRegion);
+        } else if (sloc.getOffset() >= start && sloc.getEnd() <= until) {
+            completeVisitation(node, nodeRegion);
+        }
+    }
+
     /**
      * Provides a single exit point for the various check methods.
      */
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.codebrowsing.requestor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.ModuleNode;
+
+/**
+ * Interval tree over the source ranges that {@link ASTNodeFinder} checks.
+ * The index is built lazily by a single recording visit of a module and is
+ * cached in the module's meta data, so repeated lookups (hover, ctrl-click,
+ * mark occurrences) don't have to walk the entire AST each time.
+ * <p>
+ * Each candidate keeps its visitation order; a lookup returns the first
+ * candidate (in that order) whose range covers the selection, which is the
+ * same node and region that {@link ASTNodeFinder#doVisit} would produce.
+ */
+public final class ASTNodeIndex {
+
+    public static ASTNodeIndex forModule(ModuleNode module) {
+        synchronized (module) {
+            ASTNodeIndex index = (ASTNodeIndex) module.getNodeMetaData(ASTNodeIndex.class);
+            if (index == null) {
+                Builder builder = new Builder();
+                new ASTNodeFinder(builder).record(module);
+                index = builder.build();
+                module.putNodeMetaData(ASTNodeIndex.class, index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Source range of a node as checked by {@link ASTNodeFinder}.
+     */
+    public static final class Candidate {
+        /** may be {@code null}, in which case the lookup stops without a result */
+        public final ASTNode node;
+        /** replacement for the selected region; {@code null} to keep the selection */
+        public final Region region;
+        final int start, until, order;
+
+        Candidate(ASTNode node, int start, int until, Region region, int order) {
+            this.node = node;
+            this.start = start;
+            this.until = until;
+            this.region = region;
+            this.order = order;
+        }
+    }
+
+    private final Bucket root;
+
+    private ASTNodeIndex(List<Candidate> candidates) {
+        this.root = Bucket.build(candidates);
+    }
+
+    /**
+     * @return the first candidate whose range covers the region, or {@code null} if there is none
+     */
+    public Candidate find(Region r) {
+        Candidate best = null;
+        int offset = r.getOffset(), end = r.getEnd();
+        Bucket bucket = root;
+        while (bucket != null) {
+            if (offset < bucket.center) {
+                // all ranges in this bucket end after the offset
+                for (Candidate c : bucket.byStart) {
+                    if (c.start > offset) break;
+                    if (c.until >= end && (best == null || c.order < best.order)) best = c;
+                }
+                bucket = bucket.left;
+            } else {
+                // all ranges in this bucket start before the offset
+                for (Candidate c : bucket.byUntil) {
+                    if (c.until < end) break;
+                    if (best == null || c.order < best.order) best = c;
+                }
+                bucket = (offset > bucket.center ? bucket.right : null);
+            }
+        }
+        return best;
+    }
+
+    //--------------------------------------------------------------------------
+
+    /**
+     * Node of the interval tree; holds the ranges that contain its center.
+     */
+    private static final class Bucket {
+        final int center;
+        final Candidate[] byStart, byUntil;
+        Bucket left, right;
+
+        private Bucket(int center, List<Candidate> here) {
+            this.center = center;
+            this.byStart = here.toArray(new Candidate[here.size()]);
+            Arrays.sort(byStart, START_ASCENDING);
+            this.byUntil = here.toArray(new Candidate[here.size()]);
+            Arrays.sort(byUntil, UNTIL_DESCENDING);
+        }
+
+        static Bucket build(List<Candidate> candidates) {
+            if (candidates.isEmpty()) {
+                return null;
+            }
+            int[] points = new int[candidates.size() * 2];
+            for (int i = 0, n = candidates.size(); i < n; i += 1) {
+                points[i * 2] = candidates.get(i).start;
+                points[i * 2 + 1] = candidates.get(i).until;
+            }
+            Arrays.sort(points);
+            int center = points[candidates.size()];
+
+            List<Candidate> left = new ArrayList<Candidate>(), here = new ArrayList<Candidate>(), right = new ArrayList<Candidate>();
+            for (Candidate c : candidates) {
+                if (c.until < center) {
+                    left.add(c);
+                } else if (c.start > center) {
+                    right.add(c);
+                } else {
+                    here.add(c);
+                }
+            }
+            Bucket bucket = new Bucket(center, here);
+            bucket.left = build(left);
+            bucket.right = build(right);
+            return bucket;
+        }
+
+        private static final Comparator<Candidate> START_ASCENDING = new Comparator<Candidate>() {
+            public int compare(Candidate a, Candidate b) {
+                return a.start < b.start ? -1 : (a.start == b.start ? 0 : 1);
+            }
+        };
+
+        private static final Comparator<Candidate> UNTIL_DESCENDING = new Comparator<Candidate>() {
+            public int compare(Candidate a, Candidate b) {
+                return a.until > b.until ? -1 : (a.until == b.until ? 0 : 1);
+            }
+        };
+    }
+
+    /**
+     * Collects candidates from a recording {@link ASTNodeFinder} visit.
+     */
+    static final class Builder {
+        private final List<Candidate> candidates = new ArrayList<Candidate>();
+        private final LinkedList<List<Candidate>> targets = new LinkedList<List<Candidate>>();
+        private final LinkedList<List<Candidate>> deferred = new LinkedList<List<Candidate>>();
+        private ASTNode substitute;
+        private int lowerBound;
+
+        Builder() {
+            targets.push(candidates);
+        }
+
+        void add(ASTNode node, int start, int until, Region region) {
+            start = Math.max(start, lowerBound);
+            if (until >= start) { // empty ranges can never cover a selection
+                targets.peek().add(new Candidate(substitute != null ? substitute : node, start, until, region, -1));
+            }
+        }
+
+        /**
+         * Candidates found until {@link #endDeferred()} are held back until {@link #flushDeferred()}.
+         */
+        void beginDeferred() {
+            List<Candidate> list = new ArrayList<Candidate>();
+            deferred.push(list);
+            targets.push(list);
+        }
+
+        void endDeferred() {
+            targets.pop();
+        }
+
+        void flushDeferred() {
+            targets.peek().addAll(deferred.pop());
+        }
+
+        /**
+         * Attributes subsequent candidates to the given node; {@code null} to stop.
+         */
+        void substitute(ASTNode node) {
+            substitute = node;
+        }
+
+        /**
+         * Candidates only cover selections that start at or after the given offset.
+         */
+        void constrain(int offset) {
+            lowerBound = offset;
+        }
+
+        ASTNodeIndex build() {
+            List<Candidate> ordered = new ArrayList<Candidate>(candidates.size());
+            for (int i = 0, n = candidates.size(); i < n; i += 1) {
+                Candidate c = candidates.get(i);
+                ordered.add(new Candidate(c.node, c.start, c.until, c.region, i));
+            }
+            return new ASTNodeIndex(ordered);
+        }
+    }
+}
@@ -21,6 +21,7 @@ import java.util.LinkedList;
 import java.util.List;
 
 import org.codehaus.groovy.eclipse.core.GroovyCore;
+import org.codehaus.jdt.groovy.model.GroovyNature;
 import org.eclipse.core.internal.events.BuildCommand;
 import org.eclipse.core.resources.ICommand;
 import org.eclipse.core.resources.IProject;
@@ -92,6 +93,7 @@ public class ConvertLegacyProject {
             desc.setBuildSpec(newBuilders.toArray(new ICommand[newBuilders.size()]));
 
             project.setDescription(desc, null);
+            GroovyNature.forgetNature(project);
         } catch (CoreException e) {
             GroovyCore.logException("Exception thrown when converting for legacy project " + project.getName(), e);
         }
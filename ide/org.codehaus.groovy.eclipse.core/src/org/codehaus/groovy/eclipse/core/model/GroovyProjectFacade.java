@@ -16,8 +16,10 @@
 package org.codehaus.groovy.eclipse.core.model;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import org.codehaus.groovy.ast.ASTNode;
 import org.codehaus.groovy.ast.ClassNode;
@@ -29,6 +31,7 @@ import org.codehaus.groovy.ast.expr.DeclarationExpression;
 import org.codehaus.groovy.eclipse.core.GroovyCore;
 import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
 import org.codehaus.jdt.groovy.model.GroovyNature;
+import org.codehaus.jdt.groovy.model.ModuleNodeMapper.ModuleNodeInfo;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
@@ -255,14 +258,73 @@ public class GroovyProjectFacade {
     public static List<IType> findAllRunnableTypes(ICompilationUnit unit) throws JavaModelException {
         List<IType> results = new LinkedList<IType>();
         IType[] types = unit.getAllTypes();
+        Set<String> runnable = findRunnableClassNames(unit);
         for (IType type : types) {
-            if (hasRunnableMain(type)) {
+            if (runnable != null ? runnable.contains(type.getFullyQualifiedName('$')) : hasRunnableMain(type)) {
                 results.add(type);
             }
         }
         return results;
     }
 
+    /**
+     * Reads the runnable classes of a unit from the module node of its working
+     * copy, if it has one, rather than from the Java model.
+     *
+     * @return names of the classes that have a runnable main method (scripts
+     *         included), or {@code null} if the unit has no module node yet
+     */
+    private static Set<String> findRunnableClassNames(ICompilationUnit unit) {
+        if (unit instanceof GroovyCompilationUnit) {
+            ModuleNodeInfo info = ((GroovyCompilationUnit) unit).getModuleInfo(false);
+            if (info != null && info.module != null) {
+                Set<String> names = new HashSet<String>();
+                for (ClassNode clazz : info.module.getClasses()) {
+                    if (hasRunnableMain(clazz)) {
+                        names.add(clazz.getName());
+                    }
+                }
+                return names;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Same as {@link #hasRunnableMain(IType)} for a class node.
+     */
+    public static boolean hasRunnableMain(ClassNode clazz) {
+        for (MethodNode method : clazz.getDeclaredMethods("main")) {
+            String returnType = method.getReturnType().getName();
+            if (method.isStatic() &&
+                    // void or Object are valid return types
+                    (returnType.equals("void") || returnType.equals("java.lang.Object")) &&
+                    hasAppropriateArrayArgsForMain(method.getParameters())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasAppropriateArrayArgsForMain(Parameter[] params) {
+        if (params == null || params.length != 1) {
+            return false;
+        }
+        ClassNode type = params[0].getType();
+        String typeName;
+        if (type.isArray()) {
+            type = type.getComponentType();
+            if (type.isArray()) {
+                return false;
+            }
+            typeName = "String";
+        } else {
+            typeName = "Object";
+        }
+        String name = type.getName();
+        return name.equals(typeName) || name.equals("java.lang." + typeName);
+    }
+
     public static boolean hasRunnableMain(IType type) {
         try {
             IMethod[] allMethods = type.getMethods();
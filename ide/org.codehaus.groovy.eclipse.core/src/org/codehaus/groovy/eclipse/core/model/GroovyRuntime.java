@@ -49,6 +49,7 @@ public class GroovyRuntime {
                 final String[] newIds = (String[]) ArrayUtils.remove(ids, i);
                 description.setNatureIds(newIds);
                 project.setDescription(description, null);
+                GroovyNature.forgetNature(project);
                 return;
             }
         }
@@ -322,6 +323,7 @@ public class GroovyRuntime {
 
         description.setNatureIds(newIds);
         project.setDescription(description, null);
+        GroovyNature.forgetNature(project);
     }
 
     /**
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.core.util;
+
+import org.codehaus.groovy.eclipse.core.ISourceBuffer;
+
+/**
+ * The {@link ExpressionFinder} answers for one completion offset.  Each
+ * answer is computed the first time it is asked for and then kept, so the
+ * several queries made while setting up content assist scan the buffer and
+ * tokenize the completion expression only once.  The answers are exactly
+ * those of the corresponding {@link ExpressionFinder} methods.
+ */
+public class CompletionTokenView {
+
+    private final ExpressionFinder finder = new ExpressionFinder();
+    private final ISourceBuffer buffer;
+    private final int offset;
+
+    private boolean textFound;
+    private String text;
+    private ParseException textException;
+
+    private int tokenEnd = -1;
+    private String[] split;
+
+    /**
+     * @param offset the invocation offset; the expression is searched for
+     *        backwards from the character before it
+     */
+    public CompletionTokenView(ISourceBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+    }
+
+    public ISourceBuffer getBuffer() {
+        return buffer;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return the full completion text before the offset, as found by
+     *         {@link ExpressionFinder#findForCompletions(ISourceBuffer, int)};
+     *         the empty string if the offset is at the start of the buffer
+     */
+    public String getCompletionText() throws ParseException {
+        if (!textFound) {
+            try {
+                text = (offset > 0 ? finder.findForCompletions(buffer, offset - 1) : "");
+            } catch (ParseException e) {
+                textException = e;
+            }
+            textFound = true;
+        }
+        if (textException != null) {
+            throw textException;
+        }
+        return text;
+    }
+
+    /**
+     * @return the end of the identifier at the offset
+     * @see ExpressionFinder#findTokenEnd(ISourceBuffer, int)
+     */
+    public int getCompletionEnd() {
+        if (tokenEnd < 0) {
+            tokenEnd = finder.findTokenEnd(buffer, offset);
+        }
+        return tokenEnd;
+    }
+
+    /**
+     * Splits the given completion text, which is usually the result of
+     * {@link #getCompletionText()}.  The split of the most recent text is kept.
+     *
+     * @return a new array on each call
+     * @see ExpressionFinder#splitForCompletionNoTrim(String)
+     */
+    public String[] splitNoTrim(String completionText) {
+        if (split == null || !equal(completionText, splitText)) {
+            split = finder.splitForCompletionNoTrim(completionText);
+            splitText = completionText;
+        }
+        return split.clone();
+    }
+    private String splitText;
+
+    /**
+     * @return a new array on each call
+     * @see ExpressionFinder#splitForCompletion(String)
+     */
+    public String[] split(String completionText) {
+        return ExpressionFinder.trimForCompletion(splitNoTrim(completionText));
+    }
+
+    private static boolean equal(String a, String b) {
+        return (a == null ? b == null : a.equals(b));
+    }
+}
@@ -140,7 +140,16 @@ public class ExpressionFinder {
      *         and should not be completed against.
      */
     public String[] splitForCompletion(String expression) {
-        String[] split = splitForCompletionNoTrim(expression);
+        return trimForCompletion(splitForCompletionNoTrim(expression));
+    }
+
+    /**
+     * Trims the parts of a split from {@link #splitForCompletionNoTrim(String)}
+     * the way {@link #splitForCompletion(String)} does.
+     *
+     * @param split is modified and returned
+     */
+    public static String[] trimForCompletion(String[] split) {
         if (split[0] != null) {
             split[0] = split[0].trim();
             if (split[0].startsWith("$")) {
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.dsl.checker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.codehaus.groovy.ast.ASTNode;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.jface.text.Position;
+import org.eclipse.swt.widgets.Shell;
+
+/**
+ * The outcome of statically checking a single file.  Problems are recorded
+ * instead of being reported right away, so that files checked in parallel can
+ * be reported to the real {@link IStaticCheckerHandler} in a fixed order.
+ */
+public class CheckedFile implements IStaticCheckerHandler {
+
+    public static class Problem {
+        // the node's text and source range, so that the file's AST is not kept
+        private final String text;
+        private final int start, end, column;
+        private final Position position;
+        private final int line;
+        private final String expectedType;
+        private final String actualType;
+
+        Problem(ASTNode node, Position position, int line, String expectedType, String actualType) {
+            this.text = node.getText();
+            this.start = node.getStart();
+            this.end = node.getEnd();
+            this.column = node.getColumnNumber();
+            this.position = position;
+            this.line = line;
+            this.expectedType = expectedType;
+            this.actualType = actualType;
+        }
+
+        public boolean isUnknownReference() {
+            return expectedType == null;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public Position getPosition() {
+            return position;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getExpectedType() {
+            return expectedType;
+        }
+
+        public String getActualType() {
+            return actualType;
+        }
+
+        /**
+         * @return a stand-in for the node the problem was recorded against
+         */
+        ASTNode getNode() {
+            ASTNode node = new ASTNode() {
+                @Override
+                public String getText() {
+                    return text;
+                }
+            };
+            node.setStart(start);
+            node.setEnd(end);
+            node.setLineNumber(line);
+            node.setColumnNumber(column);
+            return node;
+        }
+    }
+
+    private final IFile file;
+    private final List<Problem> problems = new ArrayList<Problem>();
+    private long elapsedMillis;
+
+    CheckedFile(IFile file) {
+        this.file = file;
+    }
+
+    public IFile getFile() {
+        return file;
+    }
+
+    public List<Problem> getProblems() {
+        return Collections.unmodifiableList(problems);
+    }
+
+    /**
+     * @return time spent parsing and type checking this file
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Reports the recorded problems to the given handler, as if it had been
+     * used to check this file directly.
+     */
+    void replay(IStaticCheckerHandler handler) {
+        handler.setResource(file);
+        for (Problem problem : problems) {
+            if (problem.isUnknownReference()) {
+                handler.handleUnknownReference(problem.getNode(), problem.position, problem.line);
+            } else {
+                handler.handleTypeAssertionFailed(problem.getNode(), problem.expectedType, problem.actualType, problem.position, problem.line);
+            }
+        }
+    }
+
+    //--------------------------------------------------------------------------
+
+    public void handleUnknownReference(ASTNode node, Position position, int line) {
+        problems.add(new Problem(node, position, line, null, null));
+    }
+
+    public void handleTypeAssertionFailed(ASTNode node, String expectedType, String actualType, Position position, int line) {
+        problems.add(new Problem(node, position, line, expectedType, actualType));
+    }
+
+    public void setResource(IFile resource) {
+        // always the same file
+    }
+
+    public int numProblemsFound() {
+        return problems.size();
+    }
+
+    public void handleResourceStart(IResource resource) {
+        // nothing to do
+    }
+
+    public boolean finish(Shell shell) {
+        return problems.isEmpty();
+    }
+}
@@ -15,11 +15,17 @@
  */
 package org.codehaus.groovy.eclipse.dsl.checker;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.codehaus.groovy.ast.Comment;
 import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
@@ -40,96 +46,52 @@ import org.eclipse.jdt.groovy.search.TypeInferencingVisitorWithRequestor;
 import org.eclipse.jdt.internal.core.util.Util;
 
 /**
- * Performs static checking on all groovy files contained in the resource passed in
+ * Performs static checking on all groovy files contained in the resource passed in.
+ * Files may be checked on several worker threads (see {@link #setWorkers(int)});
+ * either way, results are passed on to the handler in workspace order.
  * @author andrew
  * @created Aug 29, 2011
  */
 public class ResourceTypeChecker {
-    
+
     class CheckerVisitor implements IResourceVisitor {
-        private IProgressMonitor monitor;
+        private final List<GroovyCompilationUnit> units;
 
-        CheckerVisitor(IProgressMonitor monitor) {
-            this.monitor = monitor;
+        CheckerVisitor(List<GroovyCompilationUnit> units) {
+            this.units = units;
         }
 
         public boolean visit(IResource resource) throws CoreException {
             if (resource.isDerived()) {
                 return false;
             }
-            
+
             handler.handleResourceStart(resource);
-            
+
             if (resource.getType() == IResource.FILE && ContentTypeUtils.isGroovyLikeFileName(resource.getName())) {
                 if (Util.isExcluded(resource, includes, excludes)) {
                     return false;
                 }
-                
+
                 GroovyCompilationUnit unit = (GroovyCompilationUnit) JavaCore.create((IFile) resource);
                 if (unit != null && unit.isOnBuildPath()) {
-                    if (monitor.isCanceled()) {
-                        throw new OperationCanceledException();
-                    }
-                    monitor.subTask(resource.getName());
-                    handler.setResource((IFile) resource);
-                    Map<Integer, String> commentsMap = findComments(unit);
-                    StaticTypeCheckerRequestor requestor = new StaticTypeCheckerRequestor(handler, commentsMap, onlyAssertions);
-                    TypeInferencingVisitorWithRequestor visitor = new TypeInferencingVisitorFactory().createVisitor(unit);
-                    try {
-                        unit.becomeWorkingCopy(monitor);
-                        visitor.visitCompilationUnit(requestor);
-                    } finally {
-                        unit.discardWorkingCopy();
-                    }
+                    units.add(unit);
                 }
             }
             return true;
         }
-
-        private Map<Integer, String> findComments(GroovyCompilationUnit unit) {
-            List<Comment> comments = unit.getModuleNode().getContext().getComments();
-            Map<Integer, String> allComments = new HashMap<Integer, String>(comments.size());
-            for (Comment comment : comments) {
-                StringTokenizer stok = new StringTokenizer(comment.toString());
-                String type = null;
-                if (stok.hasMoreTokens()) {
-                    // consume the comment start
-                    String val = stok.nextToken();
-                    int typeIndex = val.indexOf("TYPE:");
-                    if (typeIndex > 0) {
-                        type = val.substring(typeIndex + "TYPE:".length());
-                        if (type.length() == 0) {
-                            type = null;
-                        }
-                    }
-                }
-                String candidate;
-                if (stok.hasMoreTokens() && (candidate = stok.nextToken()).startsWith("TYPE:")) {
-                    // may or may not have a space after the colon
-                    if (candidate.equals("TYPE:")) {
-                        if (stok.hasMoreTokens()) {
-                            type = stok.nextToken();
-                        }
-                    } else {
-                        String[] split = candidate.split("\\:");
-                        type = split[1];
-                    }
-                }
-                if (type != null) {
-                    allComments.put(comment.sline, type);
-                }
-            }
-            return allComments;
-        }
     }
-    
+
     private final IStaticCheckerHandler handler;
     private final List<IResource> resources;
 
     protected boolean onlyAssertions;
     protected final char[][] includes;
     protected final char[][] excludes;
-    
+
+    private int workers = 1;
+    private StaticCheckerReport report;
+
     public ResourceTypeChecker(IStaticCheckerHandler handler, String projectName, char[][] includes, char[][] excludes, boolean onlyAssertions) {
         this(handler, createProject(projectName), includes, excludes, onlyAssertions);
     }
@@ -150,6 +112,23 @@ public class ResourceTypeChecker {
         return Collections.<IResource>singletonList(project);
     }
 
+    /**
+     * @param workers number of files to check concurrently; 1 (the default) checks on the calling thread
+     */
+    public void setWorkers(int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Invalid number of workers: " + workers);
+        }
+        this.workers = workers;
+    }
+
+    /**
+     * @return results of the last {@link #doCheck(IProgressMonitor)}, or null if not run yet
+     */
+    public StaticCheckerReport getReport() {
+        return report;
+    }
+
     /**
      * Performs the tpe checking on the selected resources.
      * @param monitor progress monitor, can be null
@@ -160,15 +139,132 @@ public class ResourceTypeChecker {
         if (monitor == null) {
             monitor = new NullProgressMonitor();
         }
-        monitor.beginTask("Static type analysis", resources.size());
+        List<GroovyCompilationUnit> units = new ArrayList<GroovyCompilationUnit>();
         for (IResource resource : resources) {
             if (monitor.isCanceled()) {
                 throw new OperationCanceledException();
             }
-            CheckerVisitor visitor = new CheckerVisitor(monitor);
-            resource.accept(visitor);
-            monitor.worked(1);
+            resource.accept(new CheckerVisitor(units));
+        }
+
+        monitor.beginTask("Static type analysis", units.size());
+        List<CheckedFile> results = (workers > 1 && units.size() > 1) ? checkInParallel(units, monitor) : checkInSequence(units, monitor);
+        report = new StaticCheckerReport(results);
+        for (CheckedFile result : results) {
+            result.replay(handler);
         }
+        monitor.done();
         return handler.finish(null);
     }
+
+    private List<CheckedFile> checkInSequence(List<GroovyCompilationUnit> units, IProgressMonitor monitor) throws CoreException {
+        List<CheckedFile> results = new ArrayList<CheckedFile>(units.size());
+        for (GroovyCompilationUnit unit : units) {
+            if (monitor.isCanceled()) {
+                throw new OperationCanceledException();
+            }
+            monitor.subTask(unit.getElementName());
+            results.add(check(unit, monitor));
+            monitor.worked(1);
+        }
+        return results;
+    }
+
+    private List<CheckedFile> checkInParallel(List<GroovyCompilationUnit> units, final IProgressMonitor monitor) throws CoreException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(workers, units.size()));
+        try {
+            List<Future<CheckedFile>> futures = new ArrayList<Future<CheckedFile>>(units.size());
+            for (final GroovyCompilationUnit unit : units) {
+                futures.add(executor.submit(new Callable<CheckedFile>() {
+                    public CheckedFile call() throws CoreException {
+                        if (monitor.isCanceled()) {
+                            throw new OperationCanceledException();
+                        }
+                        return check(unit, null);
+                    }
+                }));
+            }
+            // progress is reported from this thread only, in workspace order
+            List<CheckedFile> results = new ArrayList<CheckedFile>(units.size());
+            for (Future<CheckedFile> future : futures) {
+                if (monitor.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+                CheckedFile result = future.get();
+                monitor.subTask(result.getFile().getName());
+                results.add(result);
+                monitor.worked(1);
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationCanceledException();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CoreException) {
+                throw (CoreException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private CheckedFile check(GroovyCompilationUnit unit, IProgressMonitor monitor) throws CoreException {
+        long start = System.currentTimeMillis();
+        CheckedFile result = new CheckedFile((IFile) unit.getResource());
+        Map<Integer, String> commentsMap = findComments(unit);
+        StaticTypeCheckerRequestor requestor = new StaticTypeCheckerRequestor(result, commentsMap, onlyAssertions);
+        TypeInferencingVisitorWithRequestor visitor = new TypeInferencingVisitorFactory().createVisitor(unit);
+        try {
+            unit.becomeWorkingCopy(monitor);
+            visitor.visitCompilationUnit(requestor);
+        } finally {
+            unit.discardWorkingCopy();
+        }
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    private static Map<Integer, String> findComments(GroovyCompilationUnit unit) {
+        List<Comment> comments = unit.getModuleNode().getContext().getComments();
+        Map<Integer, String> allComments = new HashMap<Integer, String>(comments.size());
+        for (Comment comment : comments) {
+            StringTokenizer stok = new StringTokenizer(comment.toString());
+            String type = null;
+            if (stok.hasMoreTokens()) {
+                // consume the comment start
+                String val = stok.nextToken();
+                int typeIndex = val.indexOf("TYPE:");
+                if (typeIndex > 0) {
+                    type = val.substring(typeIndex + "TYPE:".length());
+                    if (type.length() == 0) {
+                        type = null;
+                    }
+                }
+            }
+            String candidate;
+            if (stok.hasMoreTokens() && (candidate = stok.nextToken()).startsWith("TYPE:")) {
+                // may or may not have a space after the colon
+                if (candidate.equals("TYPE:")) {
+                    if (stok.hasMoreTokens()) {
+                        type = stok.nextToken();
+                    }
+                } else {
+                    String[] split = candidate.split("\\:");
+                    type = split[1];
+                }
+            }
+            if (type != null) {
+                allComments.put(comment.sline, type);
+            }
+        }
+        return allComments;
+    }
 }
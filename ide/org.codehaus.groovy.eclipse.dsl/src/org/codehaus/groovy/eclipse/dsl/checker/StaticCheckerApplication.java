@@ -2,7 +2,11 @@ package org.codehaus.groovy.eclipse.dsl.checker;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
+import java.io.Writer;
 
 import org.codehaus.groovy.eclipse.dsl.GroovyDSLCoreActivator;
 import org.eclipse.core.resources.IFile;
@@ -74,7 +78,11 @@ public class StaticCheckerApplication implements IApplication {
             try {
                 IStaticCheckerHandler handler = new SysoutStaticCheckerHandler(resultFile == null ? System.out : createOutStream(resultFile));
                 ResourceTypeChecker checker = new ResourceTypeChecker(handler, projectName, inclusionFilters, exclusionFilters, assertionsOnly);
+                checker.setWorkers(workers);
                 success = checker.doCheck(null);
+                if (reportFile != null) {
+                    writeReport(checker.getReport());
+                }
             } catch (Exception e) {
                 e.printStackTrace();
             } finally {
@@ -127,6 +135,9 @@ public class StaticCheckerApplication implements IApplication {
     private String projectFolderPath;
     Display display;
     private String resultFile;
+    private String reportFile;
+    private String reportFormat = "json";
+    private int workers = 1;
     
     public Object start(IApplicationContext context) throws Exception {
         processCommandLine((String[]) context.getArguments().get(IApplicationContext.APPLICATION_ARGS));
@@ -144,6 +155,19 @@ public class StaticCheckerApplication implements IApplication {
         return new PrintStream(new File(fileName));
     }
 
+    private void writeReport(StaticCheckerReport report) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(reportFile), "UTF-8");
+        try {
+            if (reportFormat.equals("junit")) {
+                report.writeJUnitXml(writer, projectName);
+            } else {
+                report.writeJson(writer);
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
     public void stop() {
         removeExtraDslds();
     }
@@ -255,6 +279,41 @@ public class StaticCheckerApplication implements IApplication {
                     break;
                 }
                 resultFile = args[++i];
+            } else if (arg.equals("--report_file")) {
+                if (i == args.length-1) {
+                    System.err.println("Missing --report_file argument");
+                    doHelp = true;
+                    break;
+                }
+                reportFile = args[++i];
+            } else if (arg.equals("--report_format")) {
+                if (i == args.length-1) {
+                    System.err.println("Missing --report_format argument");
+                    doHelp = true;
+                    break;
+                }
+                reportFormat = args[++i];
+                if (!reportFormat.equals("json") && !reportFormat.equals("junit")) {
+                    System.err.println("Invalid --report_format argument: " + reportFormat);
+                    doHelp = true;
+                    break;
+                }
+            } else if (arg.equals("--workers")) {
+                if (i == args.length-1) {
+                    System.err.println("Missing --workers argument");
+                    doHelp = true;
+                    break;
+                }
+                try {
+                    workers = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    workers = 0;
+                }
+                if (workers < 1) {
+                    System.err.println("Invalid --workers argument: " + args[i]);
+                    doHelp = true;
+                    break;
+                }
             }
         }
         
@@ -285,7 +344,7 @@ public class StaticCheckerApplication implements IApplication {
         }
         
         System.out.println("Usage:");
-        System.out.println("eclipse -application org.codehause.groovy.eclipse.staticCheck [--help] [-h] [--extra_dslds <FILES>] [--assertions_only] [--excludes <PATH>] [--includes <PATH>] [--project_path <PATH>] <PROJECT_NAME>");
+        System.out.println("eclipse -application org.codehause.groovy.eclipse.staticCheck [--help] [-h] [--extra_dslds <FILES>] [--assertions_only] [--excludes <PATH>] [--includes <PATH>] [--project_path <PATH>] [--result_file <PATH>] [--report_file <PATH>] [--report_format json|junit] [--workers <N>] <PROJECT_NAME>");
         System.out.println("where:");
         System.out.println("\t--help OR -h  Print this message and exit.");
         System.out.println("\t--extra_dslds  list of extra dsld files to be included in this check.  Use '|' as a file separator.");
@@ -294,6 +353,9 @@ public class StaticCheckerApplication implements IApplication {
         System.out.println("\t--includes  Project-relative inclusion filters.");
         System.out.println("\t--project_path  File system path to the project to check (only required if project is not already in workspace).");
         System.out.println("\t--result_file  File to send static checking results to.  If not specified, then results sent to sysout.");
+        System.out.println("\t--report_file  File to write machine-readable results, including per-file timings, to.");
+        System.out.println("\t--report_format  Format of the report file: 'json' (default) or 'junit' (JUnit XML).");
+        System.out.println("\t--workers  Number of files to type check in parallel.  Defaults to 1.");
         System.out.println("\t<PROJECT_NAME>  Name of a project to type check.  If not already in workspace, then must also use '--project_path'.");
         System.out.println();
         System.out.println("Ant style filters are allowed.  Eg, src/org/codehaus/groovy/**/*.groovy means all files with groovy extensions in the org.codehaus.groovy package or below will be ex/included   Filters can be concentenated using '|'.");
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.dsl.checker;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Machine-readable results of a {@link ResourceTypeChecker} run.  Files are
+ * listed in the order they were found in the workspace, regardless of the
+ * order in which they were checked.
+ */
+public class StaticCheckerReport {
+
+    private final List<CheckedFile> files;
+
+    StaticCheckerReport(List<CheckedFile> files) {
+        this.files = Collections.unmodifiableList(files);
+    }
+
+    public List<CheckedFile> getFiles() {
+        return files;
+    }
+
+    public int numProblemsFound() {
+        int count = 0;
+        for (CheckedFile file : files) {
+            count += file.numProblemsFound();
+        }
+        return count;
+    }
+
+    public long getTotalMillis() {
+        long total = 0;
+        for (CheckedFile file : files) {
+            total += file.getElapsedMillis();
+        }
+        return total;
+    }
+
+    public void writeJson(Writer out) throws IOException {
+        out.write("{\n  \"problems\": " + numProblemsFound() + ",\n  \"millis\": " + getTotalMillis() + ",\n  \"files\": [");
+        for (int i = 0, n = files.size(); i < n; i += 1) {
+            CheckedFile file = files.get(i);
+            out.write(i == 0 ? "\n" : ",\n");
+            out.write("    {\"path\": " + json(file.getFile().getFullPath().toString()) + ", \"millis\": " + file.getElapsedMillis() + ", \"problems\": [");
+            List<CheckedFile.Problem> problems = file.getProblems();
+            for (int j = 0, m = problems.size(); j < m; j += 1) {
+                CheckedFile.Problem problem = problems.get(j);
+                out.write(j == 0 ? "\n" : ",\n");
+                out.write("      {\"kind\": " + json(problem.isUnknownReference() ? "unknown" : "assertion") +
+                    ", \"line\": " + problem.getLine() +
+                    ", \"offset\": " + problem.getPosition().getOffset() +
+                    ", \"length\": " + problem.getPosition().getLength() +
+                    ", \"text\": " + json(problem.getText()));
+                if (!problem.isUnknownReference()) {
+                    out.write(", \"expected\": " + json(problem.getExpectedType()) + ", \"actual\": " + json(problem.getActualType()));
+                }
+                out.write("}");
+            }
+            out.write(problems.isEmpty() ? "]}" : "\n    ]}");
+        }
+        out.write(files.isEmpty() ? "]\n}\n" : "\n  ]\n}\n");
+        out.flush();
+    }
+
+    /**
+     * Writes the results as a JUnit XML test suite with one test case per file.
+     */
+    public void writeJUnitXml(Writer out, String suiteName) throws IOException {
+        int failures = 0;
+        for (CheckedFile file : files) {
+            if (file.numProblemsFound() > 0) {
+                failures += 1;
+            }
+        }
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        out.write("<testsuite name=\"" + xml(suiteName) + "\" tests=\"" + files.size() + "\" failures=\"" + failures +
+            "\" errors=\"0\" time=\"" + seconds(getTotalMillis()) + "\">\n");
+        for (CheckedFile file : files) {
+            String path = file.getFile().getFullPath().toString();
+            out.write("  <testcase classname=\"" + xml(suiteName) + "\" name=\"" + xml(path) + "\" time=\"" + seconds(file.getElapsedMillis()) + "\"");
+            if (file.numProblemsFound() == 0) {
+                out.write("/>\n");
+            } else {
+                out.write(">\n    <failure message=\"" + file.numProblemsFound() + " type checking problem(s)\">");
+                for (CheckedFile.Problem problem : file.getProblems()) {
+                    out.write(xml("Line " + problem.getLine() + ": " + (problem.isUnknownReference()
+                        ? "unknown type: " + problem.getText()
+                        : "Invalid inferred type.  " + problem.getText() + "  Expected: " + problem.getExpectedType() + " Actual: " + problem.getActualType())));
+                    out.write("\n");
+                }
+                out.write("</failure>\n  </testcase>\n");
+            }
+        }
+        out.write("</testsuite>\n");
+        out.flush();
+    }
+
+    private static String seconds(long millis) {
+        return String.format(Locale.ENGLISH, "%.3f", millis / 1000.0);
+    }
+
+    private static String json(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0, n = value.length(); i < n; i += 1) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                sb.append("\\\"");
+                break;
+            case '\\':
+                sb.append("\\\\");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    sb.append(String.format("\\u%04x", (int) c));
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String xml(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0, n = value.length(); i < n; i += 1) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '<':
+                sb.append("&lt;");
+                break;
+            case '>':
+                sb.append("&gt;");
+                break;
+            case '&':
+                sb.append("&amp;");
+                break;
+            case '"':
+                sb.append("&quot;");
+                break;
+            default:
+                if (c < 0x20 && c != '\n' && c != '\t' && c != '\r') {
+                    sb.append(' ');
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -18,6 +18,7 @@ package org.codehaus.groovy.eclipse.dsl.contributions;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -60,81 +61,146 @@ public class DSLContributionGroup extends ContributionGroup {
     private static final ParameterContribution[] NO_PARAMS = {};
 
     /**
-     * The closure that comes from the DSLD script.
-     * It's delegate is set to <code>this</code>.
+     * The closure that comes from the DSLD script.  It is not called directly;
+     * each evaluation calls a copy whose delegate is a new group that holds
+     * the state of that evaluation.  So evaluations (eg- from reconciling and
+     * content assist at the same time) need no lock and can be re-entered.
      */
     @SuppressWarnings("rawtypes")
     private final Closure contributionClosure;
 
-    private VariableScope scope;
+    // state of one evaluation of the closure:
+
+    private final VariableScope scope;
 
     // provider that is set for the entire contribution group; individual contributions can override
     private String provider;
 
-    private IJavaProject project;
+    private final IJavaProject project;
 
-    private ResolverCache resolver;
+    private final ResolverCache resolver;
 
-    private Map<String, Collection<Object>> bindings;
+    private final Map<String, Collection<Object>> bindings;
 
     private ClassNode currentType;
 
-    private Map<String, Object> wormhole;
+    private final Map<String, Object> wormhole;
+
+    private final boolean staticScope;
 
-    private boolean staticScope;
+    private final boolean isPrimaryExpression;
 
-    private boolean isPrimaryExpression;
+    // false once the closure has used state that is not part of the evaluation key
+    private boolean memoizable = true;
 
     public DSLContributionGroup(@SuppressWarnings("rawtypes") Closure contributionClosure) {
         this.contributionClosure = contributionClosure;
-        if (contributionClosure != null) {
-            contributionClosure.setDelegate(this);
-            contributionClosure.setResolveStrategy(Closure.DELEGATE_FIRST);
-        }
+        this.scope = null;
+        this.project = null;
+        this.resolver = null;
+        this.bindings = null;
+        this.wormhole = null;
+        this.staticScope = false;
+        this.isPrimaryExpression = false;
+    }
+
+    /**
+     * Creates the delegate for one evaluation of a contribution closure.
+     */
+    private DSLContributionGroup(GroovyDSLDContext pattern, BindingSet matches) {
+        this.contributionClosure = null;
+        this.scope = pattern.getCurrentScope();
+        this.project = pattern.getCurrentProject();
+        this.resolver = pattern.getResolverCache();
+        this.bindings = matches.getBindings();
+        this.currentType = pattern.getCurrentType();
+        this.wormhole = scope.getWormhole();
+        this.staticScope = pattern.isStatic();
+        this.isPrimaryExpression = pattern.isPrimaryNode();
     }
 
     /**
      * This is the main entry point into the contribution
      */
     public List<IContributionElement> getContributions(GroovyDSLDContext pattern, BindingSet matches) {
-        // uh oh...needs to be synchronized, or can we make this class stateless?
-        synchronized (this) {
-            List<IContributionElement> result;
-            try {
-                this.contributions = new ArrayList<IContributionElement>();
-                this.scope = pattern.getCurrentScope();
-                this.project = pattern.getCurrentProject();
-                this.resolver = pattern.getResolverCache();
-                this.bindings = matches.getBindings();
-                this.currentType = pattern.getCurrentType();
-                this.wormhole = scope.getWormhole();
-                this.staticScope = pattern.isStatic();
-                this.isPrimaryExpression = pattern.isPrimaryNode();
-                contributionClosure.call();
-            } catch (Exception e) {
-                GroovyLogManager.manager.logException(TraceCategory.DSL, e);
-            } finally {
-                result = contributions;
-                // must set targetType here in case someone changed the delegate on us
-                pattern.setTargetType(currentType);
-                this.contributions = null;
-                this.scope = null;
-                this.resolver = null;
-                this.bindings = null;
-                this.currentType = null;
-                this.wormhole = null;
+        EvaluationKey key = null;
+        if (pattern.isContributionCacheEnabled()) {
+            key = new EvaluationKey(this, pattern, matches);
+            List<IContributionElement> cached = pattern.getCachedContributions(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        DSLContributionGroup delegate = new DSLContributionGroup(pattern, matches);
+        try {
+            @SuppressWarnings("rawtypes")
+            Closure closure = (Closure) contributionClosure.clone();
+            closure.setDelegate(delegate);
+            closure.setResolveStrategy(Closure.DELEGATE_FIRST);
+            closure.call();
+            if (key != null && delegate.memoizable) {
+                pattern.cacheContributions(key, Collections.unmodifiableList(delegate.contributions));
+            }
+        } catch (Exception e) {
+            GroovyLogManager.manager.logException(TraceCategory.DSL, e);
+        } finally {
+            // must set targetType here in case someone changed the delegate on us
+            pattern.setTargetType(delegate.currentType);
+        }
+        return delegate.contributions;
+    }
+
+    /**
+     * The inputs of an evaluation of a contribution closure.  Evaluations with
+     * equal keys produce the same contributions unless the closure looks at
+     * the scope (eg- the wormhole or the current node) or changes it.
+     */
+    private static final class EvaluationKey {
+        private final DSLContributionGroup group;
+        private final String currentType;
+        private final boolean isStatic;
+        private final boolean isPrimaryNode;
+        private final Map<String, Collection<Object>> bindings;
+        private final int hash;
+
+        EvaluationKey(DSLContributionGroup group, GroovyDSLDContext pattern, BindingSet matches) {
+            this.group = group;
+            // the type name includes type arguments, which delegatesTo uses
+            this.currentType = (pattern.getCurrentType() != null ? getTypeName(pattern.getCurrentType()) : null);
+            this.isStatic = pattern.isStatic();
+            this.isPrimaryNode = pattern.isPrimaryNode();
+            this.bindings = new HashMap<String, Collection<Object>>(matches.getBindings());
+            this.hash = ((System.identityHashCode(group) * 31 + (currentType != null ? currentType.hashCode() : 0)) * 31 +
+                bindings.hashCode()) * 4 + (isStatic ? 2 : 0) + (isPrimaryNode ? 1 : 0);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof EvaluationKey)) {
+                return false;
             }
-            return result;
+            EvaluationKey that = (EvaluationKey) obj;
+            return this.group == that.group && this.isStatic == that.isStatic && this.isPrimaryNode == that.isPrimaryNode &&
+                (this.currentType == null ? that.currentType == null : this.currentType.equals(that.currentType)) &&
+                this.bindings.equals(that.bindings);
         }
     }
 
     @Override
     public Object getProperty(String property) {
         if ("wormhole".equals(property)) {
+            memoizable = false;
             return wormhole;
         } else if ("currentNode".equals(property)) {
+            memoizable = false;
             return scope.getCurrentNode();
         } else if ("enclosingNode".equals(property)) {
+            memoizable = false;
             return scope.getEnclosingNode();
         } else if ("currentType".equals(property)) {
             return currentType;
@@ -507,6 +573,8 @@ public class DSLContributionGroup extends ContributionGroup {
     }
 
     void setDelegateType(Object arg) {
+        // changes the scope, so must be done on every evaluation
+        memoizable = false;
         ClassNode delegate = asClassNode(arg);
         if (delegate != null) {
             // also need to set targetType, but only if primary expression
@@ -46,6 +46,9 @@ public class DSLDTypeLookup extends AbstractSimplifiedTypeLookup implements ITyp
 
     private static final String GORM_SIGNATURE = "Provided by Grails ORM DSL";
 
+    /** Contribution closures are evaluated only once for the same inputs during an inference pass, unless this is set. */
+    private static final boolean NO_MEMOIZE = Boolean.getBoolean("greclipse.dsld.noMemoize");
+
     DSLDStoreManager contextStoreManager = GroovyDSLCoreActivator.getDefault().getContextStoreManager();
 
     private DSLDStore store;
@@ -68,6 +71,9 @@ public class DSLDTypeLookup extends AbstractSimplifiedTypeLookup implements ITyp
         try {
             pattern = new GroovyDSLDContext(unit, module, resolver);
             pattern.setCurrentScope(topLevelScope);
+            if (!NO_MEMOIZE) {
+                pattern.enableContributionCache();
+            }
         } catch (CoreException e) {
             GroovyDSLCoreActivator.logException(e);
         }
@@ -16,11 +16,15 @@
 package org.codehaus.groovy.eclipse.dsl.pointcuts;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.codehaus.groovy.ast.ClassNode;
 import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.eclipse.dsl.contributions.IContributionElement;
 import org.codehaus.groovy.eclipse.dsl.lookup.ResolverCache;
 import org.codehaus.jdt.groovy.internal.compiler.ast.JDTResolver;
 import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
@@ -264,6 +268,36 @@ public class GroovyDSLDContext {
         return isStatic;
     }
 
+    /**
+     * Contributions already computed during this inference pass, by contribution
+     * group and evaluation inputs; {@code null} if they are not kept.
+     */
+    private Map<Object, List<IContributionElement>> contributionCache;
+
+    /**
+     * Lets contribution groups reuse their contributions for the rest of this
+     * inference pass.  Only the type lookup should use this method.
+     */
+    public void enableContributionCache() {
+        if (contributionCache == null) {
+            contributionCache = new HashMap<Object, List<IContributionElement>>();
+        }
+    }
+
+    public boolean isContributionCacheEnabled() {
+        return contributionCache != null;
+    }
+
+    public List<IContributionElement> getCachedContributions(Object key) {
+        return contributionCache != null ? contributionCache.get(key) : null;
+    }
+
+    public void cacheContributions(Object key, List<IContributionElement> contributions) {
+        if (contributionCache != null) {
+            contributionCache.put(key, contributions);
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
@@ -81,4 +81,7 @@ public class PreferenceConstants {
     // Save Actions
     public static final String GROOVY_SAVE_ACTION_REMOVE_UNNECESSARY_SEMICOLONS = "groovy.SaveAction.RemoveUnnecessarySemicolons";
 
+    /** milliseconds the save actions of an editor may take before they are abandoned; 0 (the default) for no limit */
+    public static final String GROOVY_SAVE_ACTION_TIME_BUDGET = "groovy.SaveAction.TimeBudget";
+
 }
@@ -15,7 +15,6 @@
  */
 package org.codehaus.groovy.eclipse.refactoring.formatter;
 
-import java.util.Map.Entry;
 import java.util.Vector;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -32,10 +31,7 @@ import org.codehaus.groovy.ast.stmt.ReturnStatement;
 import org.codehaus.groovy.ast.stmt.Statement;
 import org.codehaus.groovy.eclipse.core.GroovyCore;
 import org.codehaus.groovy.eclipse.refactoring.core.utils.ASTTools;
-import org.codehaus.groovy.eclipse.refactoring.core.utils.astScanner.ASTNodeInfo;
-import org.codehaus.groovy.eclipse.refactoring.core.utils.astScanner.ASTScanner;
 import org.codehaus.groovy.eclipse.refactoring.core.utils.astScanner.predicates.IncludesClosureOrListPredicate;
-import org.codehaus.groovy.eclipse.refactoring.core.utils.astScanner.predicates.SourceCodePredicate;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
@@ -60,6 +56,7 @@ public class DefaultGroovyFormatter extends GroovyFormatter {
     public int formatOffset, formatLength;
 
     private KlenkDocumentScanner tokens;
+    private FormatterNodeIndex nodeIndex;
     private int indentationLevel = 0;
 
     /**
@@ -107,6 +104,7 @@ public class DefaultGroovyFormatter extends GroovyFormatter {
         GroovyCore.trace(formattedDocument.get());
         tokens = new KlenkDocumentScanner(formattedDocument);
         rootNode = ASTTools.getASTNodeFromSource(formattedDocument.get());
+        nodeIndex = null;
         if (rootNode == null) {
             // caused by unparseable file
             throw new Exception("Could not format.  Problem parsing Compilation unit.  Fix all syntax errors and try again.");
@@ -222,24 +220,16 @@ public class DefaultGroovyFormatter extends GroovyFormatter {
      *         length
      */
     public ASTNode findCorrespondingNode(Token t) {
-
-        ASTScanner scanner = new ASTScanner(rootNode,
-                                            new SourceCodePredicate(t.getLine(), t.getColumn()),
-                                            formattedDocument);
-        scanner.startASTscan();
-        Entry<ASTNode, ASTNodeInfo> found = null;
-        if (scanner.hasMatches()) {
-            for (Entry<ASTNode, ASTNodeInfo> e : scanner.getMatchedNodes().entrySet()) {
-                if (found == null || (found.getValue().getLength() < e.getValue().getLength()))
-                    found = e;
+        ASTNode found = null;
+        int foundLength = 0;
+        for (ASTNode node : getNodeIndex().getNodesAt(t.getLine(), t.getColumn())) {
+            int length = ASTTools.hasValidPosition(node) ? node.getEnd() - node.getStart() : 0;
+            if (found == null || foundLength < length) {
+                found = node;
+                foundLength = length;
             }
         }
-
-        if (found != null) {
-            return found.getKey();
-        } else {
-            return null;
-        }
+        return found;
     }
 
     /**
@@ -250,18 +240,15 @@ public class DefaultGroovyFormatter extends GroovyFormatter {
      * @return
      */
     public ClosureExpression findCorrespondingClosure(Token t) {
-        ASTScanner scanner = new ASTScanner(rootNode, new SourceCodePredicate(t.getLine(), t.getColumn()), formattedDocument);
-        scanner.startASTscan();
         ClosureExpression found = null;
-        if (scanner.hasMatches()) {
-            for (Entry<ASTNode, ASTNodeInfo> e : scanner.getMatchedNodes().entrySet()) {
-                if (e.getKey() instanceof ClosureExpression) {
-                    found = (ClosureExpression) e.getKey();
-                }
+        for (ASTNode node : getNodeIndex().getNodesAt(t.getLine(), t.getColumn())) {
+            if (node instanceof ClosureExpression) {
+                found = (ClosureExpression) node;
             }
         }
         return found;
     }
+
     /**
      * Return a token after many () if there is no opening {
      *
@@ -447,6 +434,16 @@ public class DefaultGroovyFormatter extends GroovyFormatter {
         return rootNode;
     }
 
+    /**
+     * @return the node index of the current root node, built on first use
+     */
+    public FormatterNodeIndex getNodeIndex() {
+        if (nodeIndex == null) {
+            nodeIndex = new FormatterNodeIndex(rootNode, formattedDocument);
+        }
+        return nodeIndex;
+    }
+
     public KlenkDocumentScanner getTokens() {
         return tokens;
     }
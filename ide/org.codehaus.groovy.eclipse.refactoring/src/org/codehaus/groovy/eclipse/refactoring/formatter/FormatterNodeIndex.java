@@ -0,0 +1,104 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.refactoring.formatter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.expr.ClosureExpression;
+import org.codehaus.groovy.ast.expr.ListExpression;
+import org.codehaus.groovy.eclipse.refactoring.core.utils.ASTTools;
+import org.codehaus.groovy.eclipse.refactoring.core.utils.astScanner.ASTScanner;
+import org.codehaus.groovy.eclipse.refactoring.core.utils.astScanner.predicates.IASTNodePredicate;
+import org.eclipse.jface.text.IDocument;
+
+/**
+ * The facts about a module's AST that the formatter needs, collected by a
+ * single scan: the closure and list expressions in visit order, and the
+ * nodes that start at each line and column.  Replaces one {@link ASTScanner}
+ * pass per predicate and per token.
+ */
+public class FormatterNodeIndex {
+
+    private final List<ClosureExpression> closures = new ArrayList<ClosureExpression>();
+    private final List<ListExpression> lists = new ArrayList<ListExpression>();
+    /** nodes by start position, each list in visit order */
+    private final Map<Long, List<ASTNode>> nodesByPosition = new HashMap<Long, List<ASTNode>>();
+
+    public FormatterNodeIndex(ModuleNode rootNode, IDocument document) {
+        // the scanner visits some nodes more than once; keep the first visit only
+        final Set<ASTNode> nodes = new LinkedHashSet<ASTNode>();
+        new ASTScanner(rootNode, new IASTNodePredicate() {
+            public ASTNode evaluate(ASTNode input) {
+                nodes.add(input);
+                return null;
+            }
+        }, document).startASTscan();
+
+        for (ASTNode node : nodes) {
+            if (ASTTools.hasValidPosition(node)) {
+                if (node instanceof ClosureExpression) {
+                    closures.add((ClosureExpression) node);
+                } else if (node.getClass() == ListExpression.class) {
+                    lists.add((ListExpression) node);
+                }
+            }
+            Long key = position(node.getLineNumber(), node.getColumnNumber());
+            List<ASTNode> atPosition = nodesByPosition.get(key);
+            if (atPosition == null) {
+                atPosition = new ArrayList<ASTNode>(2);
+                nodesByPosition.put(key, atPosition);
+            }
+            atPosition.add(node);
+        }
+    }
+
+    /**
+     * @return closure expressions with a valid source position
+     */
+    public List<ClosureExpression> getClosures() {
+        return closures;
+    }
+
+    /**
+     * @return list expressions (but not subtypes) with a valid source position
+     */
+    public List<ListExpression> getLists() {
+        return lists;
+    }
+
+    /**
+     * @return nodes that start at the given line and column, in visit order
+     */
+    public List<ASTNode> getNodesAt(int line, int column) {
+        List<ASTNode> atPosition = nodesByPosition.get(position(line, column));
+        if (atPosition == null) {
+            return Collections.emptyList();
+        }
+        return atPosition;
+    }
+
+    private static Long position(int line, int column) {
+        return Long.valueOf(((long) line << 32) | (column & 0xFFFFFFFFL));
+    }
+}
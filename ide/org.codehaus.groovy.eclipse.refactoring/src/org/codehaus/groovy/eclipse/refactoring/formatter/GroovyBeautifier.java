@@ -33,8 +33,6 @@ import org.codehaus.groovy.ast.expr.ListExpression;
 import org.codehaus.groovy.ast.stmt.BlockStatement;
 import org.codehaus.groovy.eclipse.core.GroovyCore;
 import org.codehaus.groovy.eclipse.refactoring.PreferenceConstants;
-import org.codehaus.groovy.eclipse.refactoring.core.utils.astScanner.ASTScanner;
-import org.codehaus.groovy.eclipse.refactoring.core.utils.astScanner.predicates.ClosuresInCodePredicate;
 import org.codehaus.groovy.eclipse.refactoring.formatter.lineWrap.CorrectLineWrap;
 import org.codehaus.groovy.eclipse.refactoring.formatter.lineWrap.NextLine;
 import org.codehaus.groovy.eclipse.refactoring.formatter.lineWrap.SameLine;
@@ -77,11 +75,7 @@ public class GroovyBeautifier {
 	}
 
     private void formatLists(MultiTextEdit edits) {
-        ASTScanner scanner = new ASTScanner(formatter.getProgressRootNode(), new ListInCodePredicate(),
-                formatter.getProgressDocument());
-        scanner.startASTscan();
-        for(ASTNode _node : scanner.getMatchedNodes().keySet()) {
-            ListExpression node = ((ListExpression)_node);
+        for (ListExpression node : formatter.getNodeIndex().getLists()) {
 
             GroovyDocumentScanner tokens = formatter.getTokens();
             Token lastToken = null;
@@ -210,10 +204,7 @@ public class GroovyBeautifier {
     }
 
     private void combineClosures(MultiTextEdit edits) throws BadLocationException {
-		ASTScanner scanner = new ASTScanner(formatter.getProgressRootNode(),new ClosuresInCodePredicate(),formatter.getProgressDocument());
-		scanner.startASTscan();
-		for(ASTNode node : scanner.getMatchedNodes().keySet()) {
-			ClosureExpression clExp = ((ClosureExpression)node);
+		for (ClosureExpression clExp : formatter.getNodeIndex().getClosures()) {
 
             int posClStart = formatter.getPosOfToken(GroovyTokenTypeBridge.LCURLY, clExp.getLineNumber(), clExp.getColumnNumber(),
                     "{");
@@ -21,7 +21,9 @@ import org.codehaus.groovy.eclipse.debug.ui.GroovyDebugOptionsEnforcer;
 import org.codehaus.groovy.eclipse.debug.ui.GroovyJavaDebugElementAdapterFactory;
 import org.codehaus.groovy.eclipse.editor.GroovyOutlineTools;
 import org.codehaus.groovy.eclipse.editor.GroovyTextTools;
+import org.codehaus.groovy.eclipse.refactoring.actions.ContentBasedGroovyCleanUp;
 import org.codehaus.groovy.eclipse.refactoring.actions.DelegatingCleanUpPostSaveListener;
+import org.codehaus.groovy.eclipse.refactoring.actions.TypeNameTable;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
@@ -132,6 +134,8 @@ public class GroovyPlugin extends AbstractUIPlugin {
         outlineTools = null;
 
         DelegatingCleanUpPostSaveListener.uninstallCleanUp();
+        ContentBasedGroovyCleanUp.shutdownExecutor();
+        TypeNameTable.dispose();
         removeMonospaceFontListener();
     }
 
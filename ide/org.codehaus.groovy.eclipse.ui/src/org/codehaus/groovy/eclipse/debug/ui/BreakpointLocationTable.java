@@ -0,0 +1,139 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.debug.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.FieldNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.expr.ClosureExpression;
+import org.codehaus.groovy.ast.expr.DeclarationExpression;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.stmt.Statement;
+import org.codehaus.groovy.eclipse.core.search.LexicalClassVisitor;
+
+/**
+ * Valid breakpoint location of each source line of a module.  The table is
+ * built by one lexical pass over the module and is cached in the module's
+ * meta data, so updating many breakpoint markers does not walk the module
+ * once per marker.
+ * <p>
+ * The location for a line is the last valid node on that line, or if there
+ * is none, the first valid node after it (see {@link ValidBreakpointLocationFinder}).
+ */
+public final class BreakpointLocationTable {
+
+    public static BreakpointLocationTable forModule(ModuleNode module) {
+        synchronized (module) {
+            BreakpointLocationTable table = (BreakpointLocationTable) module.getNodeMetaData(BreakpointLocationTable.class);
+            if (table == null) {
+                table = new BreakpointLocationTable(module);
+                module.putNodeMetaData(BreakpointLocationTable.class, table);
+            }
+            return table;
+        }
+    }
+
+    /** line numbers that have a location of their own, ascending */
+    private final int[] lines;
+    /** last valid node of each line in {@link #lines} */
+    private final ASTNode[] locations;
+    /** first valid node of each line in {@link #lines} */
+    private final ASTNode[] firsts;
+
+    private BreakpointLocationTable(ModuleNode module) {
+        List<Integer> lineList = new ArrayList<Integer>();
+        List<ASTNode> lastList = new ArrayList<ASTNode>();
+        List<ASTNode> firstList = new ArrayList<ASTNode>();
+
+        // a node only counts if no node before it is on a later line; the
+        // line numbers of the nodes that count never decrease
+        int maxLine = Integer.MIN_VALUE;
+        for (ASTNode node : collectValidNodes(module)) {
+            int line = node.getLineNumber();
+            if (line > maxLine) {
+                maxLine = line;
+                lineList.add(line);
+                lastList.add(node);
+                firstList.add(node);
+            } else if (line == maxLine) {
+                lastList.set(lastList.size() - 1, node);
+            }
+        }
+
+        int n = lineList.size();
+        this.lines = new int[n];
+        for (int i = 0; i < n; i += 1) {
+            lines[i] = lineList.get(i);
+        }
+        this.locations = lastList.toArray(new ASTNode[n]);
+        this.firsts = firstList.toArray(new ASTNode[n]);
+    }
+
+    /**
+     * @return the location for a breakpoint on the given (1-based) line, or
+     *         {@code null} if there is no valid location on or after the line
+     */
+    public ASTNode getLocation(int line) {
+        int lo = 0, hi = lines.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (lines[mid] < line) {
+                lo = mid + 1;
+            } else if (lines[mid] > line) {
+                hi = mid - 1;
+            } else {
+                return locations[mid];
+            }
+        }
+        // no location on the line; use the first node on a following line
+        return (lo < lines.length ? firsts[lo] : null);
+    }
+
+    private static List<ASTNode> collectValidNodes(ModuleNode module) {
+        List<ASTNode> nodes = new ArrayList<ASTNode>();
+        LexicalClassVisitor visitor = new LexicalClassVisitor(module);
+        boolean skipNext = false;
+        while (visitor.hasNextNode()) {
+            ASTNode node = visitor.getNextNode();
+            // can't set a breakpoint at a variable declaration that has
+            // no initializer
+            if (node instanceof DeclarationExpression) {
+                skipNext = true;
+                Expression rightExpression = ((DeclarationExpression) node).getRightExpression();
+                if (rightExpression == null || "null".equals(rightExpression.getText())) {
+                    continue;
+                }
+            } else if (skipNext) {
+                // variable expression in a declaration expression with no
+                // initializer
+                skipNext = false;
+            } else if (isValid(node)) {
+                nodes.add(node);
+            }
+        }
+        return nodes;
+    }
+
+    private static boolean isValid(ASTNode node) {
+        // can't set a breakpoint at these locations
+        return !(node.getLineNumber() == -1 || node instanceof Statement || node instanceof ClosureExpression ||
+            node instanceof ClassNode || /* node instanceof MethodNode || */node instanceof FieldNode);
+    }
+}
@@ -107,8 +107,7 @@ public class BreakpointLocationVerifierJob extends Job {
             if (fBreakpoint != null) {
                 DebugPlugin.getDefault().getBreakpointManager().removeBreakpoint(fBreakpoint, true);
             }
-            ValidBreakpointLocationFinder finder = new ValidBreakpointLocationFinder(fLineNumber);
-            ASTNode valid = finder.findValidBreakpointLocation(node);
+            ASTNode valid = BreakpointLocationTable.forModule(node).getLocation(fLineNumber);
             if (valid instanceof MethodNode && ((MethodNode) valid).getNameEnd() > 0) {
                 createNewMethodBreakpoint((MethodNode) valid, fTypeName);
                 return new Status(IStatus.OK, JDIDebugUIPlugin.getUniqueIdentifier(), ActionMessages.BreakpointLocationVerifierJob_breakpoint_set);
@@ -17,6 +17,7 @@
 package org.codehaus.groovy.eclipse.debug.ui;
 
 import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.ModuleNode;
 import org.codehaus.groovy.eclipse.core.GroovyCore;
 import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
 import org.eclipse.core.resources.IFile;
@@ -76,9 +77,12 @@ public class BreakpointUpdater implements IMarkerUpdater {
         try {
             Object attribute = marker.getAttribute(IMarker.LINE_NUMBER);
             if (attribute != null) {
-                ValidBreakpointLocationFinder finder = new ValidBreakpointLocationFinder(
-                        ((Integer) attribute).intValue());
-                ASTNode validNode = finder.findValidBreakpointLocation(unit.getModuleNode());
+                ModuleNode module = unit.getModuleNode();
+                if (module == null) {
+                    // can't check the location; leave the marker as is
+                    return true;
+                }
+                ASTNode validNode = BreakpointLocationTable.forModule(module).getLocation(((Integer) attribute).intValue());
                 if (validNode == null) {
                     return false;
                 }
@@ -172,14 +172,14 @@ public abstract class AbstractGroovyLaunchShortcut  implements ILaunchShortcut {
 
         // if unit is null, then we are not looking for a run type
         if (unit != null) {
-            IType[] types = null;
+            List<IType> candidates;
             try {
-                types = unit.getAllTypes();
+                candidates = GroovyProjectFacade.findAllRunnableTypes(unit);
             } catch (JavaModelException e) {
                 GroovyCore.errorRunningGroovy(e);
                 return;
             }
-            runType = findClassToRun(types);
+            runType = chooseClassToRun(candidates);
             if (runType == null) {
                 GroovyCore.errorRunningGroovy(new Exception(msg));
                 return;
@@ -192,7 +192,7 @@ public abstract class AbstractGroovyLaunchShortcut  implements ILaunchShortcut {
                     runType != null ? runType.getElementName() : javaProject.getElementName());
             workingConfig.setAttribute(
                     IJavaLaunchConfigurationConstants.ATTR_CLASSPATH, Arrays.asList(
-                            JavaRuntime.computeDefaultRuntimeClassPath(javaProject)));
+                            computeDefaultRuntimeClassPath(javaProject)));
             ILaunchConfiguration config = workingConfig.doSave();
             DebugUITools.launch(config, mode);
         } catch (CoreException e) {
@@ -284,8 +284,28 @@ public abstract class AbstractGroovyLaunchShortcut  implements ILaunchShortcut {
         }
     }
 
+    private static String[] computeDefaultRuntimeClassPath(IJavaProject javaProject) throws CoreException {
+        String[] classpath = LaunchClasspathCache.getRuntimeClasspath(javaProject.getProject());
+        if (classpath == null) {
+            int stamp = LaunchClasspathCache.getStamp();
+            classpath = JavaRuntime.computeDefaultRuntimeClassPath(javaProject);
+            LaunchClasspathCache.putRuntimeClasspath(javaProject.getProject(), classpath, stamp);
+        }
+        return classpath;
+    }
+
     /* make protected for testing purposes */
     protected String generateClasspath(IJavaProject javaProject) {
+        String classpath = LaunchClasspathCache.getScriptClasspath(javaProject.getProject());
+        if (classpath == null) {
+            int stamp = LaunchClasspathCache.getStamp();
+            classpath = computeClasspath(javaProject);
+            LaunchClasspathCache.putScriptClasspath(javaProject.getProject(), classpath, stamp);
+        }
+        return classpath;
+    }
+
+    private String computeClasspath(IJavaProject javaProject) {
         SortedSet<String> sourceEntries = new TreeSet<String>();
         SortedSet<String> binEntries = new TreeSet<String>();
         addClasspathEntriesForProject(javaProject, sourceEntries, binEntries);
@@ -410,14 +430,17 @@ public abstract class AbstractGroovyLaunchShortcut  implements ILaunchShortcut {
      * @throws OperationCanceledException If the user selects cancel
      */
     public IType findClassToRun(IType[] types) {
-        IType returnValue = null;
         List<IType> candidates = new ArrayList<IType>();
         for (int i = 0; i < types.length; i++) {
             if (GroovyProjectFacade.hasRunnableMain(types[i])) {
                 candidates.add(types[i]);
             }
         }
+        return chooseClassToRun(candidates);
+    }
 
+    private IType chooseClassToRun(List<IType> candidates) {
+        IType returnValue = null;
         if (candidates.size() == 1) {
             returnValue = candidates.get(0);
         } else {
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.launchers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.JavaCore;
+
+/**
+ * The classpaths computed for launching scripts, kept per project until the
+ * classpath of any project changes or a project is added, removed, opened or
+ * closed.  A project's launch classpath takes in the projects it depends on,
+ * so every entry is dropped on any such change.
+ */
+final class LaunchClasspathCache {
+
+    private LaunchClasspathCache() {}
+
+    private static final Map<String, String> scriptClasspaths = new ConcurrentHashMap<String, String>();
+
+    private static final Map<String, String[]> runtimeClasspaths = new ConcurrentHashMap<String, String[]>();
+
+    /** incremented whenever the entries are dropped, so that values computed meanwhile are not kept */
+    private static final AtomicInteger generation = new AtomicInteger();
+
+    private static IElementChangedListener listener;
+
+    /**
+     * @return the cached classpath of the project, or {@code null}
+     */
+    static String getScriptClasspath(IProject project) {
+        return scriptClasspaths.get(project.getName());
+    }
+
+    static void putScriptClasspath(IProject project, String classpath, int stamp) {
+        if (stamp == generation.get()) {
+            scriptClasspaths.put(project.getName(), classpath);
+        }
+    }
+
+    /**
+     * @return the cached runtime classpath of the project, or {@code null}
+     */
+    static String[] getRuntimeClasspath(IProject project) {
+        String[] classpath = runtimeClasspaths.get(project.getName());
+        return classpath != null ? classpath.clone() : null;
+    }
+
+    static void putRuntimeClasspath(IProject project, String[] classpath, int stamp) {
+        if (stamp == generation.get()) {
+            runtimeClasspaths.put(project.getName(), classpath.clone());
+        }
+    }
+
+    /**
+     * @return the stamp to pass along with a value that is about to be computed
+     */
+    static int getStamp() {
+        ensureListening();
+        return generation.get();
+    }
+
+    static void clear() {
+        generation.incrementAndGet();
+        scriptClasspaths.clear();
+        runtimeClasspaths.clear();
+    }
+
+    private static synchronized void ensureListening() {
+        if (listener == null) {
+            listener = new IElementChangedListener() {
+                public void elementChanged(ElementChangedEvent event) {
+                    if (affectsClasspaths(event.getDelta())) {
+                        clear();
+                    }
+                }
+            };
+            JavaCore.addElementChangedListener(listener, ElementChangedEvent.POST_CHANGE);
+        }
+    }
+
+    private static boolean affectsClasspaths(IJavaElementDelta delta) {
+        if (delta.getElement().getElementType() == IJavaElement.JAVA_MODEL) {
+            // non-Java projects can hold libraries too
+            IResourceDelta[] resourceDeltas = delta.getResourceDeltas();
+            if (resourceDeltas != null) {
+                for (IResourceDelta resourceDelta : resourceDeltas) {
+                    if (resourceDelta.getResource() instanceof IProject && (resourceDelta.getKind() != IResourceDelta.CHANGED ||
+                            (resourceDelta.getFlags() & IResourceDelta.OPEN) != 0)) {
+                        return true;
+                    }
+                }
+            }
+            for (IJavaElementDelta child : delta.getAffectedChildren()) {
+                if (affectsClasspaths(child)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return delta.getElement().getElementType() == IJavaElement.JAVA_PROJECT && (delta.getKind() != IJavaElementDelta.CHANGED ||
+            (delta.getFlags() & (IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED |
+                IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED)) != 0);
+    }
+}
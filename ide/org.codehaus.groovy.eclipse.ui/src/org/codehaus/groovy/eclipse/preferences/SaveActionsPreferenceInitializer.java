@@ -30,5 +30,6 @@ public class SaveActionsPreferenceInitializer extends AbstractPreferenceInitiali
         IPreferenceStore store = GroovyPlugin.getDefault().getPreferenceStore();
 
         store.setDefault(PreferenceConstants.GROOVY_SAVE_ACTION_REMOVE_UNNECESSARY_SEMICOLONS, false);
+        store.setDefault(PreferenceConstants.GROOVY_SAVE_ACTION_TIME_BUDGET, 0);
     }
 }
@@ -19,6 +19,7 @@ import org.codehaus.groovy.eclipse.GroovyPlugin;
 import org.codehaus.groovy.eclipse.refactoring.PreferenceConstants;
 import org.eclipse.jface.preference.BooleanFieldEditor;
 import org.eclipse.jface.preference.FieldEditorPreferencePage;
+import org.eclipse.jface.preference.IntegerFieldEditor;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.IWorkbenchPreferencePage;
 
@@ -33,6 +34,10 @@ public class SaveActionsPreferencePage extends FieldEditorPreferencePage impleme
     public void createFieldEditors() {
         BooleanFieldEditor semicolonOption = new BooleanFieldEditor(PreferenceConstants.GROOVY_SAVE_ACTION_REMOVE_UNNECESSARY_SEMICOLONS, "Remove unnecessary semicolons", getFieldEditorParent());
         addField(semicolonOption);
+
+        IntegerFieldEditor timeBudget = new IntegerFieldEditor(PreferenceConstants.GROOVY_SAVE_ACTION_TIME_BUDGET, "Time allowed for save actions (ms, 0 for no limit)", getFieldEditorParent());
+        timeBudget.setValidRange(0, Integer.MAX_VALUE);
+        addField(timeBudget);
     }
 
     public void init(IWorkbench workbench) {}
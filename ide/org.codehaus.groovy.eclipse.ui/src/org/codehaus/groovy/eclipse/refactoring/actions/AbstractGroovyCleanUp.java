@@ -19,6 +19,9 @@ import org.codehaus.groovy.eclipse.core.GroovyCore;
 import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.ProgressMonitorWrapper;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.internal.ui.fix.AbstractCleanUp;
@@ -63,4 +66,80 @@ public abstract class AbstractGroovyCleanUp extends AbstractCleanUp {
             status = null;
         }
     }
+
+    //--------------------------------------------------------------------------
+
+    /** when the edits of the current save must be ready, in {@link System#nanoTime()} terms; 0 for no limit */
+    private volatile long deadline;
+
+    private volatile long editTime = -1;
+
+    /**
+     * Sets the time by which edits must be computed, or 0 for no limit.
+     */
+    void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * @throws OperationCanceledException if the deadline has passed
+     */
+    protected final void checkDeadline() {
+        if (isPastDeadline()) {
+            throw new OperationCanceledException();
+        }
+    }
+
+    private boolean isPastDeadline() {
+        long deadline = this.deadline;
+        return (deadline != 0 && deadline - System.nanoTime() <= 0);
+    }
+
+    /**
+     * @return a monitor that reports itself canceled once the deadline has
+     *     passed, for clean ups that do their work on the calling thread
+     */
+    protected final IProgressMonitor newDeadlineMonitor() {
+        return new ProgressMonitorWrapper(new NullProgressMonitor()) {
+            @Override
+            public boolean isCanceled() {
+                return super.isCanceled() || isPastDeadline();
+            }
+        };
+    }
+
+    /**
+     * Records the time spent computing an edit that was started at the given {@link System#nanoTime()}.
+     */
+    protected final void recordEditTime(long start) {
+        editTime = System.nanoTime() - start;
+    }
+
+    /**
+     * @return nanoseconds spent computing the most recent edit, or -1 if none was computed
+     */
+    long getEditTime() {
+        return editTime;
+    }
+
+    /**
+     * Prepares for a clean up of the given contents of a unit, so that the
+     * edits of several clean ups can be computed at once from the same snapshot.
+     * {@link ContentBasedGroovyCleanUp Content-based} clean ups start computing
+     * their edit.
+     */
+    void precomputeEdit(GroovyCompilationUnit unit, char[] contents) {
+        editTime = -1;
+    }
+
+    /**
+     * Drops edits computed ahead of time that have not been asked for.
+     */
+    void cancelEdits() {
+        status = null;
+    }
 }
@@ -22,7 +22,10 @@ import java.util.LinkedList;
 import java.util.Map;
 import java.util.Set;
 
+import org.codehaus.groovy.eclipse.GroovyLogManager;
+import org.codehaus.groovy.eclipse.TraceCategory;
 import org.codehaus.groovy.eclipse.core.GroovyCore;
+import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
 import org.codehaus.jdt.groovy.model.GroovyNature;
 import org.eclipse.core.filebuffers.FileBuffers;
 import org.eclipse.core.filebuffers.ITextFileBuffer;
@@ -37,6 +40,7 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubProgressMonitor;
 import org.eclipse.core.runtime.preferences.DefaultScope;
@@ -319,6 +323,15 @@ public class CleanUpPostSaveListener implements IPostSaveListener {
             }
             IUndoManager manager= RefactoringCore.getUndoManager();
 
+            // GROOVY Change clean ups that are not done by the deadline are abandoned
+            long budget= getTimeBudget();
+            long deadline= 0;
+            if (budget > 0) {
+                deadline= System.nanoTime() + budget * 1000000L;
+                if (deadline == 0)
+                    deadline= 1; // 0 means no deadline
+            }
+
             boolean success= false;
             try {
                 manager.aboutToPerformChange(result);
@@ -332,6 +345,17 @@ public class CleanUpPostSaveListener implements IPostSaveListener {
                     if (showStatus(preCondition) != Window.OK)
                         return;
 
+                    // GROOVY Change compute the edits of the groovy clean ups at once from the same contents
+                    if (unit instanceof GroovyCompilationUnit) {
+                        char[] contents= unit.getContents();
+                        for (int i= 0; i < cleanUps.length; i++) {
+                            if (cleanUps[i] instanceof AbstractGroovyCleanUp) {
+                                ((AbstractGroovyCleanUp) cleanUps[i]).setDeadline(deadline);
+                                ((AbstractGroovyCleanUp) cleanUps[i]).precomputeEdit((GroovyCompilationUnit) unit, contents);
+                            }
+                        }
+                    }
+
                     Map<String, String> options= new HashMap<String, String>();
                     for (int i= 0; i < cleanUps.length; i++) {
                         Map<String, String> map= cleanUps[i].getRequirements().getCompilerOptions();
@@ -353,7 +377,22 @@ public class CleanUpPostSaveListener implements IPostSaveListener {
                     }
 
                     ArrayList<ICleanUp> undoneCleanUps= new ArrayList<ICleanUp>();
-                    CleanUpChange change= CleanUpRefactoring.calculateChange(context, cleanUps, undoneCleanUps, slowCleanUps);
+                    CleanUpChange change;
+                    // GROOVY Change the changes of earlier rounds are kept if this one runs out of time
+                    try {
+                        change= CleanUpRefactoring.calculateChange(context, cleanUps, undoneCleanUps, slowCleanUps);
+                    } catch (OperationCanceledException e) {
+                        if (deadline == 0 || monitor.isCanceled())
+                            throw e;
+                        for (int i= 0; i < cleanUps.length; i++) {
+                            if (cleanUps[i] instanceof AbstractGroovyCleanUp) {
+                                ((AbstractGroovyCleanUp) cleanUps[i]).cancelEdits();
+                            }
+                        }
+                        logEditTimes(unit, cleanUps, "Save actions for " + unit.getElementName() + " took longer than " + budget + "ms and were abandoned");
+                        break;
+                    }
+                    logEditTimes(unit, cleanUps, "Save actions for " + unit.getElementName());
 
                     RefactoringStatus postCondition= new RefactoringStatus();
                     for (int i= 0; i < cleanUps.length; i++) {
@@ -436,6 +475,29 @@ public class CleanUpPostSaveListener implements IPostSaveListener {
         return cleanUps;
     }
 
+    // Groovy Change --- time allowed for save actions
+    /**
+     * @return milliseconds the clean ups of a save may take before they are
+     *         abandoned, or 0 for no limit
+     */
+    protected long getTimeBudget() {
+        return 0;
+    }
+
+    private static void logEditTimes(ICompilationUnit unit, ICleanUp[] cleanUps, String message) {
+        if (GroovyLogManager.manager.hasLoggers()) {
+            StringBuilder sb= new StringBuilder(message);
+            for (int i= 0; i < cleanUps.length; i++) {
+                if (cleanUps[i] instanceof AbstractGroovyCleanUp) {
+                    long nanos= ((AbstractGroovyCleanUp) cleanUps[i]).getEditTime();
+                    sb.append("\n    ").append(cleanUps[i].getClass().getSimpleName()).append(": ");
+                    sb.append(nanos < 0 ? "not done" : (nanos / 1000000L) + "ms");
+                }
+            }
+            GroovyLogManager.manager.log(TraceCategory.REFACTORING, sb.toString());
+        }
+    }
+
     // Groovy Change --- not static so can be overriden, also made protected
     protected ICleanUp[] getCleanUps(Map<String, String> settings, Set<String> ids) {
         ICleanUp[] result= JavaPlugin.getDefault().getCleanUpRegistry().createCleanUps(ids);
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.refactoring.actions;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.codehaus.groovy.eclipse.core.GroovyCore;
+import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.groovy.core.util.ReflectionUtils;
+import org.eclipse.ltk.core.refactoring.RefactoringStatus;
+import org.eclipse.text.edits.TextEdit;
+
+/**
+ * A clean up whose edit depends on nothing but the unit's contents and what
+ * is read from the unit beforehand (eg- preferences).  When several units are
+ * cleaned up, their edits are computed concurrently, a bounded number ahead
+ * of their use.
+ */
+public abstract class ContentBasedGroovyCleanUp extends AbstractGroovyCleanUp {
+
+    /**
+     * Reads what the edit of this clean up needs from the unit, such as its
+     * preferences.  Called on the thread that asks for the edit.
+     *
+     * @return task that computes the text edit for the given contents of the
+     *     unit; it may run on any thread, so it must not access the unit or
+     *     the Java model
+     */
+    protected abstract Callable<TextEdit> prepareEdit(GroovyCompilationUnit unit, char[] contents) throws CoreException;
+
+    @Override
+    public RefactoringStatus checkPreConditions(IJavaProject project,
+            ICompilationUnit[] compilationUnits, IProgressMonitor monitor)
+            throws CoreException {
+
+        RefactoringStatus status = super.checkPreConditions(project, compilationUnits, monitor);
+
+        if (compilationUnits.length > 1 && !status.hasFatalError()) {
+            precomputeEdits(compilationUnits);
+        }
+
+        return status;
+    }
+
+    @Override
+    public RefactoringStatus checkPostConditions(IProgressMonitor monitor) throws CoreException {
+        try {
+            return super.checkPostConditions(monitor);
+        } finally {
+            discardEdits();
+        }
+    }
+
+    /**
+     * Returns the text edit for the current contents of the unit, computed
+     * ahead of time if possible.  Edits computed for contents that have since
+     * changed (eg- by another clean up) are discarded.
+     *
+     * @throws OperationCanceledException if the deadline passes before the edit is ready
+     */
+    protected final TextEdit getEdit(GroovyCompilationUnit unit) throws CoreException {
+        char[] contents = unit.getContents();
+        PendingEdit pending = null;
+        synchronized (this) {
+            if (pendingEdits != null) {
+                ICompilationUnit key = unit.getPrimary();
+                pending = pendingEdits.remove(key);
+                consumedUnits.add(key);
+                submitEdits();
+            }
+        }
+        if (pending != null && Arrays.equals(pending.contents, contents)) {
+            long deadline = getDeadline();
+            try {
+                if (deadline == 0) {
+                    return pending.edit.get();
+                }
+                return pending.edit.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                pending.edit.cancel(true);
+                throw new OperationCanceledException();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof CoreException) {
+                    throw (CoreException) e.getCause();
+                }
+                GroovyCore.logException("Cannot compute clean up for " + unit.getElementName(), e.getCause());
+            }
+        }
+        checkDeadline();
+        return timedCreateEdit(prepareEdit(unit, contents));
+    }
+
+    private TextEdit timedCreateEdit(Callable<TextEdit> task) throws CoreException {
+        long start = System.nanoTime();
+        try {
+            return task.call();
+        } catch (CoreException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        } finally {
+            recordEditTime(start);
+        }
+    }
+
+    //--------------------------------------------------------------------------
+
+    @Override
+    synchronized void precomputeEdit(GroovyCompilationUnit unit, char[] contents) {
+        discardEdits();
+        super.precomputeEdit(unit, contents);
+        waitingUnits = new LinkedList<GroovyCompilationUnit>();
+        consumedUnits = new HashSet<ICompilationUnit>();
+        pendingEdits = new HashMap<ICompilationUnit, PendingEdit>();
+        PendingEdit pending = submitEdit(unit, contents);
+        if (pending != null) {
+            pendingEdits.put(unit.getPrimary(), pending);
+        }
+    }
+
+    @Override
+    void cancelEdits() {
+        super.cancelEdits();
+        discardEdits();
+    }
+
+    private static class PendingEdit {
+        final char[] contents;
+        final Future<TextEdit> edit;
+
+        PendingEdit(char[] contents, Future<TextEdit> edit) {
+            this.contents = contents;
+            this.edit = edit;
+        }
+    }
+
+    /** units whose edits have not been submitted yet, in the order they were given */
+    private LinkedList<GroovyCompilationUnit> waitingUnits;
+    /** units that have asked for their edit */
+    private Set<ICompilationUnit> consumedUnits;
+    private Map<ICompilationUnit, PendingEdit> pendingEdits;
+
+    private synchronized void precomputeEdits(ICompilationUnit[] units) {
+        discardEdits();
+        waitingUnits = new LinkedList<GroovyCompilationUnit>();
+        consumedUnits = new HashSet<ICompilationUnit>();
+        pendingEdits = new HashMap<ICompilationUnit, PendingEdit>();
+        for (ICompilationUnit unit : units) {
+            if (unit instanceof GroovyCompilationUnit) {
+                waitingUnits.add((GroovyCompilationUnit) unit);
+            }
+        }
+        submitEdits();
+    }
+
+    /**
+     * Keeps a bounded number of edits computed or in progress ahead of their use.
+     */
+    private void submitEdits() {
+        while (!waitingUnits.isEmpty() && pendingEdits.size() < MAX_PENDING) {
+            GroovyCompilationUnit unit = waitingUnits.removeFirst();
+            ICompilationUnit key = unit.getPrimary();
+            if (!consumedUnits.contains(key) && !pendingEdits.containsKey(key)) {
+                // read the contents here; the Java model is not accessed by the workers
+                PendingEdit pending = submitEdit(unit, unit.getContents());
+                if (pending != null) {
+                    pendingEdits.put(key, pending);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the edit in progress, or {@code null} if it could not be prepared
+     *     (it is then prepared again when asked for)
+     */
+    private PendingEdit submitEdit(GroovyCompilationUnit unit, char[] contents) {
+        final Callable<TextEdit> task;
+        try {
+            task = prepareEdit(unit, contents);
+        } catch (CoreException e) {
+            return null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+        Future<TextEdit> edit = getExecutor().submit(new Callable<TextEdit>() {
+            public TextEdit call() throws Exception {
+                return timedCreateEdit(task);
+            }
+        });
+        return new PendingEdit(contents, edit);
+    }
+
+    private synchronized void discardEdits() {
+        if (pendingEdits != null) {
+            for (PendingEdit pending : pendingEdits.values()) {
+                pending.edit.cancel(true);
+            }
+        }
+        waitingUnits = null;
+        consumedUnits = null;
+        pendingEdits = null;
+    }
+
+    private static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    private static final int MAX_PENDING = THREADS * 4;
+
+    private static ThreadPoolExecutor executor;
+
+    private static synchronized ThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            executor = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "Groovy clean up");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            // let idle threads end between clean ups (Java 6+)
+            ReflectionUtils.executePrivateMethod(ThreadPoolExecutor.class, "allowCoreThreadTimeOut",
+                new Class<?>[] {boolean.class}, executor, new Object[] {Boolean.TRUE});
+        }
+        return executor;
+    }
+
+    /**
+     * Stops the threads that compute edits; called when the plug-in stops.
+     */
+    public static synchronized void shutdownExecutor() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+}
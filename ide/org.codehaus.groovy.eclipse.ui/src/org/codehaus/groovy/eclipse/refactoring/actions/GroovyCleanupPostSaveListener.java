@@ -90,4 +90,9 @@ public class GroovyCleanupPostSaveListener extends CleanUpPostSaveListener imple
 
         return groovyCleanUps.toArray(new ICleanUp[groovyCleanUps.size()]);
     }
+
+    @Override
+    protected long getTimeBudget() {
+        return GroovyPlugin.getDefault().getPreferenceStore().getInt(PreferenceConstants.GROOVY_SAVE_ACTION_TIME_BUDGET);
+    }
 }
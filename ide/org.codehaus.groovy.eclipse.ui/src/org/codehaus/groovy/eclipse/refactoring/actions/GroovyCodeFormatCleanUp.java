@@ -15,6 +15,8 @@
  */
 package org.codehaus.groovy.eclipse.refactoring.actions;
 
+import java.util.concurrent.Callable;
+
 import org.codehaus.groovy.eclipse.refactoring.formatter.DefaultGroovyFormatter;
 import org.codehaus.groovy.eclipse.refactoring.formatter.FormatterPreferences;
 import org.codehaus.groovy.eclipse.refactoring.formatter.IFormatterPreferences;
@@ -34,7 +36,7 @@ import org.eclipse.text.edits.TextEdit;
  * @author Andrew Eisenberg
  * @created Aug 18, 2009
  */
-public class GroovyCodeFormatCleanUp extends AbstractGroovyCleanUp {
+public class GroovyCodeFormatCleanUp extends ContentBasedGroovyCleanUp {
 
     private final FormatKind kind;
 
@@ -51,18 +53,26 @@ public class GroovyCodeFormatCleanUp extends AbstractGroovyCleanUp {
         }
 
         GroovyCompilationUnit gunit = (GroovyCompilationUnit) unit;
-        char[] contents = gunit.getContents();
-        ITextSelection sel = new TextSelection(0, contents.length);
-        IDocument doc = new Document(new String(contents));
-        boolean isIndentOnly = kind == FormatKind.INDENT_ONLY;
-        IFormatterPreferences preferences = new FormatterPreferences(gunit);
-
-        DefaultGroovyFormatter formatter = new DefaultGroovyFormatter(sel, doc, preferences, isIndentOnly);
-        TextEdit edit = formatter.format();
+        TextEdit edit = getEdit(gunit);
 
         return new TextEditFix(edit, gunit, "Format groovy source code.");
     }
 
+    @Override
+    protected Callable<TextEdit> prepareEdit(GroovyCompilationUnit gunit, final char[] contents) {
+        // preferences are read from the unit's project, so not on a worker thread
+        final IFormatterPreferences preferences = new FormatterPreferences(gunit);
+        final boolean isIndentOnly = kind == FormatKind.INDENT_ONLY;
+        return new Callable<TextEdit>() {
+            public TextEdit call() {
+                ITextSelection sel = new TextSelection(0, contents.length);
+                IDocument doc = new Document(new String(contents));
+                DefaultGroovyFormatter formatter = new DefaultGroovyFormatter(sel, doc, preferences, isIndentOnly);
+                return formatter.format();
+            }
+        };
+    }
+
     @Override
     public String[] getStepDescriptions() {
         return new String[] { "Format groovy source code." };
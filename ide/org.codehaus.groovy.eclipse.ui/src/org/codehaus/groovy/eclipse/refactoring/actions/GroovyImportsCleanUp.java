@@ -79,6 +79,8 @@ public class GroovyImportsCleanUp extends AbstractGroovyCleanUp {
         if (!(unit instanceof GroovyCompilationUnit)) {
             return javaCleanUp.createFix(context);
         }
+        checkDeadline();
+        long start = System.nanoTime();
 
         final boolean hasAmbiguity[] = new boolean[] {false};
         IChooseImportQuery query = new IChooseImportQuery() {
@@ -88,8 +90,13 @@ public class GroovyImportsCleanUp extends AbstractGroovyCleanUp {
             }
         };
 
-        OrganizeGroovyImports op = new OrganizeGroovyImports((GroovyCompilationUnit) unit, query);
+        OrganizeGroovyImports op = new OrganizeGroovyImports((GroovyCompilationUnit) unit, query, newDeadlineMonitor());
         final TextEdit edit = op.calculateMissingImports();
+        if (edit == null) {
+            // stopped by the deadline rather than by a parse problem?
+            checkDeadline();
+        }
+        recordEditTime(start);
         if (status == null) {
             status = new RefactoringStatus();
         }
@@ -56,6 +56,7 @@ import org.codehaus.groovy.eclipse.refactoring.actions.TypeSearch.UnresolvedType
 import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
 import org.codehaus.jdt.groovy.model.ModuleNodeMapper.ModuleNodeInfo;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jdt.core.ISourceRange;
 import org.eclipse.jdt.core.IType;
@@ -473,10 +474,12 @@ public class OrganizeGroovyImports {
             // scan for imports that are not referenced
             for (ClassNode clazz : (Iterable<ClassNode>) info.module.getClasses()) {
                 GroovyClassVisitor visitor = new FindUnresolvedReferencesVisitor();
+                checkCanceled();
                 visitor.visitClass(clazz); // modifies missingTypes and importsSlatedForRemoval
             }
 
             monitor.worked(4);
+            checkCanceled();
 
             // remove all default imports
             for (ImportNode imp : allImports) {
@@ -515,6 +518,7 @@ public class OrganizeGroovyImports {
                 if (!missingTypes.isEmpty()) {
                     monitor.subTask("Resolve missing types");
                     monitor.setWorkRemaining(missingTypes.size() + 1);
+                    checkCanceled();
                     for (IType type : resolveMissingTypes(monitor.newChild(1))) {
                         trace("Missing type '%s'", type);
                         rewriter.addImport(type.getFullyQualifiedName('.'));
@@ -526,6 +530,8 @@ public class OrganizeGroovyImports {
             trace("%s", rewrite);
             return rewrite;
 
+        } catch (OperationCanceledException e) {
+            trace("Canceled");
         } catch (Exception e) {
             GroovyPlugin.getDefault().logError("Exception thrown when organizing imports for " + unit.getElementName(), e);
         } finally {
@@ -746,6 +752,12 @@ public class OrganizeGroovyImports {
         return false;
     }
 
+    private void checkCanceled() {
+        if (monitor.isCanceled()) {
+            throw new OperationCanceledException();
+        }
+    }
+
     private static void trace(String message, Object... arguments) {
         if (GroovyLogManager.manager.hasLoggers()) {
             GroovyLogManager.manager.log(TraceCategory.ORGANIZE_IMPORTS, String.format(message, arguments));
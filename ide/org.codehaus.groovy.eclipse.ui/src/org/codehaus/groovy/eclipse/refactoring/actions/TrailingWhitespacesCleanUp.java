@@ -15,6 +15,8 @@
  */
 package org.codehaus.groovy.eclipse.refactoring.actions;
 
+import java.util.concurrent.Callable;
+
 import org.codehaus.groovy.eclipse.refactoring.formatter.GroovyFormatter;
 import org.codehaus.groovy.eclipse.refactoring.formatter.WhitespaceRemover;
 import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
@@ -29,7 +31,7 @@ import org.eclipse.jface.text.ITextSelection;
 import org.eclipse.jface.text.TextSelection;
 import org.eclipse.text.edits.TextEdit;
 
-public class TrailingWhitespacesCleanUp extends AbstractGroovyCleanUp {
+public class TrailingWhitespacesCleanUp extends ContentBasedGroovyCleanUp {
 
     @Override
     public ICleanUpFix createFix(CleanUpContext context) throws CoreException {
@@ -40,15 +42,22 @@ public class TrailingWhitespacesCleanUp extends AbstractGroovyCleanUp {
         }
 
         GroovyCompilationUnit gunit = (GroovyCompilationUnit) unit;
-        char[] contents = gunit.getContents();
-        ITextSelection selection = new TextSelection(0, contents.length);
-        IDocument document = new Document(new String(contents));
-        GroovyFormatter formatter = new WhitespaceRemover(selection, document);
-
-        TextEdit edit = formatter.format();
+        TextEdit edit = getEdit(gunit);
         return new TextEditFix(edit, gunit, "Remove trailing whitespaces.");
     }
 
+    @Override
+    protected Callable<TextEdit> prepareEdit(GroovyCompilationUnit unit, final char[] contents) {
+        return new Callable<TextEdit>() {
+            public TextEdit call() {
+                ITextSelection selection = new TextSelection(0, contents.length);
+                IDocument document = new Document(new String(contents));
+                GroovyFormatter formatter = new WhitespaceRemover(selection, document);
+                return formatter.format();
+            }
+        };
+    }
+
     @Override
     public String[] getStepDescriptions() {
         return new String[] { "Remove trailing whitespaces." };
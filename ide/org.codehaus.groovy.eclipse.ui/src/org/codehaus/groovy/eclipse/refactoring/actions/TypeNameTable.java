@@ -0,0 +1,326 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.refactoring.actions;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.groovy.eclipse.core.GroovyCore;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.TypeNameMatch;
+import org.eclipse.jdt.internal.corext.util.TypeFilter;
+import org.eclipse.jdt.internal.corext.util.TypeNameMatchCollector;
+import org.eclipse.jdt.ui.PreferenceConstants;
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
+
+/**
+ * Simple name to types table of the types visible from a project.  A table is
+ * read from the search index the first time a project's types are looked up.
+ * After that, it is kept up to date from Java element deltas: the types of
+ * changed compilation units are read again from the Java model, and any change
+ * to a classpath, source folder, archive or package drops the tables.  Changes
+ * that arrive while a table is read from the index are applied once the read
+ * is done.  A change to the type filters drops the tables as well.
+ * <p>
+ * This lets organize imports run over many files (as a clean up or save action)
+ * without a search index query for each file.
+ */
+public class TypeNameTable {
+
+    private static TypeNameTable INSTANCE;
+
+    public static synchronized TypeNameTable getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new TypeNameTable();
+            JavaCore.addElementChangedListener(INSTANCE.listener, ElementChangedEvent.POST_CHANGE);
+            PreferenceConstants.getPreferenceStore().addPropertyChangeListener(INSTANCE.filterListener);
+        }
+        return INSTANCE;
+    }
+
+    public static synchronized void dispose() {
+        if (INSTANCE != null) {
+            JavaCore.removeElementChangedListener(INSTANCE.listener);
+            PreferenceConstants.getPreferenceStore().removePropertyChangeListener(INSTANCE.filterListener);
+            INSTANCE = null;
+        }
+    }
+
+    private final Map<IJavaProject, SoftReference<ProjectTypes>> projects = new HashMap<IJavaProject, SoftReference<ProjectTypes>>();
+
+    /** tables that are being read from the index; guarded by {@link #projects} */
+    private final List<ProjectTypes> loading = new ArrayList<ProjectTypes>();
+
+    /**
+     * Finds the types that have any of the given simple names.  Like the search
+     * for each name that was used before, this includes member types, so that
+     * organize imports can add imports such as <code>p.Outer.Inner</code>.
+     *
+     * @param monitor if {@code null}, the table is only read if the index is ready
+     * @return types by simple name; names without types are not included
+     */
+    public Map<String, List<TypeNameMatch>> findTypes(IJavaProject project, Iterable<String> simpleNames, IProgressMonitor monitor)
+            throws JavaModelException, OperationCanceledException {
+        ProjectTypes types = getProjectTypes(project, monitor);
+        Map<String, List<TypeNameMatch>> found = new HashMap<String, List<TypeNameMatch>>();
+        synchronized (types) {
+            for (String simpleName : simpleNames) {
+                List<TypeNameMatch> matches = types.byName.get(simpleName);
+                if (matches != null && !matches.isEmpty()) {
+                    found.put(simpleName, new ArrayList<TypeNameMatch>(matches));
+                }
+            }
+        }
+        return found;
+    }
+
+    private ProjectTypes getProjectTypes(IJavaProject project, IProgressMonitor monitor) throws JavaModelException {
+        synchronized (projects) {
+            SoftReference<ProjectTypes> ref = projects.get(project);
+            ProjectTypes types = (ref != null ? ref.get() : null);
+            if (types != null) {
+                return types;
+            }
+        }
+
+        // read the table outside of the lock; concurrent readers may both do it
+        ProjectTypes types = new ProjectTypes(project);
+        synchronized (projects) {
+            loading.add(types);
+        }
+        try {
+            types.readFromIndex(monitor);
+        } finally {
+            synchronized (projects) {
+                loading.remove(types);
+            }
+        }
+
+        synchronized (projects) {
+            SoftReference<ProjectTypes> ref = projects.get(project);
+            ProjectTypes other = (ref != null ? ref.get() : null);
+            if (other != null) {
+                return other;
+            }
+            // a table that missed a change is good enough for this lookup only
+            if (!types.isStale()) {
+                projects.put(project, new SoftReference<ProjectTypes>(types));
+            }
+            return types;
+        }
+    }
+
+    private List<ProjectTypes> getProjectTypes() {
+        List<ProjectTypes> list = new ArrayList<ProjectTypes>();
+        synchronized (projects) {
+            list.addAll(loading);
+            for (Iterator<SoftReference<ProjectTypes>> it = projects.values().iterator(); it.hasNext();) {
+                ProjectTypes types = it.next().get();
+                if (types != null) {
+                    list.add(types);
+                } else {
+                    it.remove();
+                }
+            }
+        }
+        return list;
+    }
+
+    private void clear() {
+        synchronized (projects) {
+            projects.clear();
+            for (ProjectTypes types : loading) {
+                types.setStale();
+            }
+        }
+    }
+
+    //--------------------------------------------------------------------------
+
+    private static class ProjectTypes {
+        final IJavaSearchScope scope;
+        final Map<String, List<TypeNameMatch>> byName = new HashMap<String, List<TypeNameMatch>>();
+        /** source types by compilation unit handle, so they can be replaced when the unit changes */
+        final Map<String, List<TypeNameMatch>> byUnit = new HashMap<String, List<TypeNameMatch>>();
+        /** units changed while the table is read from the index, and whether they were removed */
+        private Map<ICompilationUnit, Boolean> pending = new LinkedHashMap<ICompilationUnit, Boolean>();
+        private boolean stale;
+
+        ProjectTypes(IJavaProject project) {
+            this.scope = SearchEngine.createJavaSearchScope(new IJavaElement[] {project});
+        }
+
+        void readFromIndex(IProgressMonitor monitor) throws JavaModelException {
+            List<TypeNameMatch> matches = new ArrayList<TypeNameMatch>();
+            int policy = (monitor == null ? IJavaSearchConstants.CANCEL_IF_NOT_READY_TO_SEARCH : IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH);
+            // no type name, so all types are found (member types included)
+            new SearchEngine().searchAllTypeNames(null, SearchPattern.R_EXACT_MATCH, null, SearchPattern.R_PREFIX_MATCH,
+                IJavaSearchConstants.TYPE, scope, new TypeNameMatchCollector(matches), policy, monitor);
+            synchronized (this) {
+                for (TypeNameMatch match : matches) {
+                    add(match);
+                }
+                // the index may or may not have seen these changes, so read the units again
+                Map<ICompilationUnit, Boolean> changes = pending;
+                pending = null;
+                for (Map.Entry<ICompilationUnit, Boolean> change : changes.entrySet()) {
+                    update(change.getKey(), change.getValue());
+                }
+            }
+        }
+
+        synchronized boolean isStale() {
+            return stale;
+        }
+
+        synchronized void setStale() {
+            stale = true;
+        }
+
+        void add(TypeNameMatch match) {
+            List<TypeNameMatch> named = byName.get(match.getSimpleTypeName());
+            if (named == null) {
+                named = new ArrayList<TypeNameMatch>(1);
+                byName.put(match.getSimpleTypeName(), named);
+            }
+            named.add(match);
+
+            ICompilationUnit unit = match.getType().getCompilationUnit();
+            if (unit != null) {
+                String key = unit.getHandleIdentifier();
+                List<TypeNameMatch> inUnit = byUnit.get(key);
+                if (inUnit == null) {
+                    inUnit = new ArrayList<TypeNameMatch>(1);
+                    byUnit.put(key, inUnit);
+                }
+                inUnit.add(match);
+            }
+        }
+
+        synchronized void update(ICompilationUnit unit, boolean removed) throws JavaModelException {
+            if (pending != null) {
+                pending.remove(unit);
+                pending.put(unit, removed);
+                return;
+            }
+            List<TypeNameMatch> old = byUnit.remove(unit.getHandleIdentifier());
+            if (old != null) {
+                for (TypeNameMatch match : old) {
+                    List<TypeNameMatch> named = byName.get(match.getSimpleTypeName());
+                    if (named != null) {
+                        named.remove(match);
+                    }
+                }
+            }
+            if (!removed && unit.exists() && scope.encloses(unit)) {
+                for (IType type : unit.getAllTypes()) {
+                    TypeNameMatch match = SearchEngine.createTypeNameMatch(type, type.getFlags());
+                    if (!TypeFilter.isFiltered(match)) {
+                        add(match);
+                    }
+                }
+            }
+        }
+    }
+
+    //--------------------------------------------------------------------------
+
+    private final IElementChangedListener listener = new IElementChangedListener() {
+        public void elementChanged(ElementChangedEvent event) {
+            List<ProjectTypes> tables = getProjectTypes();
+            if (!tables.isEmpty()) {
+                try {
+                    if (!visit(event.getDelta(), tables)) {
+                        clear();
+                    }
+                } catch (JavaModelException e) {
+                    GroovyCore.logException("Error updating type name table", e);
+                    clear();
+                }
+            }
+        }
+
+        /**
+         * @return {@code false} if the change can't be applied to the tables
+         */
+        private boolean visit(IJavaElementDelta delta, List<ProjectTypes> tables) throws JavaModelException {
+            int flags = delta.getFlags();
+            switch (delta.getElement().getElementType()) {
+            case IJavaElement.JAVA_MODEL:
+                break;
+            case IJavaElement.JAVA_PROJECT:
+                if (delta.getKind() != IJavaElementDelta.CHANGED || (flags & (IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED |
+                        IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED)) != 0) {
+                    return false;
+                }
+                break;
+            case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+            case IJavaElement.PACKAGE_FRAGMENT:
+                if (delta.getKind() != IJavaElementDelta.CHANGED || (flags & (IJavaElementDelta.F_ADDED_TO_CLASSPATH |
+                        IJavaElementDelta.F_REMOVED_FROM_CLASSPATH | IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED | IJavaElementDelta.F_REORDER)) != 0) {
+                    return false;
+                }
+                break;
+            case IJavaElement.COMPILATION_UNIT:
+                ICompilationUnit unit = (ICompilationUnit) delta.getElement();
+                // primary units include those open in an editor; others are private working copies
+                if (unit.isPrimary()) {
+                    for (ProjectTypes table : tables) {
+                        table.update(unit, delta.getKind() == IJavaElementDelta.REMOVED);
+                    }
+                }
+                return true;
+            default:
+                return true;
+            }
+            for (IJavaElementDelta child : delta.getAffectedChildren()) {
+                if (!visit(child, tables)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    };
+
+    private final IPropertyChangeListener filterListener = new IPropertyChangeListener() {
+        public void propertyChange(PropertyChangeEvent event) {
+            if (PreferenceConstants.TYPEFILTER_ENABLED.equals(event.getProperty()) ||
+                    PreferenceConstants.TYPEFILTER_DISABLED.equals(event.getProperty())) {
+                clear();
+            }
+        }
+    };
+}
@@ -15,24 +15,17 @@
  */
 package org.codehaus.groovy.eclipse.refactoring.actions;
 
-import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
-import org.codehaus.groovy.eclipse.core.GroovyCore;
 import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.Flags;
-import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.ISourceRange;
 import org.eclipse.jdt.core.JavaModelException;
-import org.eclipse.jdt.core.search.IJavaSearchConstants;
-import org.eclipse.jdt.core.search.IJavaSearchScope;
-import org.eclipse.jdt.core.search.SearchEngine;
 import org.eclipse.jdt.core.search.TypeNameMatch;
-import org.eclipse.jdt.internal.corext.util.TypeNameMatchCollector;
 
 public class TypeSearch {
     /**
@@ -66,32 +59,19 @@ public class TypeSearch {
     }
 
     /**
-     * Use a SearchEngine to look for the types.
-     * <p>
-     * NOTE: This will not find inner types.
+     * Use the project's {@link TypeNameTable} to look for the types.
      *
      * @see OrganizeImportsOperation.TypeReferenceProcessor#process(org.eclipse.core.runtime.IProgressMonitor)
      */
     public void searchForTypes(GroovyCompilationUnit unit, Map<String, UnresolvedTypeData> missingTypes, IProgressMonitor monitor) throws JavaModelException, OperationCanceledException {
-        char[][] allTypes = new char[missingTypes.size()][];
-        int i = 0;
-        for (String simpleName : missingTypes.keySet()) {
-            allTypes[i++] = simpleName.toCharArray();
-        }
-        final List<TypeNameMatch> typesFound = new ArrayList<TypeNameMatch>();
-        TypeNameMatchCollector collector = new TypeNameMatchCollector(typesFound);
-        IJavaSearchScope scope = SearchEngine.createJavaSearchScope(new IJavaElement[] {unit.getJavaProject()});
-        int policy = (monitor == null ? IJavaSearchConstants.CANCEL_IF_NOT_READY_TO_SEARCH : IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH);
-        new SearchEngine().searchAllTypeNames(null, allTypes, scope, collector, policy, monitor);
+        Map<String, List<TypeNameMatch>> typesFound = TypeNameTable.getInstance().findTypes(unit.getJavaProject(), missingTypes.keySet(), monitor);
 
-        for (TypeNameMatch match : typesFound) {
-            UnresolvedTypeData data = missingTypes.get(match.getSimpleTypeName());
-            if (data == null) {
-                GroovyCore.logException("GRECLIPSE-735: Match not found in missing types: " + match.getFullyQualifiedName(), new Exception());
-                continue;
-            }
-            if (isOfKind(match, data.isAnnotation)) {
-                data.addInfo(match);
+        for (Map.Entry<String, List<TypeNameMatch>> entry : typesFound.entrySet()) {
+            UnresolvedTypeData data = missingTypes.get(entry.getKey());
+            for (TypeNameMatch match : entry.getValue()) {
+                if (isOfKind(match, data.isAnnotation)) {
+                    data.addInfo(match);
+                }
             }
         }
     }
@@ -640,6 +640,26 @@ public void resolve(IGenericType suppliedType) {
 	}
 }
 
+// GROOVY add
+/*
+ * Tells whether any method of the given types or their member types declares a local or anonymous type.
+ */
+private static boolean hasLocalTypes(TypeDeclaration[] types) {
+	if (types != null) {
+		for (int i = 0, length = types.length; i < length; i++) {
+			AbstractMethodDeclaration[] methods = types[i].methods;
+			if (methods != null) {
+				for (int j = 0, count = methods.length; j < count; j++) {
+					if ((methods[j].bits & ASTNode.HasLocalType) != 0) return true;
+				}
+			}
+			if (hasLocalTypes(types[i].memberTypes)) return true;
+		}
+	}
+	return false;
+}
+// GROOVY end
+
 /**
  * Resolve the supertypes for the types contained in the given openables (ICompilationUnits and/or IClassFiles).
  * Inform the requestor of the resolved supertypes for each
@@ -697,6 +717,19 @@ public void resolve(Openable[] openables, HashSet localTypes, IProgressMonitor m
 
 				// build parsed unit
 				CompilationUnitDeclaration parsedUnit = null;
+				// GROOVY add -- groovy units are parsed rather than converted from element infos (see SourceTypeConverter);
+				// use the parser shared by this resolution instead of creating one for each unit
+				if (cu.isOpen() && LanguageSupportFactory.isInterestingSourceFile(cu.getElementName())) {
+					try {
+						if (cu.getTypes().length == 0) continue; // empty cu: no need to parse
+					} catch (JavaModelException e) {
+						// types/cu exist since cu is opened
+					}
+					CompilationResult result = new CompilationResult((ICompilationUnit)cu, i, openablesLength, this.options.maxProblemsPerUnit);
+					parsedUnit = parser.dietParse((ICompilationUnit)cu, result);
+					if (parsedUnit != null && containsLocalType) parsedUnit.bits |= ASTNode.HasAllMethodBodies;
+				} else
+				// GROOVY end
 				if (cu.isOpen()) {
 					// create parsed unit from source element infos
 					CompilationResult result = new CompilationResult((ICompilationUnit)cu, i, openablesLength, this.options.maxProblemsPerUnit);
@@ -735,6 +768,14 @@ public void resolve(Openable[] openables, HashSet localTypes, IProgressMonitor m
 					parsedUnit = parser.dietParse(sourceUnit, unitResult);
 				}
 
+				// GROOVY add -- groovy units only have local types where the parse found anonymous inner types, so a unit without
+				// any needs no method bodies or resolution (which runs semantic analysis of all the groovy units collected so far)
+				if (containsLocalType && parsedUnit != null && !openable.equals(focusOpenable) &&
+						LanguageSupportFactory.isInterestingSourceFile(cu.getElementName()) && !hasLocalTypes(parsedUnit.types)) {
+					containsLocalType = false;
+				}
+				// GROOVY end
+
 				if (parsedUnit != null) {
 					hasLocalType[unitsIndex] = containsLocalType;
 					cus[unitsIndex] = cu;